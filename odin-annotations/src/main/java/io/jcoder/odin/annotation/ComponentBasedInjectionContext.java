@@ -16,6 +16,9 @@
 package io.jcoder.odin.annotation;
 
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
 import javax.inject.Provider;
 
@@ -92,6 +95,18 @@ public class ComponentBasedInjectionContext implements InjectionContext {
         componentRegistrar.initialize();
     }
 
+    public int initialize(Class<?>... roots) {
+        return componentRegistrar.initialize(roots);
+    }
+
+    public void freeze() {
+        delegate.freeze();
+    }
+
+    public boolean frozen() {
+        return delegate.frozen();
+    }
+
     public <T> List<InjectionRegistration<?>> getRegistrations() {
         return delegate.getRegistrations();
     }
@@ -116,6 +131,10 @@ public class ComponentBasedInjectionContext implements InjectionContext {
         return delegate.getMulti(objectClass);
     }
 
+    public <T> Stream<T> getMultiStream(Class<T> objectClass) {
+        return delegate.getMultiStream(objectClass);
+    }
+
     public <T> InjectionRegistration<T> getRegistration(Class<T> objectClass) {
         return delegate.getRegistration(objectClass);
     }
@@ -148,6 +167,14 @@ public class ComponentBasedInjectionContext implements InjectionContext {
         delegate.destroy();
     }
 
+    public Executor propagatingExecutor(Executor executor) {
+        return delegate.propagatingExecutor(executor);
+    }
+
+    public ExecutorService propagatingExecutorService(ExecutorService executorService) {
+        return delegate.propagatingExecutorService(executorService);
+    }
+
     public <T> InjectionRegistration<Provider<?>> getProviderRegistration(InjectionRegistration<T> registration) {
         return delegate.getProviderRegistration(registration);
     }
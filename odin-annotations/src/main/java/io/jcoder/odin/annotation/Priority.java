@@ -0,0 +1,40 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.annotation;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+@Retention(RUNTIME)
+@Target({ TYPE, METHOD, FIELD })
+/**
+ * Sets the priority of a registration. When several registrations are injected together, the ones with a higher
+ * priority come first. Registrations without this annotation have a priority of zero.
+ *
+ * <p>
+ * It can be used in registered classes, and in the {@link io.jcoder.odin.annotation.component.Registration} fields and
+ * methods of components.
+ *
+ * @author Camilo Gonzalez
+ */
+public @interface Priority {
+    public int value();
+}
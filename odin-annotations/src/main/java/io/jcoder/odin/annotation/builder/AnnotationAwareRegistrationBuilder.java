@@ -17,12 +17,13 @@ package io.jcoder.odin.annotation.builder;
 
 import static io.jcoder.odin.annotation.reflection.AnnotationUtils.buildInjectableReference;
 import static io.jcoder.odin.annotation.reflection.AnnotationUtils.getProviderGenericType;
+import static io.jcoder.odin.annotation.reflection.AnnotationUtils.postConstructFunction;
+import static io.jcoder.odin.annotation.reflection.AnnotationUtils.preDestroyFunction;
 import static io.jcoder.odin.annotation.reflection.AnnotationUtils.processParameterReferences;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
@@ -35,13 +36,15 @@ import javax.inject.Named;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 
-import io.jcoder.odin.DestructionException;
-import io.jcoder.odin.InitializationException;
+import io.jcoder.odin.annotation.Lazy;
 import io.jcoder.odin.annotation.PostConstruct;
 import io.jcoder.odin.annotation.PreDestroy;
+import io.jcoder.odin.annotation.Priority;
 import io.jcoder.odin.annotation.RequestScoped;
 import io.jcoder.odin.annotation.ScopedTo;
 import io.jcoder.odin.annotation.component.Component;
+import io.jcoder.odin.annotation.generated.GeneratedRegistration;
+import io.jcoder.odin.annotation.generated.GeneratedRegistrations;
 import io.jcoder.odin.base.Preconditions;
 import io.jcoder.odin.builder.RegistrationBuilder;
 import io.jcoder.odin.reference.InjectableReference;
@@ -60,7 +63,19 @@ public class AnnotationAwareRegistrationBuilder<T> extends RegistrationBuilder<T
         this.classToRegister = classToRegister;
     }
 
+    /**
+     * Creates a {@link RegistrationBuilder} for the given class based on its annotations.
+     *
+     * <p>
+     * If the class was compiled with the Odin annotation processor, the {@link GeneratedRegistration} created for it is
+     * used instead of inspecting its annotations at runtime.
+     */
     public static <T> RegistrationBuilder<T> annotated(Class<T> classToRegister) {
+        final RegistrationBuilder<T> generatedBuilder = generatedBuilder(classToRegister);
+        if (generatedBuilder != null) {
+            return generatedBuilder;
+        }
+
         final AnnotationAwareRegistrationBuilder<T> builder = new AnnotationAwareRegistrationBuilder<>(classToRegister);
 
         builder.processAnnotations();
@@ -68,6 +83,19 @@ public class AnnotationAwareRegistrationBuilder<T> extends RegistrationBuilder<T
         return builder;
     }
 
+    private static <T> RegistrationBuilder<T> generatedBuilder(Class<T> classToRegister) {
+        final GeneratedRegistration<T> generatedRegistration = GeneratedRegistrations.find(classToRegister);
+        if (generatedRegistration == null) {
+            return null;
+        }
+
+        try {
+            return generatedRegistration.builder();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Couldn't create the generated registration of class: " + classToRegister.getName(), e);
+        }
+    }
+
     private void processAnnotations() {
         processScopeAnnotations();
         processNameAnnotation();
@@ -89,6 +117,15 @@ public class AnnotationAwareRegistrationBuilder<T> extends RegistrationBuilder<T
                     "A scope type must be declared in the ScopedTo annotation of class: " + classToRegister);
             scopedTo(scopedToAnnotation.value());
         }
+
+        if (classToRegister.isAnnotationPresent(Lazy.class)) {
+            lazy();
+        }
+
+        final Priority priorityAnnotation = classToRegister.getAnnotation(Priority.class);
+        if (priorityAnnotation != null) {
+            priority(priorityAnnotation.value());
+        }
     }
 
     private void processNameAnnotation() {
@@ -209,16 +246,7 @@ public class AnnotationAwareRegistrationBuilder<T> extends RegistrationBuilder<T
                 Preconditions.verifyArgumentCondition(method.getReturnType().equals(void.class),
                         "The PostConstruct method must have a void return type");
 
-                method.setAccessible(true);
-                withPostConstructor(t -> {
-                    try {
-                        method.invoke(t);
-                    } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                        throw new InitializationException(
-                                "Exception executing PostConstruct method '" + method.getName() + "' of class '" + classToRegister + "'",
-                                e);
-                    }
-                });
+                withPostConstructor(postConstructFunction(classToRegister, method));
             }
         }
     }
@@ -236,16 +264,7 @@ public class AnnotationAwareRegistrationBuilder<T> extends RegistrationBuilder<T
                 Preconditions.verifyArgumentCondition(method.getReturnType().equals(void.class),
                         "The PreDestroy method must have a void return type");
 
-                method.setAccessible(true);
-                withPreDestroy(t -> {
-                    try {
-                        method.invoke(t);
-                    } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                        throw new DestructionException(
-                                "Exception executing PreDestroy method '" + method.getName() + "' of class '" + classToRegister + "'",
-                                e);
-                    }
-                });
+                withPreDestroy(preDestroyFunction(classToRegister, method));
             }
         }
     }
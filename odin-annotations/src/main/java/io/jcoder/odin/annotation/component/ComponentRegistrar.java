@@ -29,4 +29,12 @@ public interface ComponentRegistrar {
 
     void initialize();
 
+    /**
+     * Registers the components and initializes the {@link InjectionContext} creating only the singletons reachable from
+     * the given roots (see {@link InjectionContext#initialize(Class...)}).
+     *
+     * @return the number of eager singletons that can't be reached from the roots
+     */
+    int initialize(Class<?>... roots);
+
 }
@@ -25,6 +25,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.inject.Named;
@@ -35,6 +36,11 @@ import org.slf4j.LoggerFactory;
 
 import io.jcoder.odin.DefaultInjectionContext;
 import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.annotation.Lazy;
+import io.jcoder.odin.annotation.Priority;
+import io.jcoder.odin.annotation.generated.GeneratedComponentRegistration;
+import io.jcoder.odin.annotation.generated.GeneratedRegistration;
+import io.jcoder.odin.annotation.generated.GeneratedRegistrations;
 import io.jcoder.odin.base.Preconditions;
 import io.jcoder.odin.builder.RegistrationBuilder;
 
@@ -91,16 +97,31 @@ public class DefaultComponentRegistrar implements ComponentRegistrar {
             return;
         }
 
+        registerComponents();
+        context.initialize();
+    }
+
+    @Override
+    public int initialize(Class<?>... roots) {
+        Preconditions.verifyState(!initialized, "This registrar has already been initialized");
+
+        registerComponents();
+        return context.initialize(roots);
+    }
+
+    private void registerComponents() {
         initialized = true;
         // now, process all components
         for (Class<?> component : components) {
             processRegistrations(component);
         }
-
-        context.initialize();
     }
 
     private void processRegistrations(final Class<?> component) {
+        if (processGeneratedRegistrations(component)) {
+            return;
+        }
+
         for (Field field : component.getDeclaredFields()) {
             if (field.isAnnotationPresent(Registration.class)) {
                 try {
@@ -111,6 +132,12 @@ public class DefaultComponentRegistrar implements ComponentRegistrar {
                     RegistrationBuilder<?> builder = annotated(field.getType());
 
                     processBuilder(builder, isSingleton, namedAnnotation, qualifier);
+                    if (field.isAnnotationPresent(Lazy.class)) {
+                        builder.lazy();
+                    }
+                    if (field.isAnnotationPresent(Priority.class)) {
+                        builder.priority(field.getAnnotation(Priority.class).value());
+                    }
 
                     context.register(builder);
                 } catch (Exception e) {
@@ -131,6 +158,12 @@ public class DefaultComponentRegistrar implements ComponentRegistrar {
                 RegistrationBuilder<?> builder = type(classToRegister);
 
                 processBuilder(builder, isSingleton, namedAnnotation, qualifier);
+                if (method.isAnnotationPresent(Lazy.class)) {
+                    builder.lazy();
+                }
+                if (method.isAnnotationPresent(Priority.class)) {
+                    builder.priority(method.getAnnotation(Priority.class).value());
+                }
 
                 try {
                     if(Modifier.isStatic(method.getModifiers())) {
@@ -148,16 +181,50 @@ public class DefaultComponentRegistrar implements ComponentRegistrar {
         }
     }
 
+    private boolean processGeneratedRegistrations(final Class<?> component) {
+        final GeneratedRegistration<?> generatedRegistration = GeneratedRegistrations.find(component);
+        if (generatedRegistration == null) {
+            return false;
+        }
+
+        final List<GeneratedComponentRegistration> registrations;
+        try {
+            registrations = generatedRegistration.componentRegistrations();
+        } catch (ReflectiveOperationException e) {
+            throw new ComponentRegistrationException("Couldn't create the generated registrations of component: " + component, e);
+        }
+        if (registrations == null) {
+            return false;
+        }
+
+        for (GeneratedComponentRegistration registration : registrations) {
+            RegistrationBuilder<?> builder = registration.getBuilder();
+            processBuilder(builder, registration.isSingleton(), registration.getName(), registration.getQualifier());
+
+            try {
+                logger.debug("Registering generated: {}", builder);
+                context.register(builder);
+            } catch (Exception e) {
+                throw new ComponentRegistrationException("Couldn't register " + builder + " of component: " + component, e);
+            }
+        }
+        return true;
+    }
+
     protected void processBuilder(RegistrationBuilder<?> builder, boolean isSingleton, Named namedAnnotation, Class<?> qualifier) {
+        processBuilder(builder, isSingleton, namedAnnotation == null ? null : namedAnnotation.value(), qualifier);
+    }
+
+    protected void processBuilder(RegistrationBuilder<?> builder, boolean isSingleton, String name, Class<?> qualifier) {
         if (isSingleton) {
             builder.asSingleton();
         }
 
-        if (namedAnnotation != null) {
-            builder.named(namedAnnotation.value());
+        if (name != null) {
+            builder.named(name);
         }
 
-        if (namedAnnotation == null && qualifier != null && !qualifier.equals(Named.class)) {
+        if (name == null && qualifier != null && !qualifier.equals(Named.class)) {
             builder.qualifiedBy(qualifier.getName());
         }
     }
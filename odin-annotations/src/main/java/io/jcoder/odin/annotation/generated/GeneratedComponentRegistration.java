@@ -0,0 +1,68 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.annotation.generated;
+
+import io.jcoder.odin.base.Preconditions;
+import io.jcoder.odin.builder.RegistrationBuilder;
+
+/**
+ * A registration declared in a {@link io.jcoder.odin.annotation.component.Component} with the
+ * {@link io.jcoder.odin.annotation.component.Registration} annotation, as generated at compile time.
+ *
+ * @author Camilo Gonzalez
+ */
+public final class GeneratedComponentRegistration {
+
+    private final RegistrationBuilder<?> builder;
+
+    private final boolean singleton;
+
+    private final String name;
+
+    private final Class<?> qualifier;
+
+    public GeneratedComponentRegistration(RegistrationBuilder<?> builder, boolean singleton, String name, Class<?> qualifier) {
+        Preconditions.verifyNotNull(builder, "The registration builder must not be null");
+
+        this.builder = builder;
+        this.singleton = singleton;
+        this.name = name;
+        this.qualifier = qualifier;
+    }
+
+    public RegistrationBuilder<?> getBuilder() {
+        return builder;
+    }
+
+    public boolean isSingleton() {
+        return singleton;
+    }
+
+    /**
+     * Provides the value of the {@link javax.inject.Named} annotation of the registration, or null if there is none.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Provides the qualifier annotation type of the registration, or null if there is none.
+     */
+    public Class<?> getQualifier() {
+        return qualifier;
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.annotation.generated;
+
+import java.util.List;
+
+import io.jcoder.odin.builder.RegistrationBuilder;
+
+/**
+ * A registration generated at compile time by the Odin annotation processor for an annotated class.
+ *
+ * <p>
+ * Generated registrations create the same {@link RegistrationBuilder} that
+ * {@link io.jcoder.odin.annotation.builder.AnnotationAwareRegistrationBuilder} would create by inspecting the annotations
+ * of the class at runtime, but without scanning its members and, whenever the members are accessible from the generated
+ * code, without using reflection to construct and inject the instances.
+ *
+ * @author Camilo Gonzalez
+ */
+public interface GeneratedRegistration<T> {
+
+    /**
+     * Provides the class this registration was generated for.
+     */
+    Class<T> registeredType();
+
+    /**
+     * Creates the {@link RegistrationBuilder} for the registered type.
+     *
+     * @return the builder, or null if the registered type can't be registered with generated code (for example, when
+     *         it's abstract), in which case its annotations must be processed at runtime.
+     * @throws ReflectiveOperationException
+     *             if a member that is not accessible from the generated code can't be found
+     */
+    RegistrationBuilder<T> builder() throws ReflectiveOperationException;
+
+    /**
+     * Provides the registrations declared with {@link io.jcoder.odin.annotation.component.Registration} in the
+     * registered type, if it's a {@link io.jcoder.odin.annotation.component.Component}.
+     *
+     * @return the declared registrations, or null if they weren't generated, in which case the component must be
+     *         processed at runtime.
+     * @throws ReflectiveOperationException
+     *             if a member that is not accessible from the generated code can't be found
+     */
+    default List<GeneratedComponentRegistration> componentRegistrations() throws ReflectiveOperationException {
+        return null;
+    }
+
+}
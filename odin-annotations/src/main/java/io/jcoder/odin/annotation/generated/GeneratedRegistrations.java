@@ -0,0 +1,134 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.annotation.generated;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Finds the {@link GeneratedRegistration} created at compile time by the Odin annotation processor for a given class.
+ *
+ * <p>
+ * The processor writes the names of the classes it generated registrations for to the {@value #INDEX_RESOURCE} resource,
+ * so classes compiled without the processor are discarded without trying to load any generated class. The index is read
+ * once per {@link ClassLoader}.
+ *
+ * @author Camilo Gonzalez
+ */
+public final class GeneratedRegistrations {
+
+    /**
+     * The resource listing the binary names of the classes with a generated registration, one per line.
+     */
+    public static final String INDEX_RESOURCE = "META-INF/odin/registrations";
+
+    /**
+     * The suffix appended to the name of a class to obtain the name of its generated registration.
+     */
+    public static final String SUFFIX = "_OdinRegistration";
+
+    private static final Map<ClassLoader, Set<String>> indexes = new WeakHashMap<>();
+
+    private GeneratedRegistrations() {
+    }
+
+    /**
+     * Provides the generated registration of the given class.
+     *
+     * @return the generated registration, or null if the class wasn't processed by the Odin annotation processor.
+     * @throws IllegalStateException
+     *             if the class is listed in the index but its generated registration can't be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> GeneratedRegistration<T> find(Class<T> type) {
+        final ClassLoader classLoader = type.getClassLoader();
+        if (classLoader == null || !indexOf(classLoader).contains(type.getName())) {
+            return null;
+        }
+
+        final String generatedClassName = generatedClassName(type.getName());
+        try {
+            return (GeneratedRegistration<T>) Class.forName(generatedClassName, true, classLoader).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("Couldn't instantiate the generated registration " + generatedClassName + " of " + type, e);
+        }
+    }
+
+    /**
+     * Provides the binary name of the generated registration for the class with the given binary name. The generated
+     * class is placed in the same package, and nested class names are flattened escaping '_' as "__" and '$' as "_N",
+     * so different classes (like <code>Outer$Inner</code> and <code>Outer_Inner</code>) never share a generated class.
+     */
+    public static String generatedClassName(String binaryName) {
+        final int packageEnd = binaryName.lastIndexOf('.');
+        final StringBuilder name = new StringBuilder(binaryName.length() + SUFFIX.length() + 4);
+        name.append(binaryName, 0, packageEnd + 1);
+        for (int i = packageEnd + 1; i < binaryName.length(); i++) {
+            final char c = binaryName.charAt(i);
+            if (c == '_') {
+                name.append("__");
+            } else if (c == '$') {
+                name.append("_N");
+            } else {
+                name.append(c);
+            }
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    private static Set<String> indexOf(ClassLoader classLoader) {
+        synchronized (indexes) {
+            return indexes.computeIfAbsent(classLoader, GeneratedRegistrations::readIndex);
+        }
+    }
+
+    private static Set<String> readIndex(ClassLoader classLoader) {
+        final Set<String> index = new HashSet<>();
+        try {
+            final Enumeration<URL> resources = classLoader.getResources(INDEX_RESOURCE);
+            while (resources.hasMoreElements()) {
+                readIndex(resources.nextElement(), index);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't read the generated registrations index " + INDEX_RESOURCE, e);
+        }
+        return index.isEmpty() ? Collections.emptySet() : index;
+    }
+
+    private static void readIndex(URL resource, Set<String> index) throws IOException {
+        try (InputStream in = resource.openStream();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    index.add(line);
+                }
+            }
+        }
+    }
+
+}
@@ -19,6 +19,8 @@ import static io.jcoder.odin.builder.ReferenceBuilder.ofType;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -31,7 +33,12 @@ import javax.inject.Named;
 import javax.inject.Provider;
 import javax.inject.Qualifier;
 
+import io.jcoder.odin.DestructionException;
+import io.jcoder.odin.InitializationException;
+import io.jcoder.odin.annotation.Lazy;
 import io.jcoder.odin.builder.ReferenceBuilder;
+import io.jcoder.odin.function.PostConstructionFunction;
+import io.jcoder.odin.function.PreDestroyFunction;
 import io.jcoder.odin.reference.InjectableReference;
 
 /**
@@ -70,6 +77,10 @@ public class AnnotationUtils {
             refBuilder.multi();
         }
 
+        if (isLazy(annotations)) {
+            refBuilder.lazy();
+        }
+
         return isProvider ? refBuilder.asProvider() : refBuilder.build();
     }
 
@@ -97,6 +108,15 @@ public class AnnotationUtils {
         return paramType.isArray() || paramType.equals(List.class) || paramType.equals(Set.class) || paramType.equals(SortedSet.class);
     }
 
+    public static boolean isLazy(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Lazy) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static Class<?> qualifierFromAnnotations(Annotation[] annotations) {
         Class<?> qualifierType = null;
         for (Annotation annotation : annotations) {
@@ -110,4 +130,35 @@ public class AnnotationUtils {
         return qualifierType;
     }
 
+    /**
+     * Creates a {@link PostConstructionFunction} that reflectively invokes the given PostConstruct method of the given
+     * class.
+     */
+    public static <T> PostConstructionFunction<T> postConstructFunction(Class<T> classToRegister, Method method) {
+        method.setAccessible(true);
+        return t -> {
+            try {
+                method.invoke(t);
+            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+                throw new InitializationException(
+                        "Exception executing PostConstruct method '" + method.getName() + "' of class '" + classToRegister + "'", e);
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link PreDestroyFunction} that reflectively invokes the given PreDestroy method of the given class.
+     */
+    public static <T> PreDestroyFunction<T> preDestroyFunction(Class<T> classToRegister, Method method) {
+        method.setAccessible(true);
+        return t -> {
+            try {
+                method.invoke(t);
+            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+                throw new DestructionException(
+                        "Exception executing PreDestroy method '" + method.getName() + "' of class '" + classToRegister + "'", e);
+            }
+        };
+    }
+
 }
@@ -0,0 +1,157 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.annotation.builder.AnnotationAwareRegistrationBuilder.annotated;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.annotation.PostConstruct;
+import io.jcoder.odin.annotation.builder.AnnotationAwareRegistrationBuilder;
+import io.jcoder.odin.annotation.generated.GeneratedRegistrations;
+
+/**
+ * Verifies that the registrations generated by the Odin annotation processor (which is configured for the tests of
+ * this module) are used instead of processing the annotations at runtime, and that they inject the same way.
+ *
+ * @author Camilo Gonzalez
+ */
+public class GeneratedRegistrationTest {
+
+    public interface Handler {
+    }
+
+    @Singleton
+    @Named("first")
+    public static class FirstHandler implements Handler {
+    }
+
+    @Singleton
+    public static class SecondHandler implements Handler {
+    }
+
+    public static class Base {
+        @Inject
+        FirstHandler baseHandler;
+
+        int injections = 0;
+
+        @Inject
+        void injectBase(SecondHandler handler) {
+            injections++;
+        }
+    }
+
+    public static class Service extends Base {
+        private final SecondHandler second;
+
+        @Inject
+        @Named("first")
+        Handler named;
+
+        @Inject
+        private Provider<SecondHandler> privateProvider;
+
+        private boolean postInvoked = false;
+
+        @Inject
+        public Service(SecondHandler second) {
+            this.second = second;
+        }
+
+        @Override
+        @Inject
+        void injectBase(SecondHandler handler) {
+            assertNotNull(baseHandler, "Superclass fields must be injected before the methods of subclasses");
+            injections += 10;
+        }
+
+        @PostConstruct
+        private void init() {
+            postInvoked = true;
+        }
+    }
+
+    public static class NotAnnotated {
+    }
+
+    public static class Nested {
+        @Singleton
+        public static class Handler {
+        }
+    }
+
+    @Test
+    public void generatedRegistrationIsUsed() throws Exception {
+        assertNotNull(GeneratedRegistrations.find(Service.class), "A registration must have been generated for Service");
+        assertNull(GeneratedRegistrations.find(NotAnnotated.class), "No registration must be generated for classes without annotations");
+
+        assertFalse(annotated(Service.class) instanceof AnnotationAwareRegistrationBuilder,
+                "The generated registration must be used instead of processing the annotations at runtime");
+        assertTrue(annotated(NotAnnotated.class) instanceof AnnotationAwareRegistrationBuilder,
+                "Classes without a generated registration must be processed at runtime");
+    }
+
+    @Test
+    public void nestedNamesDontCollide() throws Exception {
+        assertEquals("io.jcoder.odin.Outer_NInner_OdinRegistration", GeneratedRegistrations.generatedClassName("io.jcoder.odin.Outer$Inner"));
+        assertEquals("io.jcoder.odin.Outer__Inner_OdinRegistration", GeneratedRegistrations.generatedClassName("io.jcoder.odin.Outer_Inner"));
+        assertEquals("Outer___NInner_OdinRegistration", GeneratedRegistrations.generatedClassName("Outer_$Inner"));
+        assertEquals("Outer_N__Inner_OdinRegistration", GeneratedRegistrations.generatedClassName("Outer$_Inner"));
+
+        assertEquals(Nested.Handler.class, GeneratedRegistrations.find(Nested.Handler.class).registeredType(),
+                "The nested class must use its own generated registration");
+        assertEquals(GeneratedRegistrationTest_Nested_Handler.class,
+                GeneratedRegistrations.find(GeneratedRegistrationTest_Nested_Handler.class).registeredType(),
+                "A class named like a flattened nested class must use its own generated registration");
+    }
+
+    @Test
+    public void generatedInjection() throws Exception {
+        InjectionContext context = new DefaultInjectionContext();
+        context.register(annotated(FirstHandler.class));
+        context.register(annotated(SecondHandler.class));
+        context.register(annotated(Service.class));
+        context.initialize();
+
+        Service service = context.get(Service.class);
+
+        assertTrue(service.second == context.get(SecondHandler.class), "The constructor parameters must be injected");
+        assertTrue(service.named == context.get(FirstHandler.class), "The named handler must be injected");
+        assertTrue(service.baseHandler == context.get(FirstHandler.class), "Superclass fields must be injected");
+        assertTrue(service.privateProvider.get() == context.get(SecondHandler.class), "Private fields must be injected");
+        assertEquals(10, service.injections, "Only the overriding method must be injected");
+        assertTrue(service.postInvoked, "The private PostConstruct method must be invoked");
+    }
+
+}
+
+/**
+ * Named like {@link GeneratedRegistrationTest.Nested.Handler} with the nested class separators replaced by '_'.
+ */
+@Singleton
+class GeneratedRegistrationTest_Nested_Handler {
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.annotation.builder.AnnotationAwareRegistrationBuilder.annotated;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.annotation.Lazy;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class LazyInjectionTest {
+
+    private static final AtomicInteger createdEngines = new AtomicInteger();
+
+    public interface Engine {
+        int power();
+    }
+
+    @Singleton
+    @Lazy
+    public static class HeavyEngine implements Engine {
+        public HeavyEngine() {
+            createdEngines.incrementAndGet();
+        }
+
+        @Override
+        public int power() {
+            return 100;
+        }
+    }
+
+    @Singleton
+    public static class Car {
+        @Inject
+        @Lazy
+        private Engine engine;
+    }
+
+    @Singleton
+    public static class Truck {
+        private final Engine engine;
+
+        @Inject
+        public Truck(@Lazy Engine engine) {
+            this.engine = engine;
+        }
+    }
+
+    @Test
+    public void lazyInjectionPoints() throws Exception {
+        createdEngines.set(0);
+        InjectionContext context = new DefaultInjectionContext();
+        context.register(annotated(HeavyEngine.class));
+        context.register(annotated(Car.class));
+        context.register(annotated(Truck.class));
+        context.initialize();
+
+        Car car = context.get(Car.class);
+        Truck truck = context.get(Truck.class);
+        assertEquals(0, createdEngines.get(), "Lazy injection points must not create the engine");
+
+        assertEquals(100, car.engine.power(), "Invocations must be forwarded to the engine");
+        assertEquals(100, truck.engine.power(), "Invocations must be forwarded to the engine");
+        assertEquals(1, createdEngines.get(), "The engine is a singleton - only one instance must have been created");
+    }
+}
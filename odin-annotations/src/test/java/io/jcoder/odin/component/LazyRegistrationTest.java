@@ -0,0 +1,83 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import javax.inject.Singleton;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.annotation.ComponentBasedInjectionContext;
+import io.jcoder.odin.annotation.Lazy;
+import io.jcoder.odin.annotation.component.Component;
+import io.jcoder.odin.annotation.component.Registration;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class LazyRegistrationTest {
+
+    @Singleton
+    @Lazy
+    public static class ReportGenerator {
+        private static int NUM_INSTANCE = 0;
+
+        {
+            NUM_INSTANCE++;
+        }
+    }
+
+    public static class AdminTool {
+        private static int NUM_INSTANCE = 0;
+
+        {
+            NUM_INSTANCE++;
+        }
+    }
+
+    @Component
+    public static class TestComponent {
+        @Registration
+        ReportGenerator reportGenerator;
+
+        @Registration
+        @Singleton
+        @Lazy
+        AdminTool adminTool() {
+            return new AdminTool();
+        }
+    }
+
+    @Test
+    public void testLazyRegistrations() {
+        ComponentBasedInjectionContext context = new ComponentBasedInjectionContext();
+        context.addComponent(TestComponent.class);
+        context.initialize();
+
+        assertEquals(0, ReportGenerator.NUM_INSTANCE, "Lazy classes must not be created during the initialization");
+        assertEquals(0, AdminTool.NUM_INSTANCE, "Lazy registration methods must not be invoked during the initialization");
+
+        assertNotNull(context.get(ReportGenerator.class));
+        assertNotNull(context.get(AdminTool.class));
+        context.get(AdminTool.class);
+
+        assertEquals(1, ReportGenerator.NUM_INSTANCE, "Lazy classes must be created once when first requested");
+        assertEquals(1, AdminTool.NUM_INSTANCE, "Lazy registration methods must be invoked once when first requested");
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.inject.Singleton;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.annotation.ComponentBasedInjectionContext;
+import io.jcoder.odin.annotation.Priority;
+import io.jcoder.odin.annotation.component.Component;
+import io.jcoder.odin.annotation.component.Registration;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class PriorityRegistrationTest {
+
+    public interface Filter {
+    }
+
+    @Singleton
+    public static class AuditFilter implements Filter {
+    }
+
+    @Singleton
+    @Priority(10)
+    public static class SecurityFilter implements Filter {
+    }
+
+    public static class CompressionFilter implements Filter {
+    }
+
+    @Component
+    public static class TestComponent {
+        @Registration
+        AuditFilter auditFilter;
+
+        @Registration
+        SecurityFilter securityFilter;
+
+        @Registration
+        @Singleton
+        @Priority(-5)
+        CompressionFilter compressionFilter() {
+            return new CompressionFilter();
+        }
+    }
+
+    @Test
+    public void testPriorityOrder() {
+        ComponentBasedInjectionContext context = new ComponentBasedInjectionContext();
+        context.addComponent(TestComponent.class);
+        context.initialize();
+
+        List<Filter> filters = context.getMulti(Filter.class);
+        assertEquals(3, filters.size(), "All the filters must be registered");
+        assertTrue(filters.get(0) instanceof SecurityFilter, "The filter with the highest priority must come first");
+        assertTrue(filters.get(1) instanceof AuditFilter, "Filters without priority must come after the ones with a higher priority");
+        assertTrue(filters.get(2) instanceof CompressionFilter, "The filter with a negative priority must come last");
+    }
+}
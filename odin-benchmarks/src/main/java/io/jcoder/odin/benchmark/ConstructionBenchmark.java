@@ -0,0 +1,183 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.benchmark;
+
+import static io.jcoder.odin.builder.ReferenceBuilder.paramOfType;
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jcoder.odin.DefaultInjectionContext;
+import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.registration.InjectionRegistration;
+
+/**
+ * Measures the cost (time and allocations) of creating unscoped objects through the different construction and
+ * injection functions.
+ *
+ * <p>
+ * When run with the GC profiler (<code>gradle :odin-benchmarks:jmh</code>), <code>gc.alloc.rate.norm</code> shows the
+ * bytes allocated per created object, which should only account for the object itself and its argument array.
+ *
+ * @author Camilo Gonzalez
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    public static class A {
+    }
+
+    public static class B {
+    }
+
+    public static class NoArgs {
+    }
+
+    public static class ConstructorInjected {
+        private final A a;
+
+        private final B b;
+
+        public ConstructorInjected(A a, B b) {
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    public static class FieldInjected {
+        private A a;
+
+        private B b;
+    }
+
+    public static class MethodInjected {
+        private A a;
+
+        private B b;
+
+        public void inject(A a, B b) {
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    public static class FactoryCreated {
+        private final A a;
+
+        private FactoryCreated(A a) {
+            this.a = a;
+        }
+
+        public static FactoryCreated create(A a) {
+            return new FactoryCreated(a);
+        }
+    }
+
+    private InjectionContext context;
+
+    private InjectionRegistration<NoArgs> noArgs;
+
+    private InjectionRegistration<ConstructorInjected> constructorInjected;
+
+    private InjectionRegistration<FieldInjected> fieldInjected;
+
+    private InjectionRegistration<MethodInjected> methodInjected;
+
+    private InjectionRegistration<FactoryCreated> staticFactory;
+
+    private InjectionRegistration<FactoryCreated> varArgsFactory;
+
+    @Setup
+    public void setup() throws Exception {
+        context = new DefaultInjectionContext();
+        context.register(singleton(A.class));
+        context.register(singleton(B.class));
+
+        noArgs = type(NoArgs.class).build();
+        constructorInjected = type(ConstructorInjected.class).build();
+        fieldInjected = type(FieldInjected.class)
+                .withField("a", paramOfType(A.class))
+                .withField("b", paramOfType(B.class))
+                .build();
+        methodInjected = type(MethodInjected.class)
+                .withMethod("inject", paramOfType(A.class), paramOfType(B.class))
+                .build();
+        staticFactory = type(FactoryCreated.class)
+                .named("staticFactory")
+                .withStaticFactory(FactoryCreated.class, "create", paramOfType(A.class))
+                .build();
+        varArgsFactory = type(FactoryCreated.class)
+                .named("varArgsFactory")
+                .withFactory(args -> FactoryCreated.create((A) args[0]), A.class)
+                .build();
+
+        context.register(noArgs);
+        context.register(constructorInjected);
+        context.register(fieldInjected);
+        context.register(methodInjected);
+        context.register(staticFactory);
+        context.register(varArgsFactory);
+        context.initialize();
+    }
+
+    @Benchmark
+    public NoArgs noArgsConstructor() {
+        return noArgs.get(context);
+    }
+
+    @Benchmark
+    public ConstructorInjected constructorInjection() {
+        return constructorInjected.get(context);
+    }
+
+    @Benchmark
+    public FieldInjected fieldInjection() {
+        return fieldInjected.get(context);
+    }
+
+    @Benchmark
+    public MethodInjected methodInjection() {
+        return methodInjected.get(context);
+    }
+
+    @Benchmark
+    public FactoryCreated staticFactory() {
+        return staticFactory.get(context);
+    }
+
+    @Benchmark
+    public FactoryCreated varArgsFactory() {
+        return varArgsFactory.get(context);
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.jcoder.odin.web.PathRouter;
+
+/**
+ * Compares the {@link PathRouter} used by <code>InjectionContextWebServlet</code> against the map based matcher it
+ * replaced, which looked up every parent path of the request and then scanned all the extension mappings.
+ *
+ * @author Camilo Gonzalez
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathRoutingBenchmark {
+
+    /**
+     * The matcher used before the {@link PathRouter}, kept here as the baseline.
+     */
+    public static class MapPathMatcher {
+        private final Map<String, String> prefixMappings;
+
+        private final Map<String, String> extensionMappings;
+
+        public MapPathMatcher(Map<String, String> prefixMappings, Map<String, String> extensionMappings) {
+            this.prefixMappings = prefixMappings;
+            this.extensionMappings = extensionMappings;
+        }
+
+        public String match(String requestedPath) {
+            String pathPart = requestedPath;
+            while (true) {
+                final String value = prefixMappings.get(pathPart);
+                if (value != null) {
+                    return value;
+                }
+                if (pathPart.isEmpty()) {
+                    break;
+                }
+                final int lastSlashIdx = pathPart.lastIndexOf('/');
+                pathPart = pathPart.substring(0, Math.max(0, lastSlashIdx));
+            }
+
+            return extensionMappings.entrySet().stream()
+                    .filter(entry -> requestedPath.endsWith(entry.getKey()))
+                    .findFirst()
+                    .map(Map.Entry::getValue)
+                    .orElse(null);
+        }
+    }
+
+    @Param({ "10", "300" })
+    private int mappings;
+
+    private String[] paths;
+
+    private MapPathMatcher mapMatcher;
+
+    private PathRouter<String> router;
+
+    @Setup
+    public void setup() {
+        final Map<String, String> prefixMappings = new HashMap<>();
+        final Map<String, String> extensionMappings = new HashMap<>();
+        for (int i = 0; i < mappings; i++) {
+            prefixMappings.put("/api/v1/resource" + i, "resource" + i);
+            prefixMappings.put("/api/v1/resource" + i + "/items", "items" + i);
+        }
+        for (int i = 0; i < 10; i++) {
+            extensionMappings.put(".ext" + i, "ext" + i);
+        }
+        extensionMappings.put(".jsp", "jsp");
+
+        mapMatcher = new MapPathMatcher(prefixMappings, extensionMappings);
+        router = PathRouter.compile(prefixMappings, extensionMappings);
+        paths = new String[] {
+                "/api/v1/resource" + (mappings / 2),
+                "/api/v1/resource" + (mappings - 1) + "/items/42/details",
+                "/static/pages/index.jsp",
+                "/not/mapped/anywhere"
+        };
+    }
+
+    @Benchmark
+    public void mapMatcher(Blackhole blackhole) {
+        for (final String path : paths) {
+            blackhole.consume(mapMatcher.match(path));
+        }
+    }
+
+    @Benchmark
+    public void radixRouter(Blackhole blackhole) {
+        for (final String path : paths) {
+            blackhole.consume(router.route(path));
+        }
+    }
+
+}
@@ -15,26 +15,46 @@
  */
 package io.jcoder.odin;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.inject.Provider;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import io.jcoder.odin.base.Preconditions;
 import io.jcoder.odin.builder.RegistrationBuilder;
+import io.jcoder.odin.graph.CompleteDependencyProvider;
 import io.jcoder.odin.graph.ConstructionDependencyProvider;
 import io.jcoder.odin.graph.DependencyGraph;
 import io.jcoder.odin.graph.DependencyGraph.Cycle;
+import io.jcoder.odin.reference.InjectableReference;
 import io.jcoder.odin.registration.InjectionRegistration;
+import io.jcoder.odin.registration.RegistrationIndex;
 import io.jcoder.odin.scope.InstanceScope;
+import io.jcoder.odin.scope.ScopePropagatingExecutorService;
 import io.jcoder.odin.scope.SingletonScope;
 
 /**
@@ -43,16 +63,80 @@ import io.jcoder.odin.scope.SingletonScope;
  */
 public class DefaultInjectionContext implements InjectionContext {
 
+    private static final Logger logger = LoggerFactory.getLogger(DefaultInjectionContext.class);
+
     private final Set<InjectionRegistration<?>> registry;
 
+    /**
+     * Guards adding registrations once references are bound, so concurrent registrations can't leave stale bindings.
+     */
+    private final Object bindingLock = new Object();
+
+    private volatile RegistrationIndex registryIndex;
+
     private final Map<InjectionRegistration<?>, InjectionRegistration<Provider<?>>> providersRegistry;
 
-    private final ConcurrentMap<Class<? extends InstanceScope>, InstanceScope> registeredScopes;
+    private volatile Map<Class<? extends InstanceScope>, InstanceScope> registeredScopes;
+
+    private volatile List<InjectionRegistration<?>> frozenRegistrations;
 
     private volatile boolean initialized;
 
+    private volatile boolean frozen;
+
+    private final Executor executor;
+
+    private final Duration destroyTimeout;
+
     public DefaultInjectionContext() {
+        this(null);
+    }
+
+    /**
+     * Creates a context that uses the given {@link Executor} to create its singletons during {@link #initialize()}, and
+     * to destroy them during {@link #destroy()}.
+     *
+     * <p>
+     * The singletons are created following the layers of the {@link DependencyGraph} of the context: all the
+     * singletons of a layer are created in parallel, and a layer isn't started until the previous one has been fully
+     * created. This can considerably reduce the startup time when there are many singletons with slow construction or
+     * post-construction methods. They're destroyed in parallel as well, following the layers in reverse order.
+     *
+     * @param executor
+     *            the executor used to create and destroy the singletons, or <code>null</code> to create and destroy
+     *            them one by one in the thread invoking {@link #initialize()} or {@link #destroy()}.
+     */
+    public DefaultInjectionContext(Executor executor) {
+        this(executor, null);
+    }
+
+    /**
+     * Creates a context that uses the given {@link Executor} to create and destroy its singletons (see
+     * {@link #DefaultInjectionContext(Executor)}), and that doesn't wait more than the given timeout for the
+     * destruction of each singleton.
+     *
+     * <p>
+     * The timeout of each singleton starts counting when its destruction starts running in the executor, not while it
+     * waits for a free thread, and the singletons a layer depends on are only destroyed once every destruction of the
+     * layer has started. The members of a dependency cycle are destroyed one after the other, so they share a timeout
+     * of the given duration per member.
+     *
+     * @param executor
+     *            the executor used to create and destroy the singletons
+     * @param destroyTimeout
+     *            the maximum time to wait for the pre-destroy function of each singleton, or <code>null</code> to wait
+     *            until they finish
+     */
+    public DefaultInjectionContext(Executor executor, Duration destroyTimeout) {
+        Preconditions.verifyArgumentCondition(destroyTimeout == null || executor != null,
+                "An executor is required to enforce a destroy timeout");
+        Preconditions.verifyArgumentCondition(destroyTimeout == null || !destroyTimeout.isNegative(),
+                "The destroy timeout must not be negative");
+
+        this.executor = executor;
+        this.destroyTimeout = destroyTimeout;
         this.registry = new ConcurrentSkipListSet<>();
+        this.registryIndex = new RegistrationIndex();
         this.providersRegistry = new ConcurrentHashMap<>();
         this.registeredScopes = new ConcurrentHashMap<>();
         registerScope(new UnscopedInstanceScope());
@@ -64,16 +148,16 @@ public class DefaultInjectionContext implements InjectionContext {
         return initialized;
     }
 
+    @Override
+    public boolean frozen() {
+        return frozen;
+    }
+
     @Override
     public <T> InjectionRegistration<Provider<?>> getProviderRegistration(InjectionRegistration<T> registration) {
         InjectionRegistration<Provider<?>> providerRegistration = providersRegistry.computeIfAbsent(registration,
                 reg -> {
-                    Provider<T> provider = new Provider<T>() {
-                        @Override
-                        public T get() {
-                            return registration.get(DefaultInjectionContext.this);
-                        }
-                    };
+                    Provider<T> provider = new RegistrationProvider<>(this, registration);
                     return new InjectionRegistration<>(Provider.class.getName() + "-" + registration.getName(),
                             registration.getQualifierName(), provider, null, null, null);
                 });
@@ -85,7 +169,7 @@ public class DefaultInjectionContext implements InjectionContext {
         Preconditions.verifyNotNull(objectClass, "The requested class must not be null");
 
         Predicate<InjectionRegistration<T>> registrationFilter = reg -> {
-            return reg.getQualifierName() == null && objectClass.isAssignableFrom(reg.getRegisteredClass());
+            return reg.getQualifierName() == null;
         };
         Predicate<InjectionRegistration<T>> tieFilter = reg -> {
             return reg.getName().equals(reg.getRegisteredClass().getName());
@@ -99,7 +183,7 @@ public class DefaultInjectionContext implements InjectionContext {
         Preconditions.verifyNotNull(name, "The requested name must not be null");
 
         Predicate<InjectionRegistration<T>> registrationFilter = reg -> {
-            return reg.getQualifierName() == null && name.equals(reg.getName()) && objectClass.isAssignableFrom(reg.getRegisteredClass());
+            return reg.getQualifierName() == null && name.equals(reg.getName());
         };
         return registrationFor(objectClass, registrationFilter);
     }
@@ -110,7 +194,7 @@ public class DefaultInjectionContext implements InjectionContext {
         Preconditions.verifyNotNull(qualifierName, "The requested qualifier name must not be null");
 
         Predicate<InjectionRegistration<T>> registrationFilter = reg -> {
-            return qualifierName.equals(reg.getQualifierName()) && objectClass.isAssignableFrom(reg.getRegisteredClass());
+            return qualifierName.equals(reg.getQualifierName());
         };
         return registrationFor(objectClass, registrationFilter);
     }
@@ -119,11 +203,7 @@ public class DefaultInjectionContext implements InjectionContext {
     public <T> List<InjectionRegistration<T>> getMultiRegistration(Class<T> objectClass) {
         Preconditions.verifyNotNull(objectClass, "The requested class must not be null");
 
-        Predicate<InjectionRegistration<T>> registrationFilter = reg -> {
-            return objectClass.isAssignableFrom(reg.getRegisteredClass());
-        };
-
-        return registrationsFor(objectClass, registrationFilter);
+        return registrationsFor(objectClass, reg -> true);
     }
 
     @Override
@@ -158,6 +238,14 @@ public class DefaultInjectionContext implements InjectionContext {
         return registrations.stream().map(reg -> reg.get(this)).collect(Collectors.toList());
     }
 
+    @Override
+    public <T> Stream<T> getMultiStream(Class<T> objectClass) {
+        checkInitialized();
+
+        List<InjectionRegistration<T>> registrations = getMultiRegistration(objectClass);
+        return registrations.stream().map(reg -> reg.get(this));
+    }
+
     private <T> List<InjectionRegistration<T>> registrationsFor(Class<T> objectClass,
             Predicate<InjectionRegistration<T>> registrationFilter) {
 
@@ -203,25 +291,67 @@ public class DefaultInjectionContext implements InjectionContext {
     private <T> List<InjectionRegistration<T>> getMatchingRegistrations(Class<T> requestedClass,
             Predicate<InjectionRegistration<T>> predicate) {
 
-        return registry.stream()
-                .filter(reg -> requestedClass.isAssignableFrom(reg.getRegisteredClass()))
-                .map(reg -> (InjectionRegistration<T>) reg)
-                .filter(predicate)
-                .collect(Collectors.toList());
+        final List<InjectionRegistration<T>> matchingRegistrations = new ArrayList<>();
+        for (InjectionRegistration<?> reg : registryIndex.registrationsOf(requestedClass)) {
+            InjectionRegistration<T> typedRegistration = (InjectionRegistration<T>) reg;
+            if (predicate.test(typedRegistration)) {
+                matchingRegistrations.add(typedRegistration);
+            }
+        }
+        return matchingRegistrations;
     }
 
     private void checkInitialized() {
         Preconditions.verifyArgumentCondition(initialized, "This DefaultInjectionContext hasn't been initialized.");
     }
 
+    private void checkNotFrozen() {
+        Preconditions.verifyState(!frozen, "This DefaultInjectionContext has been frozen, no further registrations are allowed.");
+    }
+
     @Override
     public synchronized void initialize() {
         if (initialized) {
             return;
         }
 
+        prepareInitialization();
+        createSingletons(null);
+    }
+
+    @Override
+    public synchronized int initialize(Class<?>... roots) {
+        Preconditions.verifyArgumentCondition(roots != null && roots.length > 0, "At least one root class must be provided");
+        Preconditions.verifyState(!initialized, "This DefaultInjectionContext has already been initialized.");
+
+        List<InjectionRegistration<?>> rootRegistrations = new ArrayList<>();
+        for (Class<?> root : roots) {
+            List<? extends InjectionRegistration<?>> registrations = getMultiRegistration(root);
+            Preconditions.verifyArgumentCondition(!registrations.isEmpty(), "No registration found for root class: " + root.getName());
+            rootRegistrations.addAll(registrations);
+        }
+
+        prepareInitialization();
+
+        Set<InjectionRegistration<?>> reachable = new DependencyGraph(this, new CompleteDependencyProvider())
+                .getReachableRegistrations(rootRegistrations);
+        // only the singletons that would have been created otherwise are counted
+        int pruned = 0;
+        for (InjectionRegistration<?> reg : registry) {
+            if (isEagerSingleton(reg) && !reg.isProvided() && !reachable.contains(reg)) {
+                pruned++;
+            }
+        }
+        logger.info("{} singletons can't be reached from the roots {} and won't be created on initialization", pruned,
+                Arrays.toString(roots));
+
+        createSingletons(reachable);
+        return pruned;
+    }
+
+    private void prepareInitialization() {
         if (!exists(InjectionContext.class)) {
-            this.registry.add(new InjectionRegistration<>(InjectionContext.class.getName(), null, this, null, null, null));
+            addRegistration(new InjectionRegistration<>(InjectionContext.class.getName(), null, this, null, null, null));
         }
 
         DependencyGraph dependencyGraph = new DependencyGraph(this, new ConstructionDependencyProvider());
@@ -230,48 +360,148 @@ public class DefaultInjectionContext implements InjectionContext {
             throw new IllegalStateException("Dependency cycles detected: " + cycles);
         }
 
-        this.initialized = true;
+        synchronized (bindingLock) {
+            bindReferences();
+            this.initialized = true;
+        }
+    }
+
+    /**
+     * Creates the eager singletons of the registry.
+     *
+     * @param reachable
+     *            the only registrations whose singletons can be created, or null to create all of them
+     */
+    private void createSingletons(Set<InjectionRegistration<?>> reachable) {
+        if (executor != null) {
+            createSingletonsInParallel(reachable);
+        }
 
+        // in parallel mode, this only creates the singletons that are part of setter-based cycles
         for (InjectionRegistration<?> reg : registry) {
-            if (SingletonScope.class.equals(reg.getScopeType())) {
+            if (isEagerSingleton(reg) && (reachable == null || reachable.contains(reg))) {
                 reg.get(this);
             }
         }
     }
 
+    private void createSingletonsInParallel(Set<InjectionRegistration<?>> reachable) {
+        DependencyGraph dependencyGraph = new DependencyGraph(this, new CompleteDependencyProvider());
+        for (List<InjectionRegistration<?>> layer : dependencyGraph.getLayers()) {
+            List<CompletableFuture<?>> creations = new ArrayList<>();
+            for (InjectionRegistration<?> reg : layer) {
+                if (isEagerSingleton(reg) && (reachable == null || reachable.contains(reg))) {
+                    creations.add(CompletableFuture.runAsync(() -> reg.get(this), executor));
+                }
+            }
+
+            try {
+                CompletableFuture.allOf(creations.toArray(new CompletableFuture<?>[creations.size()])).join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new ObjectCreationException(ex.getCause());
+            }
+        }
+    }
+
+    private static boolean isEagerSingleton(InjectionRegistration<?> registration) {
+        return SingletonScope.class.equals(registration.getScopeType()) && !registration.isLazy();
+    }
+
+    /**
+     * Freezes this context: the registry is compiled into an immutable, array-backed resolution table and no further
+     * registrations or scopes are accepted.
+     *
+     * <p>
+     * Lookups on a frozen context don't go through any concurrent collection, which makes this a good fit for
+     * applications whose registry doesn't change after startup.
+     *
+     * @throws IllegalStateException
+     *             if this context hasn't been initialized yet
+     */
+    @Override
+    public synchronized void freeze() {
+        Preconditions.verifyState(initialized, "This DefaultInjectionContext must be initialized before being frozen.");
+        if (frozen) {
+            return;
+        }
+
+        this.registryIndex = registryIndex.freeze();
+        this.registeredScopes = Collections.unmodifiableMap(new HashMap<>(registeredScopes));
+        this.frozenRegistrations = Collections.unmodifiableList(new ArrayList<>(registry));
+        this.frozen = true;
+    }
+
     @Override
     public <T> void register(InjectionRegistration<T> registration) {
-        this.registry.add(registration);
+        addRegistration(registration);
     }
 
     @Override
     public <T> void register(RegistrationBuilder<T> registrationBuilder) throws NoSuchMethodException {
-        this.registry.add(registrationBuilder.build());
+        addRegistration(registrationBuilder.build());
+    }
+
+    private void addRegistration(InjectionRegistration<?> registration) {
+        checkNotFrozen();
+
+        // registrations are added and references bound under the same lock, so the last binding of a reference always
+        // sees every registration added before it
+        synchronized (bindingLock) {
+            if (this.registry.add(registration)) {
+                this.registryIndex.add(registration);
+            }
+
+            if (initialized) {
+                // the new registration might change what already bound references resolve to
+                bindReferences();
+            }
+        }
+    }
+
+    /**
+     * Binds every reference of the registry to this context. Must be called while holding the {@link #bindingLock}.
+     */
+    private void bindReferences() {
+        for (InjectionRegistration<?> reg : registry) {
+            for (InjectableReference<?> ref : reg.dependencies()) {
+                ref.bind(this);
+            }
+        }
     }
 
     @Override
     public <T> boolean exists(Class<T> objectClass) {
-        return registry.stream().anyMatch(reg -> objectClass.isAssignableFrom(reg.getRegisteredClass()));
+        return registryIndex.contains(objectClass);
     }
 
     @Override
     public <T> List<InjectionRegistration<?>> getRegistrations() {
+        if (frozen) {
+            return frozenRegistrations;
+        }
         return Collections.unmodifiableList(new ArrayList<>(registry));
     }
 
     @Override
     public <S extends InstanceScope> void registerScope(S scope) {
+        checkNotFrozen();
+
         Class<? extends InstanceScope> scopeType = scope.getClass();
-        if (registeredScopes.containsKey(scopeType)) {
+        if (registeredScopes.putIfAbsent(scopeType, scope) != null) {
             throw new IllegalArgumentException("A scope of class: " + scopeType + " has already been registered.");
         }
-        registeredScopes.put(scopeType, scope);
     }
 
     @Override
     public InstanceScope getScope(Class<? extends InstanceScope> scopeClass) {
         InstanceScope scope = registeredScopes.get(scopeClass);
-        Preconditions.verifyNotNull(scope, "No registered scope of type: " + scopeClass);
+        if (scope == null) {
+            // not using Preconditions here to avoid building the message on every lookup
+            throw new NullPointerException("No registered scope of type: " + scopeClass);
+        }
         return scope;
     }
 
@@ -280,6 +510,64 @@ public class DefaultInjectionContext implements InjectionContext {
         return registeredScopes.containsKey(scopeClass);
     }
 
+    @Override
+    public Executor propagatingExecutor(Executor executor) {
+        Preconditions.verifyNotNull(executor, "The Executor is null");
+        return command -> executor.execute(propagateScopes(command));
+    }
+
+    @Override
+    public ExecutorService propagatingExecutorService(ExecutorService executorService) {
+        Preconditions.verifyNotNull(executorService, "The ExecutorService is null");
+        return new ScopePropagatingExecutorService(executorService, this::propagateScopes);
+    }
+
+    private Runnable propagateScopes(Runnable task) {
+        Runnable propagated = task;
+        for (final InstanceScope scope : registeredScopes.values()) {
+            propagated = scope.propagate(propagated);
+        }
+        return propagated;
+    }
+
+    /**
+     * A {@link Provider} bound to a single registration of a context. Singletons are retrieved from the registration
+     * only once, so further invocations of {@link #get()} just read the instance kept by the provider.
+     *
+     * @author Camilo Gonzalez
+     */
+    private static final class RegistrationProvider<T> implements Provider<T> {
+
+        private final InjectionContext context;
+
+        private final InjectionRegistration<T> registration;
+
+        private final boolean singleton;
+
+        private volatile T singletonInstance;
+
+        RegistrationProvider(InjectionContext context, InjectionRegistration<T> registration) {
+            this.context = context;
+            this.registration = registration;
+            this.singleton = SingletonScope.class.equals(registration.getScopeType());
+        }
+
+        @Override
+        public T get() {
+            final T existingInstance = this.singletonInstance;
+            if (existingInstance != null) {
+                return existingInstance;
+            }
+
+            final T instance = registration.get(context);
+            if (singleton) {
+                this.singletonInstance = instance;
+            }
+            return instance;
+        }
+
+    }
+
     /**
      * A no-op {@link InstanceScope} implementation that represents an unmanaged scope of an {@link InjectionContext}.
      *
@@ -310,8 +598,139 @@ public class DefaultInjectionContext implements InjectionContext {
 
     }
 
+    /**
+     * Destroys the objects of every scope of this context.
+     *
+     * <p>
+     * Singletons are destroyed in reverse dependency order, so objects are always destroyed before the objects they
+     * depend on. When this context has an {@link Executor}, the singletons that don't depend on each other are
+     * destroyed in parallel. The singletons that are part of the same dependency cycle can't be ordered among
+     * themselves, so they're destroyed one after the other in no particular order, but still after the objects that
+     * depend on any of them and before the objects any of them depend on. The objects of the other scopes are
+     * destroyed last.
+     */
     @Override
     public void destroy() {
+        InstanceScope singletonScope = registeredScopes.get(SingletonScope.class);
+        if (initialized && singletonScope instanceof SingletonScope) {
+            destroySingletonsInOrder((SingletonScope) singletonScope);
+        }
+
         registeredScopes.values().forEach(scope -> scope.destroy());
     }
+
+    private void destroySingletonsInOrder(SingletonScope singletonScope) {
+        List<List<List<InjectionRegistration<?>>>> layers = new DependencyGraph(this, new CompleteDependencyProvider())
+                .getComponentLayers();
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            List<Destruction> destructions = new ArrayList<>();
+            for (List<InjectionRegistration<?>> unit : layers.get(i)) {
+                List<InjectionRegistration<?>> singletons = unit.stream()
+                        .filter(reg -> SingletonScope.class.equals(reg.getScopeType()))
+                        .collect(Collectors.toList());
+                if (!singletons.isEmpty()) {
+                    destructions.add(new Destruction(singletonScope, singletons));
+                }
+            }
+
+            if (executor == null) {
+                destructions.forEach(Destruction::run);
+                continue;
+            }
+
+            for (Destruction destruction : destructions) {
+                try {
+                    destruction.future = CompletableFuture.runAsync(destruction, executor);
+                } catch (RejectedExecutionException ex) {
+                    // the executor might have been shut down before the context
+                    destruction.run();
+                    destruction.future = CompletableFuture.completedFuture(null);
+                }
+            }
+
+            for (Destruction destruction : destructions) {
+                try {
+                    destruction.await(destroyTimeout);
+                } catch (TimeoutException ex) {
+                    logger.warn("Timed out after {} destroying objects of types: {}", destroyTimeout, destruction.types());
+                } catch (ExecutionException ex) {
+                    logger.warn("Exception destroying objects of types: {}", destruction.types(), ex.getCause());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The destruction of a unit of singletons that can't be ordered among themselves: a single singleton or the members
+     * of a dependency cycle.
+     */
+    private static final class Destruction implements Runnable {
+        private final SingletonScope singletonScope;
+
+        private final List<InjectionRegistration<?>> registrations;
+
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private volatile long startTime;
+
+        private CompletableFuture<Void> future;
+
+        private Destruction(SingletonScope singletonScope, List<InjectionRegistration<?>> registrations) {
+            this.singletonScope = singletonScope;
+            this.registrations = registrations;
+        }
+
+        @Override
+        public void run() {
+            if (claim()) {
+                registrations.forEach(singletonScope::destroyInstance);
+            }
+        }
+
+        /**
+         * Marks the destruction as started, so it's only run once: either by the executor or by the thread waiting
+         * for it.
+         */
+        private boolean claim() {
+            if (!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            startTime = System.nanoTime();
+            started.countDown();
+            return true;
+        }
+
+        /**
+         * Waits for the destruction to finish. The timeout only starts counting once the destruction starts running,
+         * so destructions waiting for a thread of the executor get their full timeout: the next layer must not be
+         * destroyed before every destruction of the current one has at least started. If the destruction doesn't get
+         * a thread of the executor within the timeout (for example, because the threads are stuck in destructions
+         * that timed out), it's run in the calling thread instead.
+         */
+        private void await(Duration timeout) throws InterruptedException, ExecutionException, TimeoutException {
+            if (timeout == null) {
+                future.get();
+                return;
+            }
+
+            if (!started.await(timeout.toNanos(), TimeUnit.NANOSECONDS) && claim()) {
+                logger.warn("No thread available after {} to destroy objects of types: {}, destroying them in the calling thread",
+                        timeout, types());
+                registrations.forEach(singletonScope::destroyInstance);
+                return;
+            }
+
+            long remaining = startTime + timeout.toNanos() * registrations.size() - System.nanoTime();
+            future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        }
+
+        private List<Class<?>> types() {
+            return registrations.stream().map(InjectionRegistration::getRegisteredClass).collect(Collectors.toList());
+        }
+    }
 }
@@ -16,6 +16,9 @@
 package io.jcoder.odin;
 
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
 import javax.inject.Provider;
 
@@ -37,6 +40,38 @@ public interface InjectionContext {
 
     void initialize();
 
+    /**
+     * Initializes this context like {@link #initialize()}, but only creates the singletons that can be reached from the
+     * given root classes through the dependency graph of the context.
+     *
+     * <p>
+     * The registrations whose registered class can be assigned to any of the roots are the starting points of the
+     * graph walk. Registrations that can't be reached are kept in the context, but their singletons are only created
+     * if they're requested later on, as happens with lazy registrations.
+     *
+     * @param roots
+     *            the classes the application is going to get from this context
+     * @return the number of eager singletons that can't be reached from the roots, which weren't created. Lazy,
+     *         provided and non singleton registrations are not counted, since they wouldn't have been created anyway
+     * @throws IllegalStateException
+     *             if this context has already been initialized
+     */
+    int initialize(Class<?>... roots);
+
+    /**
+     * Freezes this context once it has been initialized, making its registry immutable.
+     *
+     * <p>
+     * A frozen context rejects any further <code>register</code> or <code>registerScope</code> call, in exchange for
+     * lookups that don't need to deal with concurrent modifications of the registry.
+     *
+     * @throws IllegalStateException
+     *             if this context hasn't been initialized yet
+     */
+    void freeze();
+
+    boolean frozen();
+
     <T> List<InjectionRegistration<?>> getRegistrations();
 
     <T> boolean exists(Class<T> objectClass);
@@ -49,6 +84,16 @@ public interface InjectionContext {
 
     <T> List<T> getMulti(Class<T> objectClass);
 
+    /**
+     * Provides the same objects as {@link #getMulti(Class)}, in the same order, but only gets each of them from its
+     * registration when the returned {@link Stream} reaches it.
+     *
+     * <p>
+     * This avoids creating objects that are never used when only some of them are needed, for example when looking
+     * for the first one that can handle a given input.
+     */
+    <T> Stream<T> getMultiStream(Class<T> objectClass);
+
     <T> InjectionRegistration<T> getRegistration(Class<T> objectClass);
 
     <T> InjectionRegistration<T> getNamedRegistration(Class<T> objectClass, String name);
@@ -65,5 +110,23 @@ public interface InjectionContext {
 
     void destroy();
 
+    /**
+     * Wraps an {@link Executor} so the tasks given to it run with the instances the scopes of this context provide to
+     * the thread that submits them, such as the objects of the request it's handling.
+     *
+     * <p>
+     * The state of the scopes is captured when each task is submitted and restored in the thread that runs it while
+     * the task runs.
+     *
+     * @see InstanceScope#propagate(Runnable)
+     */
+    Executor propagatingExecutor(Executor executor);
+
+    /**
+     * Wraps an {@link ExecutorService} like {@link #propagatingExecutor(Executor)}. Shutting down the returned
+     * service shuts down the given one.
+     */
+    ExecutorService propagatingExecutorService(ExecutorService executorService);
+
     <T> InjectionRegistration<Provider<?>> getProviderRegistration(InjectionRegistration<T> registration);
 }
@@ -36,6 +36,18 @@ public class InjectionFunctionException extends RuntimeException {
         this(failedFunction, message, null);
     }
 
+    /**
+     * Creates an exception for an injection performed outside of an {@link InjectionFunction}, like the ones done by an
+     * {@link io.jcoder.odin.function.InstanceFunction}.
+     */
+    public InjectionFunctionException(String message, Throwable cause) {
+        super("Exception injecting " + message, cause);
+        this.failedFunction = null;
+    }
+
+    /**
+     * Provides the function that failed, or null if the injection wasn't performed by an {@link InjectionFunction}.
+     */
     public InjectionFunction<?> getFailedFunction() {
         return failedFunction;
     }
@@ -15,6 +15,7 @@
  */
 package io.jcoder.odin.base;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -34,6 +35,17 @@ public final class ImmutableList {
         return Collections.emptyList();
     }
 
+    /**
+     * Creates an immutable, array-backed copy of the given collection.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> copyOf(Collection<? extends T> source) {
+        if (source.isEmpty()) {
+            return of();
+        }
+        return Collections.unmodifiableList(Arrays.asList((T[]) source.toArray()));
+    }
+
     public static <T> List<T> sortedCopyOf(Comparator<? super T> comparator, Collection<? extends T> sourceList) {
         return Collections.unmodifiableList(sourceList.stream().sorted(comparator).collect(Collectors.toList()));
     }
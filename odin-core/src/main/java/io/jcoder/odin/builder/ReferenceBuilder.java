@@ -17,6 +17,7 @@ package io.jcoder.odin.builder;
 
 import io.jcoder.odin.base.Preconditions;
 import io.jcoder.odin.reference.InjectableReference;
+import io.jcoder.odin.reference.LazyInjectableReference;
 import io.jcoder.odin.reference.NamedInjectableReference;
 import io.jcoder.odin.reference.ProviderInjectableReference;
 import io.jcoder.odin.reference.QualifiedInjectableReference;
@@ -42,6 +43,8 @@ public class ReferenceBuilder<T> {
 
     private boolean nullable;
 
+    private boolean lazy;
+
     public ReferenceBuilder(final Class<T> type) {
         this.referencedType = type;
     }
@@ -85,6 +88,15 @@ public class ReferenceBuilder<T> {
         return this;
     }
 
+    /**
+     * Makes the reference inject a proxy that only retrieves the referenced object when one of its methods is first
+     * invoked. Only single, non nullable references to interfaces can be lazy.
+     */
+    public ReferenceBuilder<T> lazy() {
+        this.lazy = true;
+        return this;
+    }
+
     public ReferenceBuilder<T> ofGenericType(final Class<?> genericType) {
         Preconditions.verifyArgumentCondition(multi, "Only multi reference can be assigned a generic type. Have you invoked multi()?");
 
@@ -93,6 +105,15 @@ public class ReferenceBuilder<T> {
     }
 
     public InjectableReference<T> build() {
+        if (lazy) {
+            Preconditions.verifyState(!multi, "Multi references can't be lazy");
+            Preconditions.verifyState(!nullable, "Nullable references can't be lazy");
+            return new LazyInjectableReference<>(buildReference());
+        }
+        return buildReference();
+    }
+
+    private InjectableReference<T> buildReference() {
         if (multi) {
             return new TypedMultiInjectableReference<>(referencedType, genericType);
         }
@@ -109,6 +130,7 @@ public class ReferenceBuilder<T> {
     }
 
     public ProviderInjectableReference<T> asProvider() {
+        Preconditions.verifyState(!lazy, "Provider references are already lazy");
         InjectableReference<T> delegate = build();
         return new ProviderInjectableReference<>(delegate);
     }
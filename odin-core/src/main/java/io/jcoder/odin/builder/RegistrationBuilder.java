@@ -35,6 +35,7 @@ import io.jcoder.odin.function.FactoryVarArgsConstructorFunction;
 import io.jcoder.odin.function.FactoryVarArgsFunction;
 import io.jcoder.odin.function.FieldInjectionFunction;
 import io.jcoder.odin.function.InjectionFunction;
+import io.jcoder.odin.function.InstanceFunction;
 import io.jcoder.odin.function.MethodInjectionFunction;
 import io.jcoder.odin.function.PostConstructionFunction;
 import io.jcoder.odin.function.PreDestroyFunction;
@@ -44,6 +45,7 @@ import io.jcoder.odin.reference.InjectableReference;
 import io.jcoder.odin.reference.NamedInjectableReference;
 import io.jcoder.odin.reference.TypedInjectableReference;
 import io.jcoder.odin.reference.TypedMultiInjectableReference;
+import io.jcoder.odin.reflection.InvocationStrategy;
 import io.jcoder.odin.registration.InjectionRegistration;
 import io.jcoder.odin.scope.InstanceScope;
 import io.jcoder.odin.scope.SingletonScope;
@@ -73,6 +75,12 @@ public class RegistrationBuilder<T> {
 
     private Class<? extends InstanceScope> scopeType;
 
+    private boolean lazy;
+
+    private int priority;
+
+    private InvocationStrategy invocationStrategy = InvocationStrategy.defaultStrategy();
+
     public RegistrationBuilder(Class<T> classToRegister) {
         Preconditions.verifyNotNull(classToRegister, "The provided class must not be null");
         this.name = classToRegister.getName();
@@ -102,6 +110,16 @@ public class RegistrationBuilder<T> {
         return new RegistrationBuilder<T>(objectToRegister);
     }
 
+    /**
+     * Sets the {@link InvocationStrategy} used to bind the constructors, methods and fields defined after this call. By default,
+     * {@link InvocationStrategy#defaultStrategy()} is used.
+     */
+    public RegistrationBuilder<T> withInvocationStrategy(InvocationStrategy invocationStrategy) {
+        Preconditions.verifyNotNull(invocationStrategy, "The invocation strategy must not be null");
+        this.invocationStrategy = invocationStrategy;
+        return this;
+    }
+
     public RegistrationBuilder<T> withConstructor() throws NoSuchMethodException {
         if (this.objectToRegister.isPresent()) {
             throw new IllegalStateException("Can't define constructor injection when an object reference is already provided");
@@ -136,7 +154,7 @@ public class RegistrationBuilder<T> {
         }
 
         final Constructor<T> typedConstructor = this.classToRegister.getDeclaredConstructor(parameterTypes);
-        this.constructor = new ClassConstructorFunction<>(typedConstructor);
+        this.constructor = new ClassConstructorFunction<>(typedConstructor, invocationStrategy);
         return this;
     }
 
@@ -148,7 +166,7 @@ public class RegistrationBuilder<T> {
         final Class<?>[] parameterTypes = Stream.of(parameterReferences).map(ref -> ref.getInjectableType()).toArray(Class<?>[]::new);
 
         final Constructor<T> typedConstructor = this.classToRegister.getDeclaredConstructor(parameterTypes);
-        this.constructor = new ClassConstructorFunction<>(typedConstructor, Arrays.asList(parameterReferences));
+        this.constructor = new ClassConstructorFunction<>(typedConstructor, Arrays.asList(parameterReferences), invocationStrategy);
         return this;
     }
 
@@ -188,7 +206,7 @@ public class RegistrationBuilder<T> {
                     "A constructor reference has already been defined. Are you calling withConstructor or withFactory more than once?");
         }
         this.constructor = new FactoryMethodConstructionFunction<>(this.classToRegister, factoryReference, methodName,
-                Arrays.asList(parameterReferences));
+                Arrays.asList(parameterReferences), invocationStrategy);
         return this;
     }
 
@@ -212,7 +230,7 @@ public class RegistrationBuilder<T> {
                     "A constructor reference has already been defined. Are you calling withConstructor or withFactory more than once?");
         }
         this.constructor = new StaticFactoryMethodConstructionFunction<>(this.classToRegister, factoryClass, staticMethodName,
-                Arrays.asList(parameterReferences));
+                Arrays.asList(parameterReferences), invocationStrategy);
         return this;
     }
 
@@ -223,11 +241,62 @@ public class RegistrationBuilder<T> {
                 Stream.of(parameterReferences).map(ReferenceBuilder::build).toArray(InjectableReference<?>[]::new));
     }
 
+    /**
+     * Uses the given {@link ConstructionFunction} to create the instances of this registration. This is typically used
+     * by code generated at compile time, which doesn't need reflection to construct objects.
+     */
+    public RegistrationBuilder<T> withConstruction(ConstructionFunction<T> constructionFunction) {
+        Preconditions.verifyNotNull(constructionFunction, "The construction function must not be null");
+        if (constructor != null) {
+            throw new IllegalStateException(
+                    "A constructor reference has already been defined. Are you calling withConstructor or withFactory more than once?");
+        }
+        this.constructor = constructionFunction;
+        return this;
+    }
+
+    /**
+     * Uses the given {@link InstanceFunction} to construct and initialize the instances of this registration. As it
+     * takes care of the whole creation of the instances, no other injection or post construction functions can be
+     * defined.
+     */
+    public RegistrationBuilder<T> withInstanceFunction(InstanceFunction<T> instanceFunction) {
+        return withConstruction(instanceFunction);
+    }
+
+    /**
+     * Adds the given {@link InjectionFunction} to the functions applied to the created instances.
+     */
+    public RegistrationBuilder<T> withInjection(InjectionFunction<T> injectionFunction) {
+        Preconditions.verifyNotNull(injectionFunction, "The injection function must not be null");
+        this.injectionFunctions.add(injectionFunction);
+        return this;
+    }
+
     public RegistrationBuilder<T> asSingleton() {
         this.scopeType = SingletonScope.class;
         return this;
     }
 
+    /**
+     * Postpones the creation of a singleton until it's first requested, instead of creating it when the
+     * {@link InjectionContext} is initialized. Dependency cycles are still validated during the initialization.
+     */
+    public RegistrationBuilder<T> lazy() {
+        this.lazy = true;
+        return this;
+    }
+
+    /**
+     * Sets the priority of the registration, which is zero by default. Multi-injections and
+     * {@link InjectionContext#getMulti(Class)} provide the objects with a higher priority first, and keep the order of
+     * the registry for objects with the same priority.
+     */
+    public RegistrationBuilder<T> priority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
     public RegistrationBuilder<T> scopedTo(Class<? extends InstanceScope> scopeType) {
         this.scopeType = scopeType;
         return this;
@@ -236,7 +305,7 @@ public class RegistrationBuilder<T> {
     public <O> RegistrationBuilder<T> withField(String fieldName, InjectableReference<?> parameterReference)
             throws NoSuchFieldException {
 
-        this.injectionFunctions.add(new FieldInjectionFunction<>(this.classToRegister, fieldName, parameterReference));
+        this.injectionFunctions.add(new FieldInjectionFunction<>(this.classToRegister, fieldName, parameterReference, invocationStrategy));
         return this;
     }
 
@@ -249,7 +318,7 @@ public class RegistrationBuilder<T> {
     public <O> RegistrationBuilder<T> withField(Class<? super T> baseClass, String fieldName, InjectableReference<?> parameterReference)
             throws NoSuchFieldException {
 
-        this.injectionFunctions.add(new FieldInjectionFunction<>(baseClass, fieldName, parameterReference));
+        this.injectionFunctions.add(new FieldInjectionFunction<>(baseClass, fieldName, parameterReference, invocationStrategy));
         return this;
     }
 
@@ -261,7 +330,8 @@ public class RegistrationBuilder<T> {
 
     public <O> RegistrationBuilder<T> withMethod(String methodName, InjectableReference<?>... parameterReferences)
             throws NoSuchMethodException {
-        this.injectionFunctions.add(new MethodInjectionFunction<>(this.classToRegister, methodName, Arrays.asList(parameterReferences)));
+        this.injectionFunctions.add(new MethodInjectionFunction<>(this.classToRegister, methodName, Arrays.asList(parameterReferences),
+                invocationStrategy));
         return this;
     }
 
@@ -275,7 +345,7 @@ public class RegistrationBuilder<T> {
     public <O> RegistrationBuilder<T> withMethod(Class<? super T> baseClass, String methodName,
             InjectableReference<?>... parameterReferences) throws NoSuchMethodException {
 
-        this.injectionFunctions.add(new MethodInjectionFunction<>(baseClass, methodName, Arrays.asList(parameterReferences)));
+        this.injectionFunctions.add(new MethodInjectionFunction<>(baseClass, methodName, Arrays.asList(parameterReferences), invocationStrategy));
         return this;
     }
 
@@ -351,12 +421,16 @@ public class RegistrationBuilder<T> {
         if (this.constructor == null && !this.objectToRegister.isPresent()) {
             withConstructor();
         }
+        if (this.constructor instanceof InstanceFunction && (!injectionFunctions.isEmpty() || postConstructor != null)) {
+            throw new IllegalStateException(
+                    "An InstanceFunction already injects and initializes the instances. It can't be combined with other injection or post construction functions");
+        }
 
         return this.objectToRegister
                 .map(object -> new InjectionRegistration<T>(name, qualifierName, object,
-                        injectionFunctions, postConstructor, preDestroy))
+                        injectionFunctions, postConstructor, preDestroy, priority))
                 .orElse(new InjectionRegistration<T>(scopeType, name, qualifierName, classToRegister, constructor,
-                        injectionFunctions, postConstructor, preDestroy));
+                        injectionFunctions, postConstructor, preDestroy, lazy, priority));
     }
 
     private Constructor<?> findUniquePublicConstructor(final Constructor<?>[] constructors) {
@@ -17,7 +17,6 @@ package io.jcoder.odin.function;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,10 +24,13 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.base.ImmutableList;
 import io.jcoder.odin.base.Preconditions;
 import io.jcoder.odin.reference.InjectableReference;
 import io.jcoder.odin.reference.TypedInjectableReference;
 import io.jcoder.odin.reference.TypedMultiInjectableReference;
+import io.jcoder.odin.reflection.InvocationStrategy;
+import io.jcoder.odin.reflection.MemberInvoker;
 
 /**
  *
@@ -38,22 +40,40 @@ public class ClassConstructorFunction<T> implements ConstructionFunction<T> {
 
     private final Constructor<T> constructorReference;
 
-    private final List<InjectableReference<?>> parameterReferences;
+    private final InjectableReference<?>[] parameterReferences;
+
+    private final List<InjectableReference<?>> dependencies;
+
+    private final MemberInvoker invoker;
 
     public ClassConstructorFunction(final Constructor<T> constructorReference) {
+        this(constructorReference, InvocationStrategy.defaultStrategy());
+    }
+
+    public ClassConstructorFunction(final Constructor<T> constructorReference, final InvocationStrategy invocationStrategy) {
         Preconditions.verifyNotNull(constructorReference, "The constructor reference must not be null");
+        Preconditions.verifyNotNull(invocationStrategy, "The invocation strategy must not be null");
         this.constructorReference = constructorReference;
-        this.parameterReferences = Stream.of(constructorReference.getParameterTypes())
+        this.dependencies = ImmutableList.copyOf(Stream.of(constructorReference.getParameterTypes())
                 .map(paramType -> new TypedInjectableReference<>(paramType))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        this.parameterReferences = dependencies.toArray(new InjectableReference<?>[dependencies.size()]);
+        this.invoker = invocationStrategy.constructor(constructorReference);
     }
 
     public ClassConstructorFunction(final Constructor<T> constructorReference, final Class<?>[] collectionGenericTypes) {
+        this(constructorReference, collectionGenericTypes, InvocationStrategy.defaultStrategy());
+    }
+
+    public ClassConstructorFunction(final Constructor<T> constructorReference, final Class<?>[] collectionGenericTypes,
+            final InvocationStrategy invocationStrategy) {
         Preconditions.verifyNotNull(constructorReference, "The constructor reference must not be null");
         Preconditions.verifyNotNull(collectionGenericTypes, "The collection generic types must not be null");
+        Preconditions.verifyNotNull(invocationStrategy, "The invocation strategy must not be null");
 
         this.constructorReference = constructorReference;
-        this.parameterReferences = IntStream.range(0, constructorReference.getParameterCount())
+        this.invoker = invocationStrategy.constructor(constructorReference);
+        this.dependencies = ImmutableList.copyOf(IntStream.range(0, constructorReference.getParameterCount())
                 .mapToObj(idx -> {
                     final Class<?> paramType = constructorReference.getParameterTypes()[idx];
                     final Class<?> genericType = collectionGenericTypes[idx];
@@ -67,11 +87,18 @@ public class ClassConstructorFunction<T> implements ConstructionFunction<T> {
                         return new TypedInjectableReference<>(paramType);
                     }
                 })
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        this.parameterReferences = dependencies.toArray(new InjectableReference<?>[dependencies.size()]);
     }
 
     public ClassConstructorFunction(final Constructor<T> constructorReference, final List<InjectableReference<?>> parameterReferences) {
+        this(constructorReference, parameterReferences, InvocationStrategy.defaultStrategy());
+    }
+
+    public ClassConstructorFunction(final Constructor<T> constructorReference, final List<InjectableReference<?>> parameterReferences,
+            final InvocationStrategy invocationStrategy) {
         Preconditions.verifyNotNull(constructorReference, "The constructor reference must not be null");
+        Preconditions.verifyNotNull(invocationStrategy, "The invocation strategy must not be null");
         Preconditions.verifyNotNull(parameterReferences, "The parameter references must not be null");
         Preconditions.verifyArgumentCondition(constructorReference.getParameterCount() == parameterReferences.size(),
                 "The size of the parameterReferences array must be equal to the number of parameters of the constructor");
@@ -83,23 +110,21 @@ public class ClassConstructorFunction<T> implements ConstructionFunction<T> {
         }
 
         this.constructorReference = constructorReference;
-        this.constructorReference.setAccessible(true);
-        this.parameterReferences = new ArrayList<>(parameterReferences);
+        this.dependencies = ImmutableList.copyOf(parameterReferences);
+        this.parameterReferences = dependencies.toArray(new InjectableReference<?>[dependencies.size()]);
+        this.invoker = invocationStrategy.constructor(constructorReference);
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public T newObject(final InjectionContext context)
             throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
 
-        final Object[] args = this.parameterReferences.stream()
-                .map(paramRef -> paramRef.get(context))
-                .toArray(Object[]::new);
-
-        return constructorReference.newInstance(args);
+        return (T) invoker.invoke(null, InjectableArguments.resolve(parameterReferences, context));
     }
 
     @Override
     public List<InjectableReference<?>> dependencies() {
-        return new ArrayList<>(parameterReferences);
+        return dependencies;
     }
 }
@@ -22,8 +22,11 @@ import java.util.List;
 
 import io.jcoder.odin.ConstructionFunctionException;
 import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.base.ImmutableList;
 import io.jcoder.odin.base.Preconditions;
 import io.jcoder.odin.reference.InjectableReference;
+import io.jcoder.odin.reflection.InvocationStrategy;
+import io.jcoder.odin.reflection.MemberInvoker;
 
 /**
  *
@@ -35,30 +38,41 @@ public class FactoryMethodConstructionFunction<T> implements ConstructionFunctio
 
     private final Method method;
 
-    private final List<InjectableReference<?>> parameterReferences;
+    private final InjectableReference<?>[] parameterReferences;
 
     private final List<InjectableReference<?>> dependencies;
 
     private final Class<?>[] parameterTypes;
 
+    private final MemberInvoker invoker;
+
     public FactoryMethodConstructionFunction(final Class<T> typeToConstruct, final InjectableReference<?> factoryReference,
             final String methodName, final List<InjectableReference<?>> parameterReferences) throws NoSuchMethodException {
+        this(typeToConstruct, factoryReference, methodName, parameterReferences, InvocationStrategy.defaultStrategy());
+    }
+
+    public FactoryMethodConstructionFunction(final Class<T> typeToConstruct, final InjectableReference<?> factoryReference,
+            final String methodName, final List<InjectableReference<?>> parameterReferences, final InvocationStrategy invocationStrategy)
+            throws NoSuchMethodException {
 
         Preconditions.verifyNotNull(typeToConstruct, "The type to construct must not be null");
         Preconditions.verifyNotNull(factoryReference, "The factory reference must not be null");
         Preconditions.verifyNotNull(methodName, "The method name must not be null");
 
         this.factoryReference = factoryReference;
-        this.parameterReferences = new ArrayList<>(parameterReferences);
-        this.dependencies = new ArrayList<>(parameterReferences);
-        this.dependencies.add(factoryReference);
+        this.parameterReferences = parameterReferences.toArray(new InjectableReference<?>[parameterReferences.size()]);
+        final List<InjectableReference<?>> allDependencies = new ArrayList<>(parameterReferences);
+        allDependencies.add(factoryReference);
+        this.dependencies = ImmutableList.copyOf(allDependencies);
 
         this.parameterTypes = parameterReferences.stream().map(ref -> ref.getInjectableType()).toArray(Class<?>[]::new);
         this.method = this.factoryReference.getInjectableType().getDeclaredMethod(methodName, parameterTypes);
-        this.method.setAccessible(true);
 
         Preconditions.verifyArgumentCondition(typeToConstruct.isAssignableFrom(this.method.getReturnType()),
                 "Cannot assign " + typeToConstruct.getName() + " from the method return type: " + this.method.getReturnType().getName());
+        Preconditions.verifyNotNull(invocationStrategy, "The invocation strategy must not be null");
+
+        this.invoker = invocationStrategy.method(this.method);
     }
 
     @SuppressWarnings("unchecked")
@@ -68,12 +82,10 @@ public class FactoryMethodConstructionFunction<T> implements ConstructionFunctio
 
         final Object factoryInstance = factoryReference.get(context);
 
-        final Object[] args = this.parameterReferences.stream()
-                .map(paramRef -> paramRef.get(context))
-                .toArray(Object[]::new);
+        final Object[] args = InjectableArguments.resolve(parameterReferences, context);
 
         try {
-            return (T) method.invoke(factoryInstance, args);
+            return (T) invoker.invoke(factoryInstance, args);
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             throw new ConstructionFunctionException(this,
                     "Method " + method.getName() + " of class " + factoryReference.getInjectableType().getName(), e);
@@ -15,10 +15,10 @@
  */
 package io.jcoder.odin.function;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.base.ImmutableList;
 import io.jcoder.odin.base.Preconditions;
 import io.jcoder.odin.reference.InjectableReference;
 
@@ -30,7 +30,9 @@ public class FactoryVarArgsConstructorFunction<T> implements ConstructionFunctio
 
     private final FactoryVarArgsFunction<T> constructorFunction;
 
-    private final List<InjectableReference<?>> parameterReferences;
+    private final InjectableReference<?>[] parameterReferences;
+
+    private final List<InjectableReference<?>> dependencies;
 
     public FactoryVarArgsConstructorFunction(final FactoryVarArgsFunction<T> constructorFunction,
             final List<InjectableReference<?>> parameterReferences) {
@@ -39,21 +41,18 @@ public class FactoryVarArgsConstructorFunction<T> implements ConstructionFunctio
         Preconditions.verifyNotNull(parameterReferences, "The parameter references must not be null");
 
         this.constructorFunction = constructorFunction;
-        this.parameterReferences = new ArrayList<>(parameterReferences);
+        this.dependencies = ImmutableList.copyOf(parameterReferences);
+        this.parameterReferences = dependencies.toArray(new InjectableReference<?>[dependencies.size()]);
     }
 
     @Override
     public T newObject(final InjectionContext context) {
 
-        final Object[] args = this.parameterReferences.stream()
-                .map(paramRef -> paramRef.get(context))
-                .toArray(Object[]::new);
-
-        return constructorFunction.apply(args);
+        return constructorFunction.apply(InjectableArguments.resolve(parameterReferences, context));
     }
 
     @Override
     public List<InjectableReference<?>> dependencies() {
-        return new ArrayList<>(parameterReferences);
+        return dependencies;
     }
 }
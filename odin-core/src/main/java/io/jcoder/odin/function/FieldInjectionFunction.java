@@ -24,6 +24,8 @@ import java.util.Optional;
 import io.jcoder.odin.InjectionContext;
 import io.jcoder.odin.InjectionFunctionException;
 import io.jcoder.odin.reference.InjectableReference;
+import io.jcoder.odin.reflection.FieldWriter;
+import io.jcoder.odin.reflection.InvocationStrategy;
 import io.jcoder.odin.reflection.MemberFinder;
 
 /**
@@ -38,14 +40,21 @@ public class FieldInjectionFunction<T> implements InjectionFunction<T> {
 
     private final InjectableReference<?> parameterReference;
 
+    private final FieldWriter writer;
+
     public FieldInjectionFunction(Class<? super T> type, String fieldName, InjectableReference<?> parameterReference)
             throws NoSuchFieldException {
+        this(type, fieldName, parameterReference, InvocationStrategy.defaultStrategy());
+    }
+
+    public FieldInjectionFunction(Class<? super T> type, String fieldName, InjectableReference<?> parameterReference,
+            InvocationStrategy invocationStrategy) throws NoSuchFieldException {
 
         this.type = type;
         this.parameterReference = parameterReference;
 
         this.field = MemberFinder.getField(type, fieldName);
-        this.field.setAccessible(true);
+        this.writer = invocationStrategy.field(field);
     }
 
     @Override
@@ -53,7 +62,7 @@ public class FieldInjectionFunction<T> implements InjectionFunction<T> {
         Object value = this.parameterReference.get(context);
 
         try {
-            field.set(injectionReceiver, value);
+            writer.set(injectionReceiver, value);
         } catch (IllegalAccessException | IllegalArgumentException e) {
             throw new InjectionFunctionException(this, "Field " + field.getName() + " of class " + type.getName(), e);
         }
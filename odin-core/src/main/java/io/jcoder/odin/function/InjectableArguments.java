@@ -0,0 +1,49 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.function;
+
+import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.reference.InjectableReference;
+
+/**
+ * Resolves the arguments of construction and injection functions.
+ *
+ * <p>
+ * This is part of the path followed every time an object is created, so it avoids streams and iterators: the only
+ * allocation is the argument array itself, and none at all for members without parameters.
+ *
+ * @author Camilo Gonzalez
+ */
+final class InjectableArguments {
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private InjectableArguments() {
+    }
+
+    static Object[] resolve(InjectableReference<?>[] references, InjectionContext context) {
+        if (references.length == 0) {
+            return NO_ARGUMENTS;
+        }
+
+        final Object[] args = new Object[references.length];
+        for (int i = 0; i < references.length; i++) {
+            args[i] = references[i].get(context);
+        }
+        return args;
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.function;
+
+import java.util.List;
+
+import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.reference.InjectableReference;
+import io.jcoder.odin.registration.InjectionRegistration;
+
+/**
+ * A {@link ConstructionFunction} that also takes care of the rest of the creation of an instance: injecting its members
+ * and running its post construction, which would otherwise be done by separate {@link InjectionFunction} and
+ * {@link PostConstructionFunction} objects.
+ *
+ * <p>
+ * This is typically implemented by code generated at compile time, where all the steps can be written in a single
+ * method the JIT can optimize as a whole. An {@link InjectionRegistration} constructs the object with
+ * {@link #newObject(InjectionContext)}, stores it in its scope (so cycles can be resolved) and then calls
+ * {@link #initialize(InjectionContext, Object)}.
+ *
+ * @author Camilo Gonzalez
+ */
+public interface InstanceFunction<T> extends ConstructionFunction<T> {
+
+    /**
+     * Injects the members of an instance created by {@link #newObject(InjectionContext)} and runs its post
+     * construction.
+     */
+    void initialize(InjectionContext context, T instance);
+
+    /**
+     * Provides the {@link InjectableReference} objects injected by {@link #initialize(InjectionContext, Object)}. Unlike
+     * the {@link #dependencies()} needed for construction, these don't prevent cycles from being resolved.
+     */
+    List<InjectableReference<?>> initializationDependencies();
+
+}
@@ -24,8 +24,11 @@ import java.util.Optional;
 
 import io.jcoder.odin.InjectionContext;
 import io.jcoder.odin.InjectionFunctionException;
+import io.jcoder.odin.base.ImmutableList;
 import io.jcoder.odin.reference.InjectableReference;
+import io.jcoder.odin.reflection.InvocationStrategy;
 import io.jcoder.odin.reflection.MemberFinder;
+import io.jcoder.odin.reflection.MemberInvoker;
 
 /**
  *
@@ -37,37 +40,45 @@ public class MethodInjectionFunction<T> implements InjectionFunction<T> {
 
     private final Method method;
 
-    private final List<InjectableReference<?>> parameterReferences;
+    private final InjectableReference<?>[] parameterReferences;
+
+    private final List<InjectableReference<?>> dependencies;
 
     private final Class<?>[] parameterTypes;
 
+    private final MemberInvoker invoker;
+
     public MethodInjectionFunction(Class<? super T> type, String methodName, List<InjectableReference<?>> parameterReferences)
             throws NoSuchMethodException {
+        this(type, methodName, parameterReferences, InvocationStrategy.defaultStrategy());
+    }
+
+    public MethodInjectionFunction(Class<? super T> type, String methodName, List<InjectableReference<?>> parameterReferences,
+            InvocationStrategy invocationStrategy) throws NoSuchMethodException {
 
         this.type = type;
-        this.parameterReferences = parameterReferences;
+        this.dependencies = ImmutableList.copyOf(parameterReferences);
+        this.parameterReferences = dependencies.toArray(new InjectableReference<?>[dependencies.size()]);
 
         this.parameterTypes = parameterReferences.stream().map(ref -> ref.getInjectableType()).toArray(Class<?>[]::new);
         this.method = MemberFinder.getMethod(type, methodName, parameterTypes);
-        this.method.setAccessible(true);
+        this.invoker = invocationStrategy.method(method);
     }
 
     @Override
     public void apply(InjectionContext context, T injectionReceiver) {
-        Object[] args = this.parameterReferences.stream()
-                .map(paramRef -> paramRef.get(context))
-                .toArray(Object[]::new);
+        Object[] args = InjectableArguments.resolve(parameterReferences, context);
 
         try {
-            method.invoke(injectionReceiver, args);
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            invoker.invoke(injectionReceiver, args);
+        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             throw new InjectionFunctionException(this, "Method " + method.getName() + " of class " + type.getName(), e);
         }
     }
     
     @Override
     public Collection<? extends InjectableReference<?>> dependencies() {
-        return parameterReferences;
+        return dependencies;
     }
 
     @Override
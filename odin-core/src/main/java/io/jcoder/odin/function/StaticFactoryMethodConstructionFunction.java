@@ -22,8 +22,11 @@ import java.util.List;
 
 import io.jcoder.odin.ConstructionFunctionException;
 import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.base.ImmutableList;
 import io.jcoder.odin.base.Preconditions;
 import io.jcoder.odin.reference.InjectableReference;
+import io.jcoder.odin.reflection.InvocationStrategy;
+import io.jcoder.odin.reflection.MemberInvoker;
 
 /**
  *
@@ -35,27 +38,40 @@ public class StaticFactoryMethodConstructionFunction<T> implements ConstructionF
 
     private final Method method;
 
-    private final List<InjectableReference<?>> parameterReferences;
+    private final InjectableReference<?>[] parameterReferences;
+
+    private final List<InjectableReference<?>> dependencies;
 
     private final Class<?>[] parameterTypes;
 
+    private final MemberInvoker invoker;
+
     public StaticFactoryMethodConstructionFunction(final Class<T> typeToConstruct, final Class<?> factoryType, final String staticMethodName,
             final List<InjectableReference<?>> parameterReferences)
             throws NoSuchMethodException {
+        this(typeToConstruct, factoryType, staticMethodName, parameterReferences, InvocationStrategy.defaultStrategy());
+    }
+
+    public StaticFactoryMethodConstructionFunction(final Class<T> typeToConstruct, final Class<?> factoryType, final String staticMethodName,
+            final List<InjectableReference<?>> parameterReferences, final InvocationStrategy invocationStrategy)
+            throws NoSuchMethodException {
         Preconditions.verifyNotNull(typeToConstruct, "The type to construct must not be null");
         Preconditions.verifyNotNull(factoryType, "The factory type must not be null");
         Preconditions.verifyNotNull(staticMethodName, "The static method name must not be null");
 
         this.factoryType = factoryType;
-        this.parameterReferences = parameterReferences;
+        this.dependencies = ImmutableList.copyOf(parameterReferences);
+        this.parameterReferences = dependencies.toArray(new InjectableReference<?>[dependencies.size()]);
 
         this.parameterTypes = parameterReferences.stream().map(ref -> ref.getInjectableType()).toArray(Class<?>[]::new);
         this.method = this.factoryType.getDeclaredMethod(staticMethodName, parameterTypes);
-        this.method.setAccessible(true);
 
         Preconditions.verifyArgumentCondition(Modifier.isStatic(this.method.getModifiers()), "The provided method must be static");
         Preconditions.verifyArgumentCondition(typeToConstruct.isAssignableFrom(this.method.getReturnType()),
                 "Cannot assign " + typeToConstruct.getName() + " from the method return type: " + this.method.getReturnType().getName());
+        Preconditions.verifyNotNull(invocationStrategy, "The invocation strategy must not be null");
+
+        this.invoker = invocationStrategy.method(this.method);
     }
 
     @SuppressWarnings("unchecked")
@@ -63,12 +79,10 @@ public class StaticFactoryMethodConstructionFunction<T> implements ConstructionF
     public T newObject(final InjectionContext context)
             throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
 
-        final Object[] args = this.parameterReferences.stream()
-                .map(paramRef -> paramRef.get(context))
-                .toArray(Object[]::new);
+        final Object[] args = InjectableArguments.resolve(parameterReferences, context);
 
         try {
-            return (T) method.invoke(null, args);
+            return (T) invoker.invoke(null, args);
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             throw new ConstructionFunctionException(this, "Method " + method.getName() + " of class " + factoryType.getName(), e);
         }
@@ -76,7 +90,7 @@ public class StaticFactoryMethodConstructionFunction<T> implements ConstructionF
 
     @Override
     public List<InjectableReference<?>> dependencies() {
-        return parameterReferences;
+        return dependencies;
     }
 
 }
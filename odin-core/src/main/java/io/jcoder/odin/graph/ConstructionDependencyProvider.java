@@ -48,7 +48,10 @@ public class ConstructionDependencyProvider implements DependencyProvider {
                         throw new IllegalStateException("No registration found for constructor parameter " + idx + " of "
                                 + registration.getRegisteredClass() + " of type " + paramRef.getInjectableType().getName());
                     }
-                    dependencies.add(reg);
+                    // lazy references are resolved after construction, so they can't cause construction cycles
+                    if (!paramRef.isLazy()) {
+                        dependencies.add(reg);
+                    }
                 }
                 idx++;
             }
@@ -19,10 +19,13 @@ import java.io.BufferedWriter;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -61,24 +64,151 @@ public class DependencyGraph {
      * Provides the list of detected cycles in the graph, or an empty list if there are no cycles.
      *
      * <p>
-     * Each element of the returned list is a cycle in the dependency graph.
-     *
-     * <p>
-     * This method doesn't guarantee finding all cycles in the graph, but guarantees to find at least one cycle if one
-     * or more exist.
+     * Each element of the returned list is a cycle in the dependency graph. Cycles are detected by finding the
+     * strongly connected components of the graph (using Tarjan's algorithm in linear time), and one cycle is reported
+     * for each group of registrations that depend on each other.
      */
     public List<Cycle> getCycles() {
+        final Node[] nodes = nodeMap.values().toArray(new Node[nodeMap.size()]);
+        final int[][] adjacency = adjacencyOf(nodes);
+
         final List<Cycle> cycles = new ArrayList<>();
-        final List<Node> currentPath = new ArrayList<>();
-        final Set<Node> checked = new HashSet<>();
+        for (int[] component : stronglyConnectedComponents(adjacency)) {
+            if (component.length > 1 || contains(adjacency[component[0]], component[0])) {
+                cycles.add(cycleWithin(nodes, adjacency, component));
+            }
+        }
+        return cycles;
+    }
 
+    /**
+     * Groups the registrations of the graph in layers, so that every registration only depends on registrations of
+     * previous layers. The registrations of the same layer don't depend on each other and can be created in any
+     * order, or in parallel.
+     *
+     * <p>
+     * Registrations that are part of a cycle, or that depend on a registration that is part of a cycle, can't be
+     * ordered and are not included in any layer.
+     *
+     * @return the list of layers, starting with the registrations that don't have any dependency.
+     */
+    public List<List<InjectionRegistration<?>>> getLayers() {
+        final Map<Node, Integer> pendingDependencies = new HashMap<>();
+        List<Node> currentLayer = new ArrayList<>();
         for (final Node node : nodeMap.values()) {
-            currentPath.add(node);
-            checkForCycles(checked, node, currentPath, cycles);
-            currentPath.remove(node);
+            pendingDependencies.put(node, node.outgoing.size());
+            if (node.outgoing.isEmpty()) {
+                currentLayer.add(node);
+            }
         }
 
-        return cycles;
+        final List<List<InjectionRegistration<?>>> layers = new ArrayList<>();
+        while (!currentLayer.isEmpty()) {
+            final List<InjectionRegistration<?>> layer = new ArrayList<>(currentLayer.size());
+            final List<Node> nextLayer = new ArrayList<>();
+            for (final Node node : currentLayer) {
+                if (node.registration != null) {
+                    layer.add(node.registration);
+                }
+                for (final Node dependent : node.incoming) {
+                    final int pending = pendingDependencies.merge(dependent, -1, Integer::sum);
+                    if (pending == 0) {
+                        nextLayer.add(dependent);
+                    }
+                }
+            }
+
+            if (!layer.isEmpty()) {
+                layers.add(layer);
+            }
+            currentLayer = nextLayer;
+        }
+        return layers;
+    }
+
+    /**
+     * Groups the registrations of the graph in layers like {@link #getLayers()}, but keeps the registrations that are
+     * part of the same cycle together as a single unit, so every registration of the graph is included.
+     *
+     * <p>
+     * Each layer is a list of units. The registrations of a unit are the members of a cycle, or a single registration
+     * that isn't part of any cycle, and can't be ordered among themselves. Every unit only depends on units of
+     * previous layers, so registrations that depend on a cycle come after all of its members.
+     *
+     * @return the list of layers, starting with the units that don't have any dependency outside of themselves.
+     */
+    public List<List<List<InjectionRegistration<?>>>> getComponentLayers() {
+        final Node[] nodes = nodeMap.values().toArray(new Node[nodeMap.size()]);
+        final int[][] adjacency = adjacencyOf(nodes);
+        // Tarjan's algorithm finds the components of the dependencies of a node before the component of the node
+        final List<int[]> components = stronglyConnectedComponents(adjacency);
+
+        final int[] componentOf = new int[nodes.length];
+        for (int c = 0; c < components.size(); c++) {
+            for (final int node : components.get(c)) {
+                componentOf[node] = c;
+            }
+        }
+
+        final int[] componentLayer = new int[components.size()];
+        final List<List<List<InjectionRegistration<?>>>> layers = new ArrayList<>();
+        for (int c = 0; c < components.size(); c++) {
+            int layer = 0;
+            final List<InjectionRegistration<?>> unit = new ArrayList<>();
+            for (final int node : components.get(c)) {
+                for (final int dependency : adjacency[node]) {
+                    if (componentOf[dependency] != c) {
+                        layer = Math.max(layer, componentLayer[componentOf[dependency]] + 1);
+                    }
+                }
+                if (nodes[node].registration != null) {
+                    unit.add(nodes[node].registration);
+                }
+            }
+            componentLayer[c] = layer;
+
+            while (layers.size() <= layer) {
+                layers.add(new ArrayList<>());
+            }
+            if (!unit.isEmpty()) {
+                layers.get(layer).add(unit);
+            }
+        }
+        layers.removeIf(List::isEmpty);
+        return layers;
+    }
+
+    /**
+     * Provides the registrations that can be reached from the given roots following their dependencies, including the
+     * roots themselves.
+     *
+     * @param roots
+     *            the registrations to start from
+     * @return the reachable registrations
+     */
+    public Set<InjectionRegistration<?>> getReachableRegistrations(Collection<? extends InjectionRegistration<?>> roots) {
+        final Set<Node> visited = new HashSet<>();
+        final ArrayDeque<Node> pending = new ArrayDeque<>();
+        for (final InjectionRegistration<?> root : roots) {
+            final Node rootNode = nodeMap.get(root);
+            if (rootNode != null && visited.add(rootNode)) {
+                pending.push(rootNode);
+            }
+        }
+
+        final Set<InjectionRegistration<?>> reachable = new HashSet<>();
+        while (!pending.isEmpty()) {
+            final Node node = pending.pop();
+            if (node.registration != null) {
+                reachable.add(node.registration);
+            }
+            for (final Node dependency : node.outgoing) {
+                if (visited.add(dependency)) {
+                    pending.push(dependency);
+                }
+            }
+        }
+        return reachable;
     }
 
     public Set<Node> getNodes() {
@@ -99,22 +229,128 @@ public class DependencyGraph {
         }
     }
 
-    private void checkForCycles(Set<Node> checked, Node node, List<Node> current, List<Cycle> cyclesFound) {
-        if (checked.contains(node)) {
-            return;
+    private static int[][] adjacencyOf(Node[] nodes) {
+        final Map<Node, Integer> indexes = new HashMap<>(nodes.length * 2);
+        for (int i = 0; i < nodes.length; i++) {
+            indexes.put(nodes[i], i);
         }
-        checked.add(node);
 
-        for (final Node dep : node.outgoing) {
-            if (current.contains(dep)) {
-                cyclesFound.add(new Cycle(current, dep));
-            } else {
-                current.add(dep);
-                checkForCycles(checked, dep, current, cyclesFound);
-                current.remove(dep);
+        final int[][] adjacency = new int[nodes.length][];
+        for (int i = 0; i < nodes.length; i++) {
+            final List<Node> outgoing = nodes[i].outgoing;
+            adjacency[i] = new int[outgoing.size()];
+            for (int j = 0; j < adjacency[i].length; j++) {
+                adjacency[i][j] = indexes.get(outgoing.get(j));
             }
         }
+        return adjacency;
+    }
+
+    /**
+     * Iterative version of Tarjan's strongly connected components algorithm, so deep graphs don't overflow the stack.
+     */
+    private static List<int[]> stronglyConnectedComponents(int[][] adjacency) {
+        final int size = adjacency.length;
+        final int[] index = new int[size];
+        final int[] lowLink = new int[size];
+        final boolean[] onStack = new boolean[size];
+        Arrays.fill(index, -1);
+
+        final int[] componentStack = new int[size];
+        int componentStackSize = 0;
+        final int[] callStack = new int[size];
+        final int[] nextEdge = new int[size];
+        int nextIndex = 0;
+
+        final List<int[]> components = new ArrayList<>();
+        for (int root = 0; root < size; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
 
+            int callStackSize = 0;
+            callStack[callStackSize++] = root;
+            index[root] = lowLink[root] = nextIndex++;
+            componentStack[componentStackSize++] = root;
+            onStack[root] = true;
+
+            while (callStackSize > 0) {
+                final int node = callStack[callStackSize - 1];
+                if (nextEdge[node] < adjacency[node].length) {
+                    final int dep = adjacency[node][nextEdge[node]++];
+                    if (index[dep] == -1) {
+                        index[dep] = lowLink[dep] = nextIndex++;
+                        componentStack[componentStackSize++] = dep;
+                        onStack[dep] = true;
+                        callStack[callStackSize++] = dep;
+                    } else if (onStack[dep]) {
+                        lowLink[node] = Math.min(lowLink[node], index[dep]);
+                    }
+                    continue;
+                }
+
+                callStackSize--;
+                if (callStackSize > 0) {
+                    final int parent = callStack[callStackSize - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                }
+
+                if (lowLink[node] == index[node]) {
+                    int componentStart = componentStackSize;
+                    do {
+                        onStack[componentStack[--componentStart]] = false;
+                    } while (componentStack[componentStart] != node);
+                    components.add(Arrays.copyOfRange(componentStack, componentStart, componentStackSize));
+                    componentStackSize = componentStart;
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Finds the shortest cycle that starts and ends in the first node of the given strongly connected component.
+     */
+    private Cycle cycleWithin(Node[] nodes, int[][] adjacency, int[] component) {
+        final int start = component[0];
+        final Map<Integer, Integer> previous = new HashMap<>();
+        final Set<Integer> inComponent = new HashSet<>();
+        for (int node : component) {
+            inComponent.add(node);
+        }
+
+        final ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        int last = -1;
+        while (last == -1) {
+            final int node = queue.poll();
+            for (int dep : adjacency[node]) {
+                if (dep == start) {
+                    last = node;
+                    break;
+                }
+                if (inComponent.contains(dep) && !previous.containsKey(dep)) {
+                    previous.put(dep, node);
+                    queue.add(dep);
+                }
+            }
+        }
+
+        final LinkedList<Node> path = new LinkedList<>();
+        for (int node = last; node != start; node = previous.get(node)) {
+            path.addFirst(nodes[node]);
+        }
+        path.addFirst(nodes[start]);
+        return new Cycle(path, nodes[start]);
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public class Cycle {
@@ -0,0 +1,100 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.reference;
+
+import java.util.Collections;
+import java.util.List;
+
+import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.registration.InjectionRegistration;
+
+/**
+ * Base class for {@link InjectableReference} objects that resolve to a single {@link InjectionRegistration}.
+ *
+ * <p>
+ * Once bound to an {@link InjectionContext} (see {@link #bind(InjectionContext)}), the resolved registration is used
+ * directly for every injection from that context instead of looking it up again in the registry.
+ *
+ * @author Camilo Gonzalez
+ */
+public abstract class BindableInjectableReference<T> extends NullableInjectableReference<T> {
+
+    private volatile Binding<T> binding;
+
+    public BindableInjectableReference(boolean nullable) {
+        super(nullable);
+    }
+
+    @Override
+    public void bind(InjectionContext context) {
+        try {
+            this.binding = new Binding<>(context, resolveRegistration(context));
+        } catch (IllegalArgumentException ex) {
+            // ambiguous references are reported when they're used, as if they had never been bound
+            this.binding = null;
+        }
+    }
+
+    /**
+     * Gets the referenced object through the bound registration, or with {@link #lookup(InjectionContext)} when this
+     * reference isn't bound to the given context. Subclasses can still override it, as they could before references
+     * were bound.
+     */
+    @Override
+    public T doGet(InjectionContext context) {
+        final Binding<T> currentBinding = this.binding;
+        if (currentBinding != null && currentBinding.context == context) {
+            return currentBinding.registration == null ? null : currentBinding.registration.get(context);
+        }
+        return lookup(context);
+    }
+
+    @Override
+    public List<InjectionRegistration<T>> getRegistrations(InjectionContext context) {
+        final Binding<T> currentBinding = this.binding;
+        if (currentBinding != null && currentBinding.context == context) {
+            return currentBinding.registrations;
+        }
+        return Collections.singletonList(resolveRegistration(context));
+    }
+
+    /**
+     * Finds the registration this reference points to in the given context.
+     *
+     * @return the matching registration, or null if there is none.
+     */
+    protected abstract InjectionRegistration<T> resolveRegistration(InjectionContext context);
+
+    /**
+     * Gets the referenced object from the given context when this reference isn't bound to it.
+     */
+    protected abstract T lookup(InjectionContext context);
+
+    private static final class Binding<T> {
+        private final InjectionContext context;
+
+        private final InjectionRegistration<T> registration;
+
+        private final List<InjectionRegistration<T>> registrations;
+
+        private Binding(InjectionContext context, InjectionRegistration<T> registration) {
+            this.context = context;
+            this.registration = registration;
+            this.registrations = Collections.singletonList(registration);
+        }
+    }
+
+}
@@ -42,4 +42,30 @@ public interface InjectableReference<T> {
 
     boolean isNullable();
 
+    /**
+     * Indicates if the referenced object is only retrieved when it's first used instead of when it's injected.
+     *
+     * <p>
+     * The registrations of lazy references are not created before the objects that depend on them and are not
+     * considered construction dependencies, so they can't be part of a construction cycle.
+     */
+    default boolean isLazy() {
+        return false;
+    }
+
+    /**
+     * Resolves the {@link InjectionRegistration} objects this reference points to in the given context and keeps them
+     * bound to this reference, so later injections from the same context don't need to look them up again.
+     *
+     * <p>
+     * {@link InjectionContext} implementations invoke this method when they are initialized and again whenever their
+     * registry changes, replacing any previous binding. References that can't be bound keep resolving their
+     * registrations on every injection.
+     *
+     * @param context
+     *            the {@link InjectionContext} to bind this reference to
+     */
+    default void bind(InjectionContext context) {
+    }
+
 }
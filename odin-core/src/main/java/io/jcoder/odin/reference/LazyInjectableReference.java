@@ -0,0 +1,143 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.reference;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.base.Preconditions;
+import io.jcoder.odin.registration.InjectionRegistration;
+
+/**
+ * An {@link InjectableReference} that injects a proxy of an interface instead of the referenced object itself.
+ *
+ * <p>
+ * The referenced object is only retrieved from the {@link InjectionContext} when a method of the proxy is invoked for
+ * the first time, so objects that depend on expensive components don't force their creation until they're actually
+ * used. The proxy keeps the retrieved object and forwards every further invocation to it.
+ *
+ * <p>
+ * {@code equals} and {@code hashCode} are based on the identity of the proxy and never trigger the retrieval.
+ *
+ * @author Camilo Gonzalez
+ */
+public class LazyInjectableReference<T> implements InjectableReference<T> {
+
+    private final InjectableReference<T> delegate;
+
+    private final Class<T> referencedInterface;
+
+    @SuppressWarnings("unchecked")
+    public LazyInjectableReference(InjectableReference<T> delegate) {
+        Preconditions.verifyNotNull(delegate, "The delegate reference must not be null");
+        Preconditions.verifyArgumentCondition(delegate.getInjectableType().isInterface(),
+                "Only references to interfaces can be lazy: " + delegate.getInjectableType().getName());
+
+        this.delegate = delegate;
+        this.referencedInterface = (Class<T>) delegate.getInjectableType();
+    }
+
+    @Override
+    public List<InjectionRegistration<T>> getRegistrations(InjectionContext context) {
+        return delegate.getRegistrations(context);
+    }
+
+    public InjectableReference<T> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Class<T> getInjectableType() {
+        return referencedInterface;
+    }
+
+    @Override
+    public T get(InjectionContext context) {
+        return referencedInterface.cast(Proxy.newProxyInstance(referencedInterface.getClassLoader(), new Class<?>[] { referencedInterface },
+                new LazyTargetHandler<>(delegate, context)));
+    }
+
+    @Override
+    public boolean isNullable() {
+        return false;
+    }
+
+    @Override
+    public boolean isLazy() {
+        return true;
+    }
+
+    @Override
+    public void bind(InjectionContext context) {
+        delegate.bind(context);
+    }
+
+    private static final class LazyTargetHandler<T> implements InvocationHandler {
+
+        private final InjectableReference<T> delegate;
+
+        private final InjectionContext context;
+
+        private volatile T target;
+
+        LazyTargetHandler(InjectableReference<T> delegate, InjectionContext context) {
+            this.delegate = delegate;
+            this.context = context;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                if ("equals".equals(method.getName())) {
+                    return proxy == args[0];
+                }
+                if ("hashCode".equals(method.getName())) {
+                    return System.identityHashCode(proxy);
+                }
+            }
+
+            if (!method.isAccessible()) {
+                // the interface doesn't need to be public. The method belongs to the proxy class, so it's only made
+                // accessible once
+                method.setAccessible(true);
+            }
+            try {
+                return method.invoke(target(), args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+
+        private T target() {
+            T currentTarget = target;
+            if (currentTarget == null) {
+                synchronized (this) {
+                    currentTarget = target;
+                    if (currentTarget == null) {
+                        currentTarget = delegate.get(context);
+                        target = currentTarget;
+                    }
+                }
+            }
+            return currentTarget;
+        }
+    }
+
+}
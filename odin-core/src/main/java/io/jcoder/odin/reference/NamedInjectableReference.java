@@ -15,9 +15,6 @@
  */
 package io.jcoder.odin.reference;
 
-import java.util.Collections;
-import java.util.List;
-
 import io.jcoder.odin.InjectionContext;
 import io.jcoder.odin.registration.InjectionRegistration;
 
@@ -25,7 +22,7 @@ import io.jcoder.odin.registration.InjectionRegistration;
  *
  * @author Camilo Gonzalez
  */
-public class NamedInjectableReference<T> extends NullableInjectableReference<T> {
+public class NamedInjectableReference<T> extends BindableInjectableReference<T> {
 
     private final String name;
 
@@ -42,13 +39,13 @@ public class NamedInjectableReference<T> extends NullableInjectableReference<T>
     }
 
     @Override
-    public T doGet(InjectionContext context) {
+    protected T lookup(InjectionContext context) {
         return context.getNamed(referencedClass, name);
     }
 
     @Override
-    public List<InjectionRegistration<T>> getRegistrations(InjectionContext context) {
-        return Collections.singletonList(context.getNamedRegistration(referencedClass, name));
+    protected InjectionRegistration<T> resolveRegistration(InjectionContext context) {
+        return context.getNamedRegistration(referencedClass, name);
     }
 
     @Override
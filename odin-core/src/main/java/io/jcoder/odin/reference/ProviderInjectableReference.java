@@ -24,6 +24,13 @@ import io.jcoder.odin.InjectionContext;
 import io.jcoder.odin.registration.InjectionRegistration;
 
 /**
+ * An {@link InjectableReference} that injects a {@link Provider} of the objects referenced by its delegate.
+ *
+ * <p>
+ * The injected {@link Provider} is the one the {@link InjectionContext} keeps for the registration of the delegate (see
+ * {@link InjectionContext#getProviderRegistration(InjectionRegistration)}), so every injection of the same reference
+ * shares it. Once bound to a context (see {@link #bind(InjectionContext)}), the provider is injected without looking
+ * it up again.
  *
  * @author Camilo Gonzalez
  */
@@ -32,6 +39,8 @@ public class ProviderInjectableReference<T> implements InjectableReference<Provi
 
     private final InjectableReference<T> delegate;
 
+    private volatile Binding<T> binding;
+
     public ProviderInjectableReference(InjectableReference<T> delegate) {
         this.delegate = delegate;
     }
@@ -52,6 +61,37 @@ public class ProviderInjectableReference<T> implements InjectableReference<Provi
 
     @Override
     public Provider<T> get(InjectionContext context) {
+        final Binding<T> currentBinding = this.binding;
+        if (currentBinding != null && currentBinding.context == context) {
+            return currentBinding.provider;
+        }
+        return resolveProvider(context);
+    }
+
+    @Override
+    public boolean isNullable() {
+        return false;
+    }
+
+    @Override
+    public void bind(InjectionContext context) {
+        delegate.bind(context);
+        try {
+            this.binding = new Binding<>(context, resolveProvider(context));
+        } catch (IllegalArgumentException ex) {
+            // ambiguous references are reported when they're used, as if they had never been bound
+            this.binding = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Provider<T> resolveProvider(InjectionContext context) {
+        final List<InjectionRegistration<T>> registrations = delegate.getRegistrations(context);
+        if (delegate instanceof BindableInjectableReference && registrations.get(0) != null) {
+            return (Provider<T>) context.getProviderRegistration(registrations.get(0)).get(context);
+        }
+
+        // multi references and nullable references without a registration resolve their objects on every invocation
         return new Provider<T>() {
             @Override
             public T get() {
@@ -60,9 +100,15 @@ public class ProviderInjectableReference<T> implements InjectableReference<Provi
         };
     }
 
-    @Override
-    public boolean isNullable() {
-        return false;
+    private static final class Binding<T> {
+        private final InjectionContext context;
+
+        private final Provider<T> provider;
+
+        Binding(InjectionContext context, Provider<T> provider) {
+            this.context = context;
+            this.provider = provider;
+        }
     }
 
 }
@@ -15,9 +15,6 @@
  */
 package io.jcoder.odin.reference;
 
-import java.util.Collections;
-import java.util.List;
-
 import io.jcoder.odin.InjectionContext;
 import io.jcoder.odin.registration.InjectionRegistration;
 
@@ -25,7 +22,7 @@ import io.jcoder.odin.registration.InjectionRegistration;
  *
  * @author Camilo Gonzalez
  */
-public class QualifiedInjectableReference<T> extends NullableInjectableReference<T> {
+public class QualifiedInjectableReference<T> extends BindableInjectableReference<T> {
 
     private final String qualifierName;
 
@@ -42,13 +39,13 @@ public class QualifiedInjectableReference<T> extends NullableInjectableReference
     }
 
     @Override
-    public T doGet(InjectionContext context) {
+    protected T lookup(InjectionContext context) {
         return context.getWithQualifier(referencedClass, qualifierName);
     }
 
     @Override
-    public List<InjectionRegistration<T>> getRegistrations(InjectionContext context) {
-        return Collections.singletonList(context.getQualifiedRegistration(referencedClass, qualifierName));
+    protected InjectionRegistration<T> resolveRegistration(InjectionContext context) {
+        return context.getQualifiedRegistration(referencedClass, qualifierName);
     }
 
     @Override
@@ -15,9 +15,6 @@
  */
 package io.jcoder.odin.reference;
 
-import java.util.Collections;
-import java.util.List;
-
 import io.jcoder.odin.InjectionContext;
 import io.jcoder.odin.registration.InjectionRegistration;
 
@@ -25,7 +22,7 @@ import io.jcoder.odin.registration.InjectionRegistration;
  *
  * @author Camilo Gonzalez
  */
-public class TypedInjectableReference<T> extends NullableInjectableReference<T> {
+public class TypedInjectableReference<T> extends BindableInjectableReference<T> {
 
     private final Class<T> referencedClass;
 
@@ -39,13 +36,13 @@ public class TypedInjectableReference<T> extends NullableInjectableReference<T>
     }
 
     @Override
-    public T doGet(InjectionContext context) {
+    protected T lookup(InjectionContext context) {
         return context.get(referencedClass);
     }
 
     @Override
-    public List<InjectionRegistration<T>> getRegistrations(InjectionContext context) {
-        return Collections.singletonList(context.getRegistration(referencedClass));
+    protected InjectionRegistration<T> resolveRegistration(InjectionContext context) {
+        return context.getRegistration(referencedClass);
     }
 
     @Override
@@ -15,22 +15,44 @@
  */
 package io.jcoder.odin.reference;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import io.jcoder.odin.InjectionContext;
 import io.jcoder.odin.base.Preconditions;
 import io.jcoder.odin.registration.InjectionRegistration;
+import io.jcoder.odin.scope.SingletonScope;
 
 /**
+ * An {@link InjectableReference} that injects all the objects whose registered class can be assigned to a given type,
+ * either as a {@link Collection} or as an array.
+ *
+ * <p>
+ * Once bound to an {@link InjectionContext} (see {@link #bind(InjectionContext)}), the matching registrations are kept
+ * by the reference, so injections don't need to look them up again. The {@link List}, {@link Set} or
+ * {@link SortedSet} created with the default collection types can't be modified, whatever the scope of the objects
+ * they contain. When every matching registration is a singleton, they're created once and shared by every injection,
+ * and arrays are copied from a shared array.
+ *
+ * <p>
+ * References to a {@link Stream} or an {@link Iterable} don't get the referenced objects when they're injected: each
+ * object is only got from its registration when the iteration reaches it. These references are lazy (see
+ * {@link #isLazy()}), so the referenced objects are never created before the objects that depend on them. Every
+ * injection gets a new {@link Stream}, while an injected {@link Iterable} can be iterated as many times as needed.
  *
  * @author Camilo Gonzalez
  */
@@ -42,21 +64,36 @@ public class TypedMultiInjectableReference<T> extends NullableInjectableReferenc
 
     private final Supplier<T> collectionSupplier;
 
+    /**
+     * Wraps a collection created by the default supplier into an unmodifiable view of the same type, or null if the
+     * collections of the referenced class are given as they're created and can't be shared.
+     */
+    private final UnaryOperator<T> unmodifiableView;
+
+    private volatile Binding<T> binding;
+
     public TypedMultiInjectableReference(Class<T> referencedClass) {
         this(referencedClass, null);
     }
 
     public TypedMultiInjectableReference(Class<T> referencedClass, Class<?> genericType) {
-        this(referencedClass, genericType, defaultSupplierFor(referencedClass), false);
+        this(referencedClass, genericType, defaultSupplierFor(referencedClass), false, unmodifiableViewFor(referencedClass));
     }
 
     public TypedMultiInjectableReference(Class<T> referencedClass, Class<?> genericType, Supplier<T> collectionSupplier,
             boolean nullable) {
+        this(referencedClass, genericType, collectionSupplier, nullable, null);
+    }
+
+    private TypedMultiInjectableReference(Class<T> referencedClass, Class<?> genericType, Supplier<T> collectionSupplier,
+            boolean nullable, UnaryOperator<T> unmodifiableView) {
         super(nullable);
         boolean isArray = referencedClass.isArray();
         boolean isCollection = Collection.class.isAssignableFrom(referencedClass);
 
-        if (!isArray) {
+        if (isStreaming(referencedClass)) {
+            Preconditions.verifyArgumentCondition(genericType != null, "A generic type must be provided for Stream and Iterable types");
+        } else if (!isArray) {
             Preconditions.verifyArgumentCondition(isCollection,
                     "The provided class must be a Collection or an Array to be able to inject multiple instances");
             Preconditions.verifyArgumentCondition(isCollection && genericType != null,
@@ -68,38 +105,66 @@ public class TypedMultiInjectableReference<T> extends NullableInjectableReferenc
         this.referencedClass = referencedClass;
         this.genericType = genericType;
         this.collectionSupplier = collectionSupplier;
+        this.unmodifiableView = unmodifiableView;
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     @Override
     public T doGet(InjectionContext context) {
-        if (Collection.class.isAssignableFrom(referencedClass)) {
-            List<?> objectList = context.getMulti(genericType);
+        final Binding<T> currentBinding = this.binding;
+        if (currentBinding != null && currentBinding.context == context) {
+            return currentBinding.get();
+        }
+        return resolve(context).get();
+    }
+
+    @Override
+    public void bind(InjectionContext context) {
+        try {
+            this.binding = resolve(context);
+        } catch (IllegalArgumentException ex) {
+            // ambiguous references are reported when they're used, as if they had never been bound
+            this.binding = null;
+        }
+    }
+
+    private Binding<T> resolve(InjectionContext context) {
+        if (Collection.class.isAssignableFrom(referencedClass) || isStreaming(referencedClass)) {
+            return new Binding<>(this, context, null, context.getMultiRegistration(genericType));
+        } else if (referencedClass.isArray()) {
+            if (!context.exists(referencedClass)) {
+                return new Binding<>(this, context, null, context.getMultiRegistration(referencedClass.getComponentType()));
+            }
+        }
+        return new Binding<>(this, context, context.getRegistration(referencedClass), null);
+    }
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private T createMulti(Object[] objects) {
+        if (Collection.class.isAssignableFrom(referencedClass)) {
             T collection = collectionSupplier.get();
             if (collection == null) {
                 throw new IllegalStateException(
                         "Couldn't create instance of collection type: " + referencedClass + " using the current supplier");
             }
 
-            ((Collection) collection).addAll(objectList);
-
+            ((Collection) collection).addAll(Arrays.asList(objects));
             return collection;
-        } else if (referencedClass.isArray()) {
-            if (!context.exists(referencedClass)) {
-                return (T) context.getMulti(referencedClass.getComponentType());
-            }
         }
-        return context.get(referencedClass);
+
+        final Object array = Array.newInstance(referencedClass.getComponentType(), objects.length);
+        System.arraycopy(objects, 0, array, 0, objects.length);
+        return (T) array;
     }
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     @Override
     public List<InjectionRegistration<T>> getRegistrations(InjectionContext context) {
-        if (Collection.class.isAssignableFrom(referencedClass)) {
-            return context.getMultiRegistration(referencedClass);
+        // the registrations of the injected elements, so the dependency graph knows what each multi-injection reaches
+        if (isStreaming(referencedClass) || Collection.class.isAssignableFrom(referencedClass)) {
+            return (List) context.getMultiRegistration(genericType);
         } else if (referencedClass.isArray()) {
             if (!context.exists(referencedClass)) {
-                return context.getMultiRegistration(referencedClass);
+                return (List) context.getMultiRegistration(referencedClass.getComponentType());
             }
         }
         return Collections.singletonList(context.getRegistration(referencedClass));
@@ -132,14 +197,145 @@ public class TypedMultiInjectableReference<T> extends NullableInjectableReferenc
         return () -> null;
     }
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <E> UnaryOperator<E> unmodifiableViewFor(Class<E> referencedClass) {
+        if (referencedClass.equals(List.class)) {
+            return collection -> (E) Collections.unmodifiableList((List) collection);
+        } else if (referencedClass.equals(Set.class)) {
+            return collection -> (E) Collections.unmodifiableSet((Set) collection);
+        } else if (referencedClass.equals(SortedSet.class)) {
+            return collection -> (E) Collections.unmodifiableSortedSet((SortedSet) collection);
+        } else if (referencedClass.isArray()) {
+            return UnaryOperator.identity();
+        }
+        return null;
+    }
+
+    private static boolean isStreaming(Class<?> referencedClass) {
+        return referencedClass.equals(Stream.class) || referencedClass.equals(Iterable.class);
+    }
+
     @Override
     public boolean isNullable() {
         return false;
     }
 
+    @Override
+    public boolean isLazy() {
+        return isStreaming(referencedClass);
+    }
+
     @Override
     public Class<T> getInjectableType() {
         return referencedClass;
     }
 
+    /**
+     * The registrations a {@link TypedMultiInjectableReference} resolves to in a given context: either the single
+     * registration of the referenced array type, or the registrations of all the objects to inject.
+     */
+    private static final class Binding<T> {
+        private final TypedMultiInjectableReference<T> reference;
+
+        private final InjectionContext context;
+
+        private final InjectionRegistration<T> registration;
+
+        private final InjectionRegistration<?>[] registrations;
+
+        private final boolean shareable;
+
+        private volatile T sharedMulti;
+
+        private final Iterable<Object> iterable;
+
+        private Binding(TypedMultiInjectableReference<T> reference, InjectionContext context, InjectionRegistration<T> registration,
+                List<? extends InjectionRegistration<?>> registrations) {
+            this.reference = reference;
+            this.context = context;
+            this.registration = registration;
+            this.registrations = registrations == null ? null : registrations.toArray(new InjectionRegistration<?>[registrations.size()]);
+            this.shareable = registrations != null && reference.unmodifiableView != null && allSingletons(this.registrations);
+            this.iterable = Iterable.class.equals(reference.referencedClass) ? () -> new LazyIterator(context, this.registrations) : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T get() {
+            if (registrations == null) {
+                return registration == null ? null : registration.get(context);
+            } else if (iterable != null) {
+                return (T) iterable;
+            } else if (Stream.class.equals(reference.referencedClass)) {
+                return (T) Arrays.stream(registrations).map(reg -> reg.get(context));
+            }
+
+            if (!shareable) {
+                final T multi = reference.createMulti(getObjects());
+                return reference.unmodifiableView == null ? multi : reference.unmodifiableView.apply(multi);
+            }
+
+            T multi = sharedMulti;
+            if (multi == null) {
+                multi = reference.unmodifiableView.apply(reference.createMulti(getObjects()));
+                sharedMulti = multi;
+            }
+
+            if (multi.getClass().isArray()) {
+                // arrays can't be made unmodifiable, so every injection gets its own copy
+                final int length = Array.getLength(multi);
+                final Object copy = Array.newInstance(multi.getClass().getComponentType(), length);
+                System.arraycopy(multi, 0, copy, 0, length);
+                return (T) copy;
+            }
+            return multi;
+        }
+
+        private Object[] getObjects() {
+            // indexed loop: this runs every time a non shared multi reference is injected
+            final Object[] objects = new Object[registrations.length];
+            for (int i = 0; i < registrations.length; i++) {
+                objects[i] = registrations[i].get(context);
+            }
+            return objects;
+        }
+
+        private static boolean allSingletons(InjectionRegistration<?>[] registrations) {
+            for (InjectionRegistration<?> registration : registrations) {
+                if (!SingletonScope.class.equals(registration.getScopeType())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Iterates over the objects of some registrations, getting each object only when it's reached.
+     */
+    private static final class LazyIterator implements Iterator<Object> {
+        private final InjectionContext context;
+
+        private final InjectionRegistration<?>[] registrations;
+
+        private int next;
+
+        private LazyIterator(InjectionContext context, InjectionRegistration<?>[] registrations) {
+            this.context = context;
+            this.registrations = registrations;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < registrations.length;
+        }
+
+        @Override
+        public Object next() {
+            if (next >= registrations.length) {
+                throw new NoSuchElementException();
+            }
+            return registrations[next++].get(context);
+        }
+    }
+
 }
@@ -0,0 +1,35 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.reflection;
+
+/**
+ * Writes the value of a field that has been bound once, so the cost of looking it up and checking its access is not
+ * paid on every write.
+ *
+ * @author Camilo Gonzalez
+ */
+@FunctionalInterface
+public interface FieldWriter {
+
+    /**
+     * Sets the bound field of the given target to the given value.
+     *
+     * @throws IllegalArgumentException
+     *             if the target or value are not compatible with the field
+     */
+    void set(Object target, Object value) throws IllegalAccessException, IllegalArgumentException;
+
+}
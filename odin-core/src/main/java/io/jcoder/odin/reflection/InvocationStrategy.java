@@ -0,0 +1,60 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.reflection;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Defines how the constructors, methods and fields used for construction and injection are bound to a
+ * {@link MemberInvoker} or {@link FieldWriter}.
+ *
+ * <p>
+ * Binding happens once, when the construction or injection function is created, so the chosen strategy determines the
+ * cost of every later invocation. Two strategies are available:
+ *
+ * <ul>
+ * <li>{@link #methodHandles()}: binds members to {@link java.lang.invoke.MethodHandle}s, which the JIT compiler can
+ * optimize much better than reflective calls. Members that can't be accessed through a method handle fall back to
+ * reflection. This is the default strategy.</li>
+ * <li>{@link #reflection()}: uses plain {@link Constructor#newInstance(Object...)} and
+ * {@link Method#invoke(Object, Object...)} and {@link Field#set(Object, Object)} calls.</li>
+ * </ul>
+ *
+ * @author Camilo Gonzalez
+ */
+public interface InvocationStrategy {
+
+    MemberInvoker constructor(Constructor<?> constructor);
+
+    MemberInvoker method(Method method);
+
+    FieldWriter field(Field field);
+
+    static InvocationStrategy methodHandles() {
+        return MethodHandleInvocationStrategy.INSTANCE;
+    }
+
+    static InvocationStrategy reflection() {
+        return ReflectionInvocationStrategy.INSTANCE;
+    }
+
+    static InvocationStrategy defaultStrategy() {
+        return methodHandles();
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.reflection;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Invokes a constructor or method that has been bound once, so the cost of looking it up and checking its access is
+ * not paid on every invocation.
+ *
+ * @author Camilo Gonzalez
+ */
+@FunctionalInterface
+public interface MemberInvoker {
+
+    /**
+     * Invokes the bound member.
+     *
+     * @param target
+     *            the object on which an instance method is invoked. It's ignored for constructors and static methods.
+     * @param args
+     *            the arguments for the invocation
+     * @return the created object for constructors, the returned value for methods or <code>null</code> for
+     *         <code>void</code> methods.
+     * @throws InvocationTargetException
+     *             if the invoked member throws an exception
+     */
+    Object invoke(Object target, Object[] args)
+            throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException;
+
+}
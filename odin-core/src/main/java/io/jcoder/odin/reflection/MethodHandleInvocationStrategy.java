@@ -0,0 +1,221 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An {@link InvocationStrategy} that binds members to {@link MethodHandle}s.
+ *
+ * <p>
+ * Every handle is adapted to the <code>(Object, Object[])Object</code> shape of {@link MemberInvoker}, so invoking it
+ * doesn't require boxing the arguments again or going through the access checks of reflection. When a member can't be
+ * unreflected (for example, because of module access rules), the {@link ReflectionInvocationStrategy} is used for it.
+ *
+ * @author Camilo Gonzalez
+ */
+final class MethodHandleInvocationStrategy implements InvocationStrategy {
+
+    static final MethodHandleInvocationStrategy INSTANCE = new MethodHandleInvocationStrategy();
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private static final MethodType WRITER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * The numeric primitive types, in the order of the widening conversions allowed between them.
+     */
+    private static final List<Class<?>> NUMERIC_TYPES = Arrays.asList(byte.class, short.class, int.class, long.class,
+            float.class, double.class);
+
+    private static final List<Class<?>> NUMERIC_WRAPPERS = Arrays.asList(Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class);
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private MethodHandleInvocationStrategy() {
+    }
+
+    @Override
+    public MemberInvoker constructor(Constructor<?> constructor) {
+        try {
+            constructor.setAccessible(true);
+            final MethodHandle handle = lookup.unreflectConstructor(constructor);
+            return new MethodHandleInvoker(adapt(handle, constructor.getParameterCount(), false), null,
+                    constructor.getParameterTypes());
+        } catch (IllegalAccessException | RuntimeException ex) {
+            return ReflectionInvocationStrategy.INSTANCE.constructor(constructor);
+        }
+    }
+
+    @Override
+    public MemberInvoker method(Method method) {
+        try {
+            method.setAccessible(true);
+            final MethodHandle handle = lookup.unreflect(method);
+            final boolean hasReceiver = !Modifier.isStatic(method.getModifiers());
+            return new MethodHandleInvoker(adapt(handle, method.getParameterCount(), hasReceiver),
+                    hasReceiver ? method.getDeclaringClass() : null, method.getParameterTypes());
+        } catch (IllegalAccessException | RuntimeException ex) {
+            return ReflectionInvocationStrategy.INSTANCE.method(method);
+        }
+    }
+
+    @Override
+    public FieldWriter field(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle handle = lookup.unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return new MethodHandleWriter(handle.asType(WRITER_TYPE));
+        } catch (IllegalAccessException | RuntimeException ex) {
+            return ReflectionInvocationStrategy.INSTANCE.field(field);
+        }
+    }
+
+    /**
+     * Adapts the given handle to the {@link #INVOKER_TYPE}: all the arguments are taken from an <code>Object[]</code>
+     * and, for constructors and static methods, the target argument is ignored.
+     */
+    private static MethodHandle adapt(MethodHandle handle, int parameterCount, boolean hasReceiver) {
+        MethodHandle adapted = handle.asFixedArity();
+        adapted = adapted.asType(MethodType.genericMethodType(parameterCount + (hasReceiver ? 1 : 0)));
+        adapted = adapted.asSpreader(Object[].class, parameterCount);
+        if (!hasReceiver) {
+            adapted = MethodHandles.dropArguments(adapted, 0, Object.class);
+        }
+        return adapted.asType(INVOKER_TYPE);
+    }
+
+    /**
+     * Checks if a value can be passed as an argument of the given type by reflection, which allows unboxing followed by
+     * a widening primitive conversion.
+     */
+    private static boolean isAssignable(Class<?> type, Object value) {
+        if (!type.isPrimitive()) {
+            return value == null || type.isInstance(value);
+        }
+        if (value == null) {
+            return false;
+        }
+        final Class<?> valueType = value.getClass();
+        if (type == boolean.class) {
+            return valueType == Boolean.class;
+        }
+        if (valueType == Character.class) {
+            return type == char.class || NUMERIC_TYPES.indexOf(type) >= NUMERIC_TYPES.indexOf(int.class);
+        }
+        final int valueIndex = NUMERIC_WRAPPERS.indexOf(valueType);
+        return valueIndex >= 0 && valueIndex <= NUMERIC_TYPES.indexOf(type);
+    }
+
+    private static final class MethodHandleInvoker implements MemberInvoker {
+
+        private final MethodHandle handle;
+
+        /**
+         * The class of the target of instance methods, or null for constructors and static methods.
+         */
+        private final Class<?> receiverType;
+
+        private final Class<?>[] parameterTypes;
+
+        private MethodHandleInvoker(MethodHandle handle, Class<?> receiverType, Class<?>[] parameterTypes) {
+            this.handle = handle;
+            this.receiverType = receiverType;
+            this.parameterTypes = parameterTypes;
+        }
+
+        @Override
+        public Object invoke(Object target, Object[] args) throws InvocationTargetException {
+            try {
+                return handle.invokeExact(target, args);
+            } catch (ClassCastException | NullPointerException | IllegalArgumentException ex) {
+                // the arguments are only checked after a failure, so the invocation is as cheap as it can be
+                checkArguments(target, args, ex);
+                throw new InvocationTargetException(ex);
+            } catch (Throwable t) {
+                // same contract as reflection: any exception thrown by the invoked member is wrapped
+                throw new InvocationTargetException(t);
+            }
+        }
+
+        /**
+         * Reports the failures caused by the target or the arguments, which happen while adapting them to the member
+         * before it's invoked, like reflection does.
+         */
+        private void checkArguments(Object target, Object[] args, RuntimeException cause) {
+            if (receiverType != null) {
+                if (target == null) {
+                    throw new NullPointerException("The target of an instance method must not be null");
+                }
+                if (!receiverType.isInstance(target)) {
+                    throw new IllegalArgumentException("Object is not an instance of declaring class " + receiverType.getName(),
+                            cause);
+                }
+            }
+
+            final int argCount = args == null ? 0 : args.length;
+            if (argCount != parameterTypes.length) {
+                throw new IllegalArgumentException("Wrong number of arguments: expected " + parameterTypes.length + " but got "
+                        + argCount, cause);
+            }
+            for (int i = 0; i < argCount; i++) {
+                if (!isAssignable(parameterTypes[i], args[i])) {
+                    throw new IllegalArgumentException("Argument type mismatch for parameter " + i + " of type "
+                            + parameterTypes[i].getName(), cause);
+                }
+            }
+        }
+
+    }
+
+    private static final class MethodHandleWriter implements FieldWriter {
+
+        private final MethodHandle handle;
+
+        private MethodHandleWriter(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public void set(Object target, Object value) {
+            try {
+                handle.invokeExact(target, value);
+            } catch (RuntimeException ex) {
+                // casting or unboxing failures, reported as Field.set does
+                throw new IllegalArgumentException("Can't set field with value: " + value, ex);
+            } catch (Error ex) {
+                throw ex;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+    }
+
+}
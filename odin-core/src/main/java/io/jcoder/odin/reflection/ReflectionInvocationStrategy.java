@@ -0,0 +1,52 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.reflection;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * An {@link InvocationStrategy} based on plain reflective calls.
+ *
+ * @author Camilo Gonzalez
+ */
+final class ReflectionInvocationStrategy implements InvocationStrategy {
+
+    static final ReflectionInvocationStrategy INSTANCE = new ReflectionInvocationStrategy();
+
+    private ReflectionInvocationStrategy() {
+    }
+
+    @Override
+    public MemberInvoker constructor(Constructor<?> constructor) {
+        constructor.setAccessible(true);
+        return (target, args) -> constructor.newInstance(args);
+    }
+
+    @Override
+    public MemberInvoker method(Method method) {
+        method.setAccessible(true);
+        return (target, args) -> method.invoke(target, args);
+    }
+
+    @Override
+    public FieldWriter field(Field field) {
+        field.setAccessible(true);
+        return (target, value) -> field.set(target, value);
+    }
+
+}
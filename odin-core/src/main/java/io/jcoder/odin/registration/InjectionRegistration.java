@@ -28,6 +28,7 @@ import io.jcoder.odin.builder.RegistrationBuilder;
 import io.jcoder.odin.function.ConstructionFunction;
 import io.jcoder.odin.function.InjectionFunction;
 import io.jcoder.odin.function.InjectionFunctionComparator;
+import io.jcoder.odin.function.InstanceFunction;
 import io.jcoder.odin.function.PostConstructionFunction;
 import io.jcoder.odin.function.PreDestroyFunction;
 import io.jcoder.odin.reference.InjectableReference;
@@ -58,11 +59,18 @@ import io.jcoder.odin.scope.SingletonScope;
  * </ul>
  *
  * <p>
- * {@link InjectionRegistration} objects are immutable.
+ * The configuration of an {@link InjectionRegistration} is immutable. The only mutable state is a cache of the
+ * singleton instance that was last created (or provided) for it, together with the {@link InjectionContext} that owns
+ * it. The cache is written by {@link #get(InjectionContext)} once the instance has been fully initialized, after it has
+ * been stored in its scope, and it's held in a <code>volatile</code> field of an immutable holder, so any thread that
+ * reads it also sees the fully initialized instance. Lookups from a different context ignore the cache and go through
+ * that context's scope, where a later write may replace the cached instance.
  *
  * @author Camilo Gonzalez
  */
 public final class InjectionRegistration<T> implements Comparable<InjectionRegistration<T>> {
+    private static final int MAX_DEADLOCK_RETRIES = 20;
+
     private final String name;
 
     private final String qualifierName;
@@ -79,19 +87,54 @@ public final class InjectionRegistration<T> implements Comparable<InjectionRegis
 
     private final ConstructionFunction<T> constructor;
 
+    /**
+     * The constructor, if it also initializes the instances it creates.
+     */
+    private final InstanceFunction<T> instanceFunction;
+
     private final Class<? extends InstanceScope> scopeType;
 
     private final boolean provided;
 
+    private final boolean unscoped;
+
+    private final boolean singleton;
+
+    private final boolean lazy;
+
+    private final int priority;
+
+    private final List<InjectableReference<?>> dependencies;
+
+    /**
+     * The fully created instance of this registration when it's managed by a {@link SingletonScope}, together with the
+     * context that created it. This allows returning existing singletons without going through the scope.
+     */
+    private volatile SingletonInstance<T> singletonInstance;
+
     public InjectionRegistration(Class<? extends InstanceScope> scopeType, String name, String qualifierName, Class<T> registeredClass,
             ConstructionFunction<T> constructor, List<InjectionFunction<T>> setters, PostConstructionFunction<T> postConstructor,
             PreDestroyFunction<T> preDestroy) {
+        this(scopeType, name, qualifierName, registeredClass, constructor, setters, postConstructor, preDestroy, false);
+    }
+
+    public InjectionRegistration(Class<? extends InstanceScope> scopeType, String name, String qualifierName, Class<T> registeredClass,
+            ConstructionFunction<T> constructor, List<InjectionFunction<T>> setters, PostConstructionFunction<T> postConstructor,
+            PreDestroyFunction<T> preDestroy, boolean lazy) {
+        this(scopeType, name, qualifierName, registeredClass, constructor, setters, postConstructor, preDestroy, lazy, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    public InjectionRegistration(Class<? extends InstanceScope> scopeType, String name, String qualifierName, Class<T> registeredClass,
+            ConstructionFunction<T> constructor, List<InjectionFunction<T>> setters, PostConstructionFunction<T> postConstructor,
+            PreDestroyFunction<T> preDestroy, boolean lazy, int priority) {
 
         this.name = name;
         this.qualifierName = qualifierName;
         this.registeredClass = registeredClass;
         this.scopeType = scopeType;
         this.constructor = constructor;
+        this.instanceFunction = constructor instanceof InstanceFunction ? (InstanceFunction<T>) constructor : null;
         if (setters != null) {
             this.setters = ImmutableList.sortedCopyOf(new InjectionFunctionComparator(), setters);
         } else {
@@ -99,19 +142,30 @@ public final class InjectionRegistration<T> implements Comparable<InjectionRegis
         }
         this.registeredObject = null;
         this.provided = false;
+        this.unscoped = UnscopedInstanceScope.class.equals(scopeType);
+        this.singleton = SingletonScope.class.equals(scopeType);
+        this.lazy = lazy;
+        this.priority = priority;
         this.postConstructor = postConstructor;
         this.preDestroy = preDestroy;
+        this.dependencies = collectDependencies(constructor, this.setters);
     }
 
-    @SuppressWarnings("unchecked")
     public InjectionRegistration(String name, String qualifierName, T registeredObject, List<InjectionFunction<T>> setters,
             PostConstructionFunction<T> postConstructor, PreDestroyFunction<T> preDestroy) {
+        this(name, qualifierName, registeredObject, setters, postConstructor, preDestroy, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    public InjectionRegistration(String name, String qualifierName, T registeredObject, List<InjectionFunction<T>> setters,
+            PostConstructionFunction<T> postConstructor, PreDestroyFunction<T> preDestroy, int priority) {
 
         this.name = name;
         this.qualifierName = qualifierName;
         this.registeredObject = registeredObject;
         this.scopeType = SingletonScope.class;
         this.constructor = null;
+        this.instanceFunction = null;
         if (setters != null) {
             this.setters = ImmutableList.sortedCopyOf(new InjectionFunctionComparator(), setters);
         } else {
@@ -119,8 +173,13 @@ public final class InjectionRegistration<T> implements Comparable<InjectionRegis
         }
         this.registeredClass = (Class<T>) registeredObject.getClass();
         this.provided = true;
+        this.unscoped = false;
+        this.singleton = true;
+        this.lazy = false;
+        this.priority = priority;
         this.postConstructor = postConstructor;
         this.preDestroy = preDestroy;
+        this.dependencies = collectDependencies(null, this.setters);
     }
 
     public String getName() {
@@ -143,6 +202,22 @@ public final class InjectionRegistration<T> implements Comparable<InjectionRegis
         return scopeType;
     }
 
+    /**
+     * Indicates if the instance of this registration must only be created when it's first requested. Otherwise,
+     * singletons are created when the {@link InjectionContext} is initialized.
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Provides the priority of this registration. When several registrations match a multi-injection, the ones with a
+     * higher priority come first.
+     */
+    public int getPriority() {
+        return priority;
+    }
+
     public void destroy(T value) {
         if (value != null && preDestroy != null) {
             preDestroy.preDestroy(value);
@@ -160,50 +235,102 @@ public final class InjectionRegistration<T> implements Comparable<InjectionRegis
     }
 
     public T get(final InjectionContext context) {
-        boolean isUnscoped = UnscopedInstanceScope.class.equals(scopeType);
-        InstanceScope scope = context.getScope(scopeType);
+        final SingletonInstance<T> existingSingleton = this.singletonInstance;
+        if (existingSingleton != null && existingSingleton.context == context) {
+            return existingSingleton.instance;
+        }
+
+        final InstanceScope scope = context.getScope(scopeType);
         try {
-            T scopeInstance = scope.getInstance(this);
-            if (registeredObject != null) {
-                if (scopeInstance == null) {
-                    scope.setInstance(this, registeredObject);
-                    invokeSetters(context, registeredObject);
-                }
-                return registeredObject;
+            if (unscoped) {
+                prepareScopedDependencies(context);
+                return createInstance(context, scope);
             }
 
-            // this resolves the simple cycle resolution strategy where some classes use constructor injection and
-            // others use setter injection to bypass the construction cycle
-            prepareScopedDependencies(context);
+            T scopeInstance = scope.getInstance(this);
+            if (scopeInstance != null && !singleton) {
+                return scopeInstance;
+            }
 
-            scopeInstance = scope.getInstance(this);
+            if (scopeInstance == null && !provided) {
+                // this resolves the simple cycle resolution strategy where some classes use constructor injection and
+                // others use setter injection to bypass the construction cycle
+                prepareScopedDependencies(context);
+            }
 
-            if (!isUnscoped && scopeInstance != null) {
-                return scopeInstance;
+            // if the lock can't be acquired because the thread creating the instance is waiting for this one, the
+            // partially created instance is returned as it happens with cycles in a single thread. When there is no
+            // instance yet, the other thread is the one that has to give up, so the lock is requested again.
+            int deadlockRetries = 0;
+            while (!scope.lockCreation(this)) {
+                scopeInstance = scope.getInstance(this);
+                if (scopeInstance != null) {
+                    return scopeInstance;
+                }
+                if (++deadlockRetries == MAX_DEADLOCK_RETRIES) {
+                    throw new ObjectCreationException("Deadlock detected creating instance of type: " + registeredClass);
+                }
             }
 
-            T object = constructor.newObject(context);
-            scope.setInstance(this, object);
-            invokeSetters(context, object);
+            try {
+                // the instance could have been created (or, for cycles, be being created by this same thread) while
+                // waiting for the lock
+                scopeInstance = scope.getInstance(this);
+                if (scopeInstance != null) {
+                    return scopeInstance;
+                }
 
-            if (postConstructor != null) {
-                postConstructor.postConstruct(object);
+                if (provided) {
+                    scope.setInstance(this, registeredObject);
+                    invokeSetters(context, registeredObject);
+                    this.singletonInstance = new SingletonInstance<>(context, registeredObject);
+                    return registeredObject;
+                }
+                return createInstance(context, scope);
+            } finally {
+                scope.unlockCreation(this);
             }
-            return object;
         } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
             throw new ObjectCreationException("Exception creating instance of type: " + registeredClass, ex);
         }
     }
 
+    private T createInstance(InjectionContext context, InstanceScope scope)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        final T object = constructor.newObject(context);
+        scope.setInstance(this, object);
+        if (instanceFunction != null) {
+            instanceFunction.initialize(context, object);
+        }
+        invokeSetters(context, object);
+
+        if (postConstructor != null) {
+            postConstructor.postConstruct(object);
+        }
+
+        if (singleton) {
+            this.singletonInstance = new SingletonInstance<>(context, object);
+        }
+        return object;
+    }
+
     public List<InjectableReference<?>> dependencies() {
+        return dependencies;
+    }
+
+    private static List<InjectableReference<?>> collectDependencies(ConstructionFunction<?> constructor,
+            List<? extends InjectionFunction<?>> setters) {
         List<InjectableReference<?>> dependencyRefs = new ArrayList<>();
         if (constructor != null) {
             dependencyRefs.addAll(constructor.dependencies());
         }
+        if (constructor instanceof InstanceFunction) {
+            dependencyRefs.addAll(((InstanceFunction<?>) constructor).initializationDependencies());
+        }
         for (InjectionFunction<?> setter : setters) {
             dependencyRefs.addAll(setter.dependencies());
         }
-        return dependencyRefs;
+        return ImmutableList.copyOf(dependencyRefs);
     }
 
     private void prepareScopedDependencies(InjectionContext context) {
@@ -211,15 +338,22 @@ public final class InjectionRegistration<T> implements Comparable<InjectionRegis
             throw new IllegalStateException("Trying to get construction parameters when no constructor is available: " + this.toString());
         }
 
-        for (InjectableReference<?> param : constructor.dependencies()) {
-            for (InjectionRegistration<?> registration : param.getRegistrations(context)) {
+        // indexed loops: this runs every time an unscoped object is created
+        final List<InjectableReference<?>> params = constructor.dependencies();
+        for (int i = 0; i < params.size(); i++) {
+            final InjectableReference<?> param = params.get(i);
+            if (param.isLazy()) {
+                continue;
+            }
+
+            final List<? extends InjectionRegistration<?>> registrations = param.getRegistrations(context);
+            for (int j = 0; j < registrations.size(); j++) {
+                final InjectionRegistration<?> registration = registrations.get(j);
                 if (param.isNullable() && registration == null) {
                     continue;
                 }
 
-                boolean isUnscoped = UnscopedInstanceScope.class.equals(registration.getScopeType());
-
-                if (!isUnscoped) {
+                if (!registration.unscoped) {
                     registration.get(context);
                 }
             }
@@ -227,8 +361,8 @@ public final class InjectionRegistration<T> implements Comparable<InjectionRegis
     }
 
     private void invokeSetters(InjectionContext context, T instance) {
-        for (InjectionFunction<T> ref : setters) {
-            ref.apply(context, instance);
+        for (int i = 0; i < setters.size(); i++) {
+            setters.get(i).apply(context, instance);
         }
     }
 
@@ -278,4 +412,15 @@ public final class InjectionRegistration<T> implements Comparable<InjectionRegis
         return "[name=" + name + ", qualifierName=" + qualifierName + ", registeredClass=" + registeredClass + "]";
     }
 
+    private static final class SingletonInstance<T> {
+        private final InjectionContext context;
+
+        private final T instance;
+
+        private SingletonInstance(InjectionContext context, T instance) {
+            this.context = context;
+            this.instance = instance;
+        }
+    }
+
 }
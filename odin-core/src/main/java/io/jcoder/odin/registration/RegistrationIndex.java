@@ -0,0 +1,174 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.registration;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.base.Preconditions;
+
+/**
+ * An index of {@link InjectionRegistration} objects keyed by every type their registered class can be assigned to.
+ *
+ * <p>
+ * Each registration is indexed under its registered class, all its superclasses and all the interfaces it implements
+ * (directly or indirectly), so looking up the candidates for a requested type doesn't require scanning every
+ * registration of an {@link InjectionContext}.
+ *
+ * <p>
+ * The registrations for a given type are kept sorted by descending priority (see
+ * {@link InjectionRegistration#getPriority()}), and registrations with the same priority keep the order used by the
+ * registry of the context (see {@link InjectionRegistration#compareTo(InjectionRegistration)}). Multi-injections get
+ * their objects in this order without having to sort them.
+ *
+ * <p>
+ * A {@link RegistrationIndex} can be frozen (see {@link #freeze()}) into an immutable copy backed by plain arrays, which
+ * avoids the overhead of concurrent collections on lookups once no more registrations are expected.
+ *
+ * @author Camilo Gonzalez
+ */
+public final class RegistrationIndex {
+
+    private static final Comparator<InjectionRegistration<?>> PRIORITY_ORDER = RegistrationIndex::comparePriority;
+
+    private final Map<Class<?>, Collection<InjectionRegistration<?>>> registrationsPerType;
+
+    private final boolean frozen;
+
+    public RegistrationIndex() {
+        this.registrationsPerType = new ConcurrentHashMap<>();
+        this.frozen = false;
+    }
+
+    private RegistrationIndex(Map<Class<?>, Collection<InjectionRegistration<?>>> registrationsPerType) {
+        this.registrationsPerType = registrationsPerType;
+        this.frozen = true;
+    }
+
+    /**
+     * Adds the given registration to this index under every type it can be assigned to.
+     *
+     * @param registration
+     *            the registration to index
+     * @throws IllegalStateException
+     *             if this index is frozen
+     */
+    public void add(InjectionRegistration<?> registration) {
+        Preconditions.verifyState(!frozen, "A frozen RegistrationIndex can't be modified");
+
+        for (Class<?> type : typeHierarchyOf(registration.getRegisteredClass())) {
+            registrationsPerType.computeIfAbsent(type, t -> new ConcurrentSkipListSet<>(PRIORITY_ORDER)).add(registration);
+        }
+    }
+
+    /**
+     * Provides the registrations whose registered class can be assigned to the given type.
+     *
+     * @param type
+     *            the requested type
+     * @return the matching registrations, or an empty collection if there are none.
+     */
+    public Collection<InjectionRegistration<?>> registrationsOf(Class<?> type) {
+        Collection<InjectionRegistration<?>> registrations = registrationsPerType.get(type);
+        if (registrations == null) {
+            return Collections.emptyList();
+        }
+        return frozen ? registrations : Collections.unmodifiableCollection(registrations);
+    }
+
+    /**
+     * Indicates if there is at least one registration whose registered class can be assigned to the given type.
+     */
+    public boolean contains(Class<?> type) {
+        Collection<InjectionRegistration<?>> registrations = registrationsPerType.get(type);
+        return registrations != null && !registrations.isEmpty();
+    }
+
+    /**
+     * Indicates if this index is frozen and can't be modified anymore.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Creates an immutable copy of this index where the registrations for each type are kept in arrays.
+     *
+     * @return a frozen copy of this index, or this same index if it's already frozen.
+     */
+    public RegistrationIndex freeze() {
+        if (frozen) {
+            return this;
+        }
+
+        Map<Class<?>, Collection<InjectionRegistration<?>>> frozenRegistrations = new HashMap<>();
+        for (Entry<Class<?>, Collection<InjectionRegistration<?>>> entry : registrationsPerType.entrySet()) {
+            InjectionRegistration<?>[] registrations = entry.getValue().toArray(new InjectionRegistration<?>[0]);
+            frozenRegistrations.put(entry.getKey(), Collections.unmodifiableList(Arrays.asList(registrations)));
+        }
+        return new RegistrationIndex(frozenRegistrations);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int comparePriority(InjectionRegistration<?> first, InjectionRegistration<?> second) {
+        if (first.getPriority() != second.getPriority()) {
+            return Integer.compare(second.getPriority(), first.getPriority());
+        }
+        return ((InjectionRegistration) first).compareTo(second);
+    }
+
+    /**
+     * Provides all the types a value of the given class can be assigned to: the class itself, its superclasses and
+     * all its interfaces. For array classes, this includes the arrays of every type the component type can be
+     * assigned to.
+     */
+    static Set<Class<?>> typeHierarchyOf(Class<?> type) {
+        Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        collectTypeHierarchy(type, hierarchy);
+        if (type.isArray() && !type.getComponentType().isPrimitive()) {
+            for (Class<?> componentType : typeHierarchyOf(type.getComponentType())) {
+                hierarchy.add(Array.newInstance(componentType, 0).getClass());
+            }
+        }
+        if (!type.isPrimitive()) {
+            hierarchy.add(Object.class);
+        }
+        return hierarchy;
+    }
+
+    private static void collectTypeHierarchy(Class<?> type, Set<Class<?>> hierarchy) {
+        if (type == null || !hierarchy.add(type)) {
+            return;
+        }
+
+        collectTypeHierarchy(type.getSuperclass(), hierarchy);
+        for (Class<?> interfaceType : type.getInterfaces()) {
+            collectTypeHierarchy(interfaceType, hierarchy);
+        }
+    }
+
+}
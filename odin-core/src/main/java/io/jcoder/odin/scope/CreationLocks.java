@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.scope;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.jcoder.odin.ObjectCreationException;
+import io.jcoder.odin.registration.InjectionRegistration;
+
+/**
+ * Per-registration locks used by an {@link InstanceScope} to make sure each instance is created only once when
+ * several threads request it at the same time.
+ *
+ * <p>
+ * The locks are reentrant so the creation of an instance can go back to the same registration (which is how cycles
+ * through setter injection get resolved). Since two threads can enter such a cycle from different registrations, a
+ * thread only waits for a lock as long as the thread holding it isn't (directly or indirectly) waiting for the first
+ * one: when that happens {@link #lock(InjectionRegistration)} gives up and reports it, so the caller can fall back to
+ * the instance that is already being created.
+ *
+ * @author Camilo Gonzalez
+ */
+final class CreationLocks {
+
+    private static final long DEADLOCK_CHECK_INTERVAL_MILLIS = 50;
+
+    /**
+     * The lock each thread is currently waiting for. This is shared across all scopes so that deadlocks involving
+     * instances of different scopes are also detected.
+     */
+    private static final ConcurrentMap<Thread, CreationLock> waitingThreads = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<InjectionRegistration<?>, CreationLock> locks = new ConcurrentHashMap<>();
+
+    private final LongAdder contentionCount = new LongAdder();
+
+    boolean lock(InjectionRegistration<?> registration) {
+        final CreationLock lock = locks.computeIfAbsent(registration, reg -> new CreationLock());
+        if (lock.tryLock()) {
+            return true;
+        }
+
+        contentionCount.increment();
+        final Thread currentThread = Thread.currentThread();
+        waitingThreads.put(currentThread, lock);
+        try {
+            while (!lock.tryLock(DEADLOCK_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (wouldDeadlock(currentThread, lock)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ObjectCreationException(
+                    "Interrupted while waiting for the creation of an instance of type: " + registration.getRegisteredClass(), ex);
+        } finally {
+            waitingThreads.remove(currentThread);
+        }
+    }
+
+    void unlock(InjectionRegistration<?> registration) {
+        locks.get(registration).unlock();
+    }
+
+    long contentionCount() {
+        return contentionCount.sum();
+    }
+
+    private static boolean wouldDeadlock(Thread currentThread, CreationLock lock) {
+        Thread owner = lock.owner();
+        // bounded walk: the chain of waiting threads can't be longer than the number of waiting threads
+        for (int hops = waitingThreads.size(); owner != null && hops >= 0; hops--) {
+            if (owner == currentThread) {
+                return true;
+            }
+            final CreationLock ownerWaitsFor = waitingThreads.get(owner);
+            owner = ownerWaitsFor == null ? null : ownerWaitsFor.owner();
+        }
+        return false;
+    }
+
+    private static final class CreationLock extends ReentrantLock {
+
+        private static final long serialVersionUID = 1926453802516375428L;
+
+        Thread owner() {
+            return getOwner();
+        }
+    }
+
+}
@@ -28,4 +28,46 @@ public interface InstanceScope {
     <T> boolean setInstance(InjectionRegistration<T> registration, T object);
 
     void destroy();
+
+    /**
+     * Acquires the exclusive right to create the instance of the given registration in this scope, waiting while
+     * another thread is creating it.
+     *
+     * <p>
+     * Every successful call must be followed by a call to {@link #unlockCreation(InjectionRegistration)}. Scopes that
+     * don't share instances across threads don't need to override this method.
+     *
+     * @param registration
+     *            the registration whose instance is about to be created
+     * @return true if the creation lock was acquired, false if waiting for it would deadlock with the thread creating
+     *         the instance.
+     */
+    default boolean lockCreation(InjectionRegistration<?> registration) {
+        return true;
+    }
+
+    /**
+     * Releases the creation lock acquired with {@link #lockCreation(InjectionRegistration)}.
+     *
+     * @param registration
+     *            the registration whose instance has been created
+     */
+    default void unlockCreation(InjectionRegistration<?> registration) {
+    }
+
+    /**
+     * Wraps a task so that, in whichever thread it runs, it gets the instances this scope provides to the current
+     * thread.
+     *
+     * <p>
+     * The state of the current thread must be captured when this method is invoked and restored around the execution
+     * of the task. Scopes that don't keep instances per thread don't need to override this method.
+     *
+     * @param task
+     *            the task to run in another thread
+     * @return the task to run instead of the given one
+     */
+    default Runnable propagate(Runnable task) {
+        return task;
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.scope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import io.jcoder.odin.base.Preconditions;
+
+/**
+ * An {@link ExecutorService} that wraps the tasks submitted to it with the state of the {@link InstanceScope} objects
+ * of the submitting thread before handing them to another {@link ExecutorService}.
+ *
+ * <p>
+ * Every task submitted through this service, including the ones given to <code>submit</code> and
+ * <code>invokeAll</code>/<code>invokeAny</code>, goes through {@link #execute(Runnable)} in the submitting thread, which
+ * is where the scopes are captured. The tasks returned by {@link #shutdownNow()} are the ones given to
+ * {@link #execute(Runnable)}, not the wrappers.
+ *
+ * @author Camilo Gonzalez
+ */
+public class ScopePropagatingExecutorService extends AbstractExecutorService {
+
+    private final ExecutorService executorService;
+
+    private final UnaryOperator<Runnable> propagation;
+
+    /**
+     * @param executorService
+     *            the {@link ExecutorService} that runs the tasks
+     * @param propagation
+     *            the function that wraps each task with the state of the scopes of the current thread (see
+     *            {@link InstanceScope#propagate(Runnable)})
+     */
+    public ScopePropagatingExecutorService(ExecutorService executorService, UnaryOperator<Runnable> propagation) {
+        Preconditions.verifyNotNull(executorService, "The ExecutorService is null");
+        Preconditions.verifyNotNull(propagation, "The propagation function is null");
+        this.executorService = executorService;
+        this.propagation = propagation;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executorService.execute(new PropagatingTask(command, propagation.apply(command)));
+    }
+
+    @Override
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> pending = executorService.shutdownNow();
+        final List<Runnable> tasks = new ArrayList<>(pending.size());
+        for (Runnable task : pending) {
+            tasks.add(task instanceof PropagatingTask ? ((PropagatingTask) task).task : task);
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executorService.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executorService.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executorService.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Keeps the submitted task next to its propagating wrapper, so it can be given back if it never runs.
+     */
+    private static final class PropagatingTask implements Runnable {
+        private final Runnable task;
+
+        private final Runnable propagatingTask;
+
+        private PropagatingTask(Runnable task, Runnable propagatingTask) {
+            this.task = task;
+            this.propagatingTask = propagatingTask;
+        }
+
+        @Override
+        public void run() {
+            propagatingTask.run();
+        }
+    }
+
+}
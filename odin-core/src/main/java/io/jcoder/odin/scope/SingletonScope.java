@@ -15,7 +15,6 @@
  */
 package io.jcoder.odin.scope;
 
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -25,6 +24,11 @@ import org.slf4j.LoggerFactory;
 import io.jcoder.odin.registration.InjectionRegistration;
 
 /**
+ * An {@link InstanceScope} that keeps a single instance per {@link InjectionRegistration}.
+ *
+ * <p>
+ * Creation of the instances is guarded by per-registration locks, so concurrent requests for an instance that
+ * hasn't been created yet wait for the first one to create it instead of creating their own copy.
  *
  * @author Camilo Gonzalez
  */
@@ -34,6 +38,8 @@ public class SingletonScope implements InstanceScope {
 
     private final ConcurrentMap<InjectionRegistration<?>, Object> objectPerRegistration = new ConcurrentHashMap<>();
 
+    private final CreationLocks creationLocks = new CreationLocks();
+
     @SuppressWarnings("unchecked")
     @Override
     public <T> T getInstance(InjectionRegistration<T> registration) {
@@ -42,25 +48,52 @@ public class SingletonScope implements InstanceScope {
 
     @Override
     public <T> boolean setInstance(InjectionRegistration<T> registration, T object) {
-        if (objectPerRegistration.containsKey(registration)) {
-            return false;
-        }
-        objectPerRegistration.put(registration, object);
-        return true;
+        return objectPerRegistration.putIfAbsent(registration, object) == null;
+    }
+
+    @Override
+    public boolean lockCreation(InjectionRegistration<?> registration) {
+        return creationLocks.lock(registration);
+    }
+
+    @Override
+    public void unlockCreation(InjectionRegistration<?> registration) {
+        creationLocks.unlock(registration);
+    }
+
+    /**
+     * Provides the number of times a thread had to wait for another thread creating an instance of this scope.
+     */
+    public long getContentionCount() {
+        return creationLocks.contentionCount();
     }
 
     @Override
     public void destroy() {
-        objectPerRegistration.entrySet().forEach(this::destroyObject);
+        // each instance is removed before it's destroyed, so instances still being destroyed in order by other threads
+        // (for example, after their destruction timed out) are not destroyed twice
+        objectPerRegistration.keySet().forEach(this::destroyInstance);
     }
 
+    /**
+     * Destroys the instance of a single registration, if it has been created, and removes it from this scope so it's
+     * not destroyed again by {@link #destroy()}.
+     *
+     * <p>
+     * This allows destroying the instances in a specific order (for example, destroying the objects before the ones
+     * they depend on) before destroying the rest of the scope.
+     */
     @SuppressWarnings("unchecked")
-    private <T> void destroyObject(Entry<InjectionRegistration<?>, Object> entry) {
+    public <T> void destroyInstance(InjectionRegistration<T> registration) {
+        final T object = (T) objectPerRegistration.remove(registration);
+        if (object == null) {
+            return;
+        }
+
         try {
-            InjectionRegistration<T> registration = (InjectionRegistration<T>) entry.getKey();
-            registration.destroy((T) entry.getValue());
+            registration.destroy(object);
         } catch (Exception ex) {
-            logger.warn("Exception destroying object of type: {}", entry.getKey().getRegisteredClass(), ex);
+            logger.warn("Exception destroying object of type: {}", registration.getRegisteredClass(), ex);
         }
     }
 
@@ -19,14 +19,13 @@ import static io.jcoder.odin.builder.ReferenceBuilder.ofType;
 import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
 
 import javax.servlet.RequestDispatcher;
 import javax.servlet.Servlet;
@@ -62,13 +61,22 @@ public abstract class InjectionContextWebServlet extends HttpServlet {
 
     private RequestScope requestScope;
 
-    private final Map<String, InterceptableServletCaller> exactCallers = new ConcurrentHashMap<>();
+    private final Map<String, InterceptableServletCaller> extensionBasedCallers = new HashMap<>();
 
-    private final Map<String, InterceptableServletCaller> extensionBasedCallers = new ConcurrentHashMap<>();
+    private final Map<String, InterceptableServletCaller> prefixBasedCallers = new HashMap<>();
 
-    private final Map<String, InterceptableServletCaller> prefixBasedCallers = new ConcurrentHashMap<>();
+    /**
+     * The router compiled from the registered callers, which is compiled again whenever a servlet is registered.
+     */
+    private volatile PathRouter<InterceptableServletCaller> router = PathRouter.compile(prefixBasedCallers, extensionBasedCallers);
 
-    private final List<HttpServletInterceptorRegistration<?>> interceptors = new CopyOnWriteArrayList<>();
+    private final List<HttpServletInterceptorRegistration<?>> interceptors = new ArrayList<>();
+
+    /**
+     * The trie that finds the interceptor chain of each request path, which is built again whenever an interceptor is
+     * registered.
+     */
+    private volatile InterceptorTrie interceptorTrie = new InterceptorTrie(Collections.emptyList());
 
     private final Set<Servlet> initializedServlets = Collections.newSetFromMap(new IdentityHashMap<>());
 
@@ -114,18 +122,18 @@ public abstract class InjectionContextWebServlet extends HttpServlet {
         }
         String pathInfo = request.getPathInfo() == null ? "" : request.getPathInfo();
         String requestedPath = request.getServletPath() + pathInfo;
-        List<HttpServletInterceptorRegistration<?>> interceptors = matchingInterceptors(requestedPath);
         PathServletCaller caller = matchingCallerFor(requestedPath);
         if (caller != null) {
             ServletCallerHttpServletRequest wrappedRequest = new ServletCallerHttpServletRequest(request, caller.servletPath,
-                    caller.pathInfo);
+                    caller.pathInfo, requestScope);
             try {
                 if (setRequestScope) {
                     requestScope.setRequest(wrappedRequest);
                 }
-                caller.callServlet(interceptors, wrappedRequest, resp);
+                caller.callServlet(interceptorTrie.chainFor(context, requestedPath), wrappedRequest, resp);
             } finally {
                 if (setRequestScope) {
+                    // requests that continue asynchronously are ended when their AsyncContext completes
                     requestScope.unsetRequest(wrappedRequest);
                 }
             }
@@ -138,12 +146,6 @@ public abstract class InjectionContextWebServlet extends HttpServlet {
         }
     }
 
-    private List<HttpServletInterceptorRegistration<?>> matchingInterceptors(String requestedPath) {
-        return interceptors.stream()
-                .filter(interceptor -> interceptor.matches(requestedPath))
-                .collect(Collectors.toList());
-    }
-
     protected final <T extends Servlet> void registerServlet(String path, InjectableReference<T> servletReference) throws ServletException {
         initializeServlet(servletReference.get(context));
 
@@ -171,7 +173,10 @@ public abstract class InjectionContextWebServlet extends HttpServlet {
 
     protected final <T extends HttpServletInterceptor> void registerInterceptor(String path, InjectableReference<T> interceptorReference)
             throws ServletException {
-        interceptors.add(new HttpServletInterceptorRegistration<T>(path, interceptorReference));
+        synchronized (interceptors) {
+            interceptors.add(new HttpServletInterceptorRegistration<T>(path, interceptorReference));
+            this.interceptorTrie = new InterceptorTrie(new ArrayList<>(interceptors));
+        }
     }
 
     protected final <T extends HttpServletInterceptor> void registerInterceptor(String path, ReferenceBuilder<T> interceptorReference)
@@ -195,7 +200,7 @@ public abstract class InjectionContextWebServlet extends HttpServlet {
         }
     }
 
-    private void registerServletCaller(String path, ServletCaller servletCaller) {
+    private synchronized void registerServletCaller(String path, ServletCaller servletCaller) {
         InterceptableServletCaller interceptableCaller = new InterceptableServletCaller(servletCaller);
         if (path.startsWith("*")) {
             extensionBasedCallers.put(path.substring(1), interceptableCaller);
@@ -204,8 +209,8 @@ public abstract class InjectionContextWebServlet extends HttpServlet {
                 path = path.substring(0, path.length() - 2);
             }
             prefixBasedCallers.put(path, interceptableCaller);
-            exactCallers.put(path, interceptableCaller);
         }
+        this.router = PathRouter.compile(prefixBasedCallers, extensionBasedCallers);
     }
 
     protected abstract InjectionContext buildContext();
@@ -213,32 +218,17 @@ public abstract class InjectionContextWebServlet extends HttpServlet {
     protected abstract void registerServlets(InjectionContext context) throws ServletException;
 
     private PathServletCaller matchingCallerFor(String requestedPath) {
-        InterceptableServletCaller servletCaller = exactCallers.get(requestedPath);
-
-        if (servletCaller != null) {
-            return new PathServletCaller(servletCaller, requestedPath, "");
+        PathRouter.Route<InterceptableServletCaller> route = router.route(requestedPath);
+        if (route == null) {
+            return null;
         }
 
-        String pathPart = requestedPath;
-        do {
-            servletCaller = prefixBasedCallers.get(pathPart);
-            if (servletCaller != null) {
-                return new PathServletCaller(servletCaller, pathPart, requestedPath.substring(pathPart.length()));
-            }
-            if (pathPart.isEmpty()) {
-                break;
-            }
-            final int lastSlashIdx = pathPart.lastIndexOf('/');
-            pathPart = pathPart.substring(0, Math.max(0, lastSlashIdx));
-        } while (servletCaller == null);
-
-        return extensionBasedCallers.entrySet().stream()
-                .filter(callerEntry -> {
-                    return requestedPath.endsWith(callerEntry.getKey());
-                })
-                .findFirst()
-                .map(entry -> new PathServletCaller(entry.getValue(), requestedPath, ""))
-                .orElse(null);
+        int servletPathLength = route.getMatchedLength();
+        if (servletPathLength == requestedPath.length()) {
+            return new PathServletCaller(route.getValue(), requestedPath, "");
+        }
+        return new PathServletCaller(route.getValue(), requestedPath.substring(0, servletPathLength),
+                requestedPath.substring(servletPathLength));
     }
 
     @Override
@@ -267,15 +257,10 @@ public abstract class InjectionContextWebServlet extends HttpServlet {
             this.pathInfo = pathInfo;
         }
 
-        public void callServlet(List<HttpServletInterceptorRegistration<?>> interceptors, ServletCallerHttpServletRequest wrappedRequest,
+        public void callServlet(InterceptorChain interceptorChain, ServletCallerHttpServletRequest wrappedRequest,
                 HttpServletResponse resp) throws IOException, ServletException {
 
-            // get the interceptor objects from the InjectionContext
-            List<HttpServletInterceptor> resolvedInterceptors = interceptors.stream()
-                    .map(intReg -> intReg.interceptor(context))
-                    .collect(Collectors.toList());
-
-            servletCaller.callServlet(resolvedInterceptors, wrappedRequest, resp);
+            servletCaller.callServlet(interceptorChain.interceptors(context), wrappedRequest, resp);
         }
 
     }
@@ -26,6 +26,8 @@ import io.jcoder.odin.web.aop.HttpServletInterceptor;
 
 public class InterceptableServletCaller {
 
+    private static final HttpServletInterceptor[] NO_INTERCEPTORS = new HttpServletInterceptor[0];
+
     private final ServletCaller servletCaller;
 
     public InterceptableServletCaller(ServletCaller servletCaller) {
@@ -35,36 +37,73 @@ public class InterceptableServletCaller {
     public void callServlet(List<HttpServletInterceptor> interceptors, HttpServletRequest request, HttpServletResponse response)
             throws IOException, ServletException {
 
-        invokeChain(0, interceptors, request, response);
+        callServlet(interceptors.toArray(NO_INTERCEPTORS), request, response);
     }
 
-    private boolean invokeChain(int index, List<HttpServletInterceptor> interceptors, HttpServletRequest request,
-            HttpServletResponse response) throws ServletException, IOException {
+    /**
+     * Calls the servlet wrapped by the given interceptors.
+     *
+     * <p>
+     * The interceptors are invoked as nested calls, but without recursion: the <code>before</code> methods run in
+     * order until one of them returns false, and then the interceptors that were entered are unwound in reverse
+     * order. An interceptor gets <code>onSuccess</code> if everything nested in it completed, or <code>onError</code>
+     * with the exception thrown by it, in which case returning true propagates the exception to the enclosing
+     * interceptor. Returning false from either method stops the unwinding.
+     */
+    public void callServlet(HttpServletInterceptor[] interceptors, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
 
-        if (index == interceptors.size()) {
+        int entered = 0;
+        Exception failure = null;
+        try {
+            for (; entered < interceptors.length; entered++) {
+                if (!interceptors[entered].before(request, response)) {
+                    return;
+                }
+            }
             servletCaller.callServlet(request, response);
-            return true;
-        }
-
-        HttpServletInterceptor interceptor = interceptors.get(index);
-        boolean proceed = interceptor.before(request, response);
-        if (!proceed) {
-            return false;
+        } catch (Exception ex) {
+            // an exception from a before method is handled by the interceptors that enclose it
+            failure = ex;
         }
 
-        try {
-            boolean chainProceed = invokeChain(index + 1, interceptors, request, response);
-            if (!chainProceed) {
-                return false;
+        for (int i = entered - 1; i >= 0; i--) {
+            final HttpServletInterceptor interceptor = interceptors[i];
+            if (failure == null) {
+                try {
+                    if (!interceptor.onSuccess(request, response)) {
+                        return;
+                    }
+                    continue;
+                } catch (Exception ex) {
+                    failure = ex;
+                }
             }
-            return interceptor.onSuccess(request, response);
-        } catch (Exception ex) {
-            if (interceptor.onError(request, response, ex)) {
-                throw ex;
-            } else {
-                return false;
+            try {
+                if (!interceptor.onError(request, response, failure)) {
+                    return;
+                }
+            } catch (Exception ex) {
+                failure = ex;
             }
         }
+
+        if (failure != null) {
+            rethrow(failure);
+        }
+    }
+
+    private static void rethrow(Exception ex) throws IOException, ServletException {
+        if (ex instanceof IOException) {
+            throw (IOException) ex;
+        }
+        if (ex instanceof ServletException) {
+            throw (ServletException) ex;
+        }
+        if (ex instanceof RuntimeException) {
+            throw (RuntimeException) ex;
+        }
+        throw new ServletException(ex);
     }
 
-}
\ No newline at end of file
+}
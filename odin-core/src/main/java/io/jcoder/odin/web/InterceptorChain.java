@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.web;
+
+import java.util.List;
+
+import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.web.aop.HttpServletInterceptor;
+import io.jcoder.odin.web.aop.HttpServletInterceptorRegistration;
+
+/**
+ * The interceptors that apply to a request path, in the order they were registered.
+ *
+ * <p>
+ * Singleton interceptors are retrieved from the {@link InjectionContext} when the chain is compiled, so only the
+ * interceptors of other scopes need to be retrieved for each request.
+ *
+ * @author Camilo Gonzalez
+ */
+final class InterceptorChain {
+
+    static final InterceptorChain EMPTY = new InterceptorChain(new HttpServletInterceptorRegistration<?>[0],
+            new HttpServletInterceptor[0], true);
+
+    private final HttpServletInterceptorRegistration<?>[] registrations;
+
+    /**
+     * The pre-resolved interceptors, with null in the positions of the interceptors that aren't singletons.
+     */
+    private final HttpServletInterceptor[] resolved;
+
+    private final boolean fullyResolved;
+
+    private InterceptorChain(HttpServletInterceptorRegistration<?>[] registrations, HttpServletInterceptor[] resolved,
+            boolean fullyResolved) {
+        this.registrations = registrations;
+        this.resolved = resolved;
+        this.fullyResolved = fullyResolved;
+    }
+
+    static InterceptorChain compile(InjectionContext context, List<HttpServletInterceptorRegistration<?>> registrations) {
+        if (registrations.isEmpty()) {
+            return EMPTY;
+        }
+
+        final HttpServletInterceptor[] resolved = new HttpServletInterceptor[registrations.size()];
+        boolean fullyResolved = true;
+        for (int i = 0; i < resolved.length; i++) {
+            final HttpServletInterceptorRegistration<?> registration = registrations.get(i);
+            if (registration.isSingleton(context)) {
+                resolved[i] = registration.interceptor(context);
+            } else {
+                fullyResolved = false;
+            }
+        }
+        return new InterceptorChain(registrations.toArray(new HttpServletInterceptorRegistration<?>[0]), resolved,
+                fullyResolved);
+    }
+
+    /**
+     * Gets the interceptors to invoke for a request, which must not be modified.
+     */
+    HttpServletInterceptor[] interceptors(InjectionContext context) {
+        if (fullyResolved) {
+            return resolved;
+        }
+        final HttpServletInterceptor[] interceptors = resolved.clone();
+        for (int i = 0; i < interceptors.length; i++) {
+            if (interceptors[i] == null) {
+                interceptors[i] = registrations[i].interceptor(context);
+            }
+        }
+        return interceptors;
+    }
+
+}
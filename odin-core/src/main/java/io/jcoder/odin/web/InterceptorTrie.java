@@ -0,0 +1,144 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.web;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.jcoder.odin.InjectionContext;
+import io.jcoder.odin.web.aop.HttpServletInterceptorRegistration;
+
+/**
+ * Finds the {@link InterceptorChain} of a request path walking a trie of the paths of the registered interceptors.
+ *
+ * <p>
+ * The interceptors that apply to a request path only depend on which interceptor paths are prefixes of it, and on
+ * whether it's equal to one of them. Every node of the trie represents one of those prefixes, so the chain of a path is
+ * the one of the deepest node its walk reaches, which is compiled the first time it's needed. There are at most two
+ * chains per node no matter how many distinct paths are requested, so no eviction is required.
+ *
+ * <p>
+ * {@link InterceptorTrie} objects can't be modified: registering a new interceptor requires building a new trie,
+ * discarding every chain compiled by the previous one.
+ *
+ * @author Camilo Gonzalez
+ */
+final class InterceptorTrie {
+
+    private final List<HttpServletInterceptorRegistration<?>> registrations;
+
+    private final Node root = new Node("");
+
+    InterceptorTrie(List<HttpServletInterceptorRegistration<?>> registrations) {
+        this.registrations = registrations;
+        for (final HttpServletInterceptorRegistration<?> registration : registrations) {
+            Node node = root;
+            final String path = registration.getPath();
+            for (int i = 0; i < path.length(); i++) {
+                node = node.childFor(path, i);
+            }
+        }
+    }
+
+    /**
+     * Gets the chain of the interceptors that apply to the given path, in the order they were registered.
+     */
+    InterceptorChain chainFor(InjectionContext context, String requestedPath) {
+        Node node = root;
+        for (int i = 0; i < requestedPath.length(); i++) {
+            final Node child = node.child(requestedPath.charAt(i));
+            if (child == null) {
+                return node.prefixChain(context, registrations);
+            }
+            node = child;
+        }
+        return node.exactChain(context, registrations);
+    }
+
+    private static final class Node {
+        private final String key;
+
+        private char[] chars = new char[0];
+
+        private Node[] children = new Node[0];
+
+        /**
+         * The chain of the paths that start with the key of this node without being equal to it.
+         */
+        private volatile InterceptorChain prefixChain;
+
+        /**
+         * The chain of the path that is equal to the key of this node.
+         */
+        private volatile InterceptorChain exactChain;
+
+        private Node(String key) {
+            this.key = key;
+        }
+
+        private Node child(char c) {
+            final int index = Arrays.binarySearch(chars, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node childFor(String path, int position) {
+            final char c = path.charAt(position);
+            int index = Arrays.binarySearch(chars, c);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            index = -index - 1;
+            final Node child = new Node(path.substring(0, position + 1));
+            final int size = chars.length;
+            final char[] newChars = Arrays.copyOf(chars, size + 1);
+            final Node[] newChildren = Arrays.copyOf(children, size + 1);
+            System.arraycopy(chars, index, newChars, index + 1, size - index);
+            System.arraycopy(children, index, newChildren, index + 1, size - index);
+            newChars[index] = c;
+            newChildren[index] = child;
+            this.chars = newChars;
+            this.children = newChildren;
+            return child;
+        }
+
+        // compiling the same chain twice from different threads is harmless, so the chains are not locked
+
+        private InterceptorChain prefixChain(InjectionContext context, List<HttpServletInterceptorRegistration<?>> registrations) {
+            InterceptorChain chain = prefixChain;
+            if (chain == null) {
+                chain = InterceptorChain.compile(context, registrations.stream()
+                        .filter(registration -> registration.isPrefixBased() && key.startsWith(registration.getPath()))
+                        .collect(Collectors.toList()));
+                prefixChain = chain;
+            }
+            return chain;
+        }
+
+        private InterceptorChain exactChain(InjectionContext context, List<HttpServletInterceptorRegistration<?>> registrations) {
+            InterceptorChain chain = exactChain;
+            if (chain == null) {
+                chain = InterceptorChain.compile(context, registrations.stream()
+                        .filter(registration -> registration.matches(key))
+                        .collect(Collectors.toList()));
+                exactChain = chain;
+            }
+            return chain;
+        }
+    }
+
+}
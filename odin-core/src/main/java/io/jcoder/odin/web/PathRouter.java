@@ -0,0 +1,256 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.web;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import io.jcoder.odin.base.Preconditions;
+
+/**
+ * A compiled router that matches request paths against prefix and extension mappings, following the servlet mapping
+ * rules used by {@link InjectionContextWebServlet}.
+ *
+ * <p>
+ * Prefixes are kept in a radix tree, so a path is matched walking the tree over its characters once, and the longest
+ * registered prefix ending at a segment boundary (the end of the path or a <code>/</code>) wins. An empty prefix
+ * matches every path. When no prefix matches, extensions are matched walking a second radix tree built from the
+ * reversed extensions from the end of the path, and the longest matching extension wins.
+ *
+ * <p>
+ * Routing doesn't create any intermediate string. {@link PathRouter} objects are immutable: registering new mappings
+ * requires compiling a new router (see {@link #compile(Map, Map)}).
+ *
+ * @author Camilo Gonzalez
+ */
+public final class PathRouter<T> {
+
+    private final Node<T> prefixes;
+
+    private final Node<T> extensions;
+
+    private PathRouter(Node<T> prefixes, Node<T> extensions) {
+        this.prefixes = prefixes;
+        this.extensions = extensions;
+    }
+
+    /**
+     * Compiles a router for the given mappings.
+     *
+     * @param prefixMappings
+     *            the values mapped to each path prefix, without the trailing <code>/*</code>
+     * @param extensionMappings
+     *            the values mapped to each path extension, without the leading <code>*</code> (for example
+     *            <code>.jsp</code>)
+     * @return the compiled router
+     */
+    public static <T> PathRouter<T> compile(Map<String, T> prefixMappings, Map<String, T> extensionMappings) {
+        Preconditions.verifyNotNull(prefixMappings, "The prefix mappings must not be null");
+        Preconditions.verifyNotNull(extensionMappings, "The extension mappings must not be null");
+
+        final Node<T> prefixes = new Node<>("");
+        for (Entry<String, T> mapping : prefixMappings.entrySet()) {
+            prefixes.insert(mapping.getKey(), 0, mapping.getValue());
+        }
+
+        final Node<T> extensions = new Node<>("");
+        for (Entry<String, T> mapping : extensionMappings.entrySet()) {
+            extensions.insert(new StringBuilder(mapping.getKey()).reverse().toString(), 0, mapping.getValue());
+        }
+        return new PathRouter<>(prefixes, extensions);
+    }
+
+    /**
+     * Finds the mapping of the given path.
+     *
+     * @param path
+     *            the requested path
+     * @return the matching route, or null if no mapping matches the path.
+     */
+    public Route<T> route(String path) {
+        final Node<T> prefix = longestPrefix(path);
+        if (prefix != null) {
+            return new Route<>(prefix.value, prefix.depth);
+        }
+
+        final Node<T> extension = longestExtension(path);
+        if (extension != null) {
+            return new Route<>(extension.value, path.length());
+        }
+        return null;
+    }
+
+    private Node<T> longestPrefix(String path) {
+        final int length = path.length();
+        Node<T> node = prefixes;
+        Node<T> match = node.hasValue ? node : null;
+        int position = 0;
+        while (position < length) {
+            node = node.child(path.charAt(position));
+            if (node == null || !path.regionMatches(position, node.label, 0, node.label.length())) {
+                break;
+            }
+            position += node.label.length();
+            if (node.hasValue && (position == length || path.charAt(position) == '/')) {
+                match = node;
+            }
+        }
+        return match;
+    }
+
+    private Node<T> longestExtension(String path) {
+        Node<T> node = extensions;
+        Node<T> match = node.hasValue ? node : null;
+        int position = path.length() - 1;
+        while (position >= 0) {
+            node = node.child(path.charAt(position));
+            if (node == null) {
+                break;
+            }
+
+            // labels of the extension tree are reversed, so they're compared moving backwards over the path
+            final String label = node.label;
+            final int labelLength = label.length();
+            if (labelLength > position + 1) {
+                break;
+            }
+            int i = 0;
+            while (i < labelLength && label.charAt(i) == path.charAt(position - i)) {
+                i++;
+            }
+            if (i < labelLength) {
+                break;
+            }
+            position -= labelLength;
+            if (node.hasValue) {
+                match = node;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * The value mapped to a path, together with the length of the part of the path that matched the mapping (the
+     * servlet path).
+     */
+    public static final class Route<T> {
+        private final T value;
+
+        private final int matchedLength;
+
+        private Route(T value, int matchedLength) {
+            this.value = value;
+            this.matchedLength = matchedLength;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public int getMatchedLength() {
+            return matchedLength;
+        }
+    }
+
+    /**
+     * A node of a radix tree: the label is the part of the key between the parent and this node, and the children are
+     * sorted by the first character of their labels.
+     */
+    private static final class Node<T> {
+        private String label;
+
+        /**
+         * The length of the key represented by this node.
+         */
+        private int depth;
+
+        private char[] firstChars = new char[0];
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Node<T>[] children = new Node[0];
+
+        private T value;
+
+        private boolean hasValue;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node<T> child(char firstChar) {
+            final int index = Arrays.binarySearch(firstChars, firstChar);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void insert(String key, int position, T newValue) {
+            if (position == key.length()) {
+                this.value = newValue;
+                this.hasValue = true;
+                return;
+            }
+
+            final int index = Arrays.binarySearch(firstChars, key.charAt(position));
+            if (index < 0) {
+                final Node<T> leaf = new Node<>(key.substring(position));
+                leaf.depth = key.length();
+                leaf.value = newValue;
+                leaf.hasValue = true;
+                addChild(-index - 1, leaf);
+                return;
+            }
+
+            final Node<T> child = children[index];
+            int common = 0;
+            while (common < child.label.length() && position + common < key.length()
+                    && child.label.charAt(common) == key.charAt(position + common)) {
+                common++;
+            }
+
+            if (common < child.label.length()) {
+                // the key diverges in the middle of the child label: the label is split with an intermediate node
+                final Node<T> intermediate = new Node<>(child.label.substring(0, common));
+                intermediate.depth = position + common;
+                child.label = child.label.substring(common);
+                intermediate.firstChars = new char[] { child.label.charAt(0) };
+                intermediate.children = newArray(child);
+                children[index] = intermediate;
+                intermediate.insert(key, position + common, newValue);
+            } else {
+                child.insert(key, position + common, newValue);
+            }
+        }
+
+        private void addChild(int index, Node<T> child) {
+            final int size = children.length;
+            final char[] newFirstChars = new char[size + 1];
+            final Node<T>[] newChildren = Arrays.copyOf(children, size + 1);
+            System.arraycopy(firstChars, 0, newFirstChars, 0, index);
+            System.arraycopy(firstChars, index, newFirstChars, index + 1, size - index);
+            System.arraycopy(children, index, newChildren, index + 1, size - index);
+            newFirstChars[index] = child.label.charAt(0);
+            newChildren[index] = child;
+            this.firstChars = newFirstChars;
+            this.children = newChildren;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static <T> Node<T>[] newArray(Node<T> child) {
+            return new Node[] { child };
+        }
+    }
+
+}
@@ -15,62 +15,316 @@
  */
 package io.jcoder.odin.web;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletRequest;
+import javax.servlet.ServletRequestWrapper;
 
 import io.jcoder.odin.registration.InjectionRegistration;
 import io.jcoder.odin.scope.InstanceScope;
 import io.jcoder.odin.scope.SingletonScope;
 
 /**
+ * An {@link InstanceScope} that keeps a single instance per {@link InjectionRegistration} for each request handled by
+ * an {@link InjectionContextWebServlet}.
+ *
+ * <p>
+ * The instances of a request are kept in a request attribute that is only created when the first request scoped
+ * object is, so requests that don't use them don't pay for them. The objects are destroyed, invoking their pre-destroy
+ * functions, when the request ends. For asynchronous requests that happens when their {@link AsyncContext} completes,
+ * and the tasks given to {@link AsyncContext#start(Runnable)} run within the scope of their request.
+ *
+ * <p>
+ * Other work can be run within the scope of the current request by wrapping it with
+ * {@link #inCurrentRequest(Runnable)} or {@link #inCurrentRequest(Callable)} before handing it to another thread. The
+ * wrapped tasks keep the instances of their request instead of the request itself, so tasks that run after the request
+ * has ended can't create request scoped objects in it, or in another request that the container recycled the request
+ * object for: they fail with an {@link IllegalStateException} instead.
  *
  * @author Camilo Gonzalez
  */
 public class RequestScope implements InstanceScope {
 
-    private final Map<ServletRequest, SingletonScope> perRequestScope = new ConcurrentHashMap<>();
+    static final String INSTANCES_ATTRIBUTE = RequestScope.class.getName() + ".instances";
+
+    /**
+     * Marks the requests whose asynchronous processing has been started, which are only ended when it completes.
+     */
+    static final String ASYNC_ATTRIBUTE = RequestScope.class.getName() + ".async";
+
+    private static final int REQUEST = 0;
 
-    private final ThreadLocal<ServletRequest> threadRequest = new ThreadLocal<>();
+    private static final int INSTANCES = 1;
+
+    /**
+     * The request being handled by each thread and, once they've been needed, the {@link RequestInstances} of that
+     * request. The array is reused by every request handled by the same thread instead of adding and removing a thread
+     * local value for each of them. Tasks running within the scope of a request only set its instances.
+     *
+     * <p>
+     * The arrays stay in the container threads after the application is undeployed, but they're JDK types and are empty
+     * between requests, so they don't keep any class of the application loaded.
+     */
+    private final ThreadLocal<Object[]> threadRequest = ThreadLocal.withInitial(() -> new Object[2]);
 
     RequestScope() {
     }
 
     @Override
     public <T> T getInstance(InjectionRegistration<T> registration) {
-        final ServletRequest request = threadRequest.get();
-        if (request == null) {
-            return null;
-        }
-        final SingletonScope scope = perRequestScope.get(request);
+        final SingletonScope scope = existingScope();
         return scope == null ? null : scope.getInstance(registration);
     }
 
     @Override
     public <T> boolean setInstance(InjectionRegistration<T> registration, T object) {
-        final ServletRequest request = threadRequest.get();
-        if (request == null) {
-            return false;
+        final RequestInstances instances = currentInstances(true);
+        return instances != null && instances.scope().setInstance(registration, object);
+    }
+
+    @Override
+    public boolean lockCreation(InjectionRegistration<?> registration) {
+        final RequestInstances instances = currentInstances(true);
+        return instances == null || instances.scope().lockCreation(registration);
+    }
+
+    @Override
+    public void unlockCreation(InjectionRegistration<?> registration) {
+        final SingletonScope scope = existingScope();
+        if (scope != null) {
+            scope.unlockCreation(registration);
         }
-        final SingletonScope scope = perRequestScope.computeIfAbsent(request, req -> new SingletonScope());
-        return scope.setInstance(registration, object);
     }
 
-    void setRequest(ServletRequest request) {
-        if (!perRequestScope.containsKey(request)) {
-            perRequestScope.put(request, new SingletonScope());
+    private SingletonScope existingScope() {
+        final RequestInstances instances = currentInstances(false);
+        return instances == null ? null : instances.scope;
+    }
+
+    /**
+     * Provides the instances of the request handled by the current thread.
+     *
+     * @param create
+     *            true to create them if the request doesn't have them yet
+     * @return the instances, or null if the current thread isn't handling a request or they haven't been created
+     */
+    private RequestInstances currentInstances(boolean create) {
+        final Object[] slot = threadRequest.get();
+        RequestInstances instances = (RequestInstances) slot[INSTANCES];
+        if (instances == null && slot[REQUEST] != null) {
+            instances = instancesOf((ServletRequest) slot[REQUEST], create);
+            slot[INSTANCES] = instances;
+        }
+        return instances;
+    }
+
+    private static RequestInstances instancesOf(ServletRequest request, boolean create) {
+        RequestInstances instances = (RequestInstances) request.getAttribute(INSTANCES_ATTRIBUTE);
+        if (instances != null || !create) {
+            return instances;
+        }
+        // asynchronous requests can be handled by more than one thread at the same time, so the instances are created
+        // while holding the lock of the request object provided by the container, which is the same for every thread
+        synchronized (containerRequest(request)) {
+            instances = (RequestInstances) request.getAttribute(INSTANCES_ATTRIBUTE);
+            if (instances == null) {
+                instances = new RequestInstances();
+                request.setAttribute(INSTANCES_ATTRIBUTE, instances);
+            }
+            return instances;
+        }
+    }
+
+    private static ServletRequest containerRequest(ServletRequest request) {
+        ServletRequest containerRequest = request;
+        while (containerRequest instanceof ServletRequestWrapper) {
+            containerRequest = ((ServletRequestWrapper) containerRequest).getRequest();
+        }
+        return containerRequest;
+    }
+
+    @Override
+    public Runnable propagate(Runnable task) {
+        return inCurrentRequest(task);
+    }
+
+    /**
+     * Wraps a task so it runs within the scope of the request handled by the current thread, in whichever thread it's
+     * run. The task is returned as is when the current thread isn't handling a request.
+     */
+    public Runnable inCurrentRequest(Runnable task) {
+        final RequestInstances instances = currentInstances(true);
+        return instances == null ? task : inRequest(instances, task);
+    }
+
+    /**
+     * Wraps a task so it runs within the scope of the request handled by the current thread, in whichever thread it's
+     * run. The task is returned as is when the current thread isn't handling a request.
+     */
+    public <V> Callable<V> inCurrentRequest(Callable<V> task) {
+        final RequestInstances instances = currentInstances(true);
+        if (instances == null) {
+            return task;
         }
-        threadRequest.set(request);
+        return () -> {
+            final Object[] slot = threadRequest.get();
+            final Object previousRequest = slot[REQUEST];
+            final Object previousInstances = slot[INSTANCES];
+            slot[REQUEST] = null;
+            slot[INSTANCES] = instances;
+            try {
+                return task.call();
+            } finally {
+                slot[REQUEST] = previousRequest;
+                slot[INSTANCES] = previousInstances;
+            }
+        };
+    }
+
+    Runnable inRequest(ServletRequest request, Runnable task) {
+        return inRequest(instancesOf(request, true), task);
+    }
+
+    private Runnable inRequest(RequestInstances instances, Runnable task) {
+        return () -> {
+            final Object[] slot = threadRequest.get();
+            final Object previousRequest = slot[REQUEST];
+            final Object previousInstances = slot[INSTANCES];
+            slot[REQUEST] = null;
+            slot[INSTANCES] = instances;
+            try {
+                task.run();
+            } finally {
+                slot[REQUEST] = previousRequest;
+                slot[INSTANCES] = previousInstances;
+            }
+        };
+    }
+
+    void setRequest(ServletRequest request) {
+        final Object[] slot = threadRequest.get();
+        slot[REQUEST] = request;
+        slot[INSTANCES] = null;
     }
 
+    /**
+     * Stops handling a request in the current thread, ending it unless its asynchronous processing has been started
+     * (see {@link #endRequestOnCompletion(AsyncContext, ServletRequest)}).
+     */
     void unsetRequest(ServletRequest request) {
-        threadRequest.remove();
-        perRequestScope.remove(request);
+        final Object[] slot = threadRequest.get();
+        slot[REQUEST] = null;
+        slot[INSTANCES] = null;
+        if (request.getAttribute(ASYNC_ATTRIBUTE) != null) {
+            return;
+        }
+        if (request.isAsyncStarted()) {
+            // asynchronous processing was started without going through the request wrapper (for example, in the
+            // request provided by the container). Completing or dispatching the request doesn't take effect until the
+            // container thread leaves the servlet, so the listener is still added in time
+            endRequestOnCompletion(request.getAsyncContext(), request);
+        } else {
+            endRequest(request);
+        }
+    }
+
+    /**
+     * Destroys the request scoped objects created for the given request. Tasks still running within its scope can't
+     * create new ones.
+     */
+    void endRequest(ServletRequest request) {
+        final RequestInstances instances;
+        synchronized (containerRequest(request)) {
+            request.removeAttribute(ASYNC_ATTRIBUTE);
+            instances = (RequestInstances) request.getAttribute(INSTANCES_ATTRIBUTE);
+            if (instances == null) {
+                return;
+            }
+            request.removeAttribute(INSTANCES_ATTRIBUTE);
+        }
+        final SingletonScope scope = instances.end();
+        if (scope != null) {
+            scope.destroy();
+        }
+    }
+
+    /**
+     * Ends the given request, destroying its request scoped objects, when its asynchronous processing completes.
+     *
+     * <p>
+     * This should be called as soon as asynchronous processing is started. Listeners are dropped when asynchronous
+     * processing is started again after a dispatch, so the listener adds itself again when that happens, and it's only
+     * added the first time this is called for a request.
+     */
+    void endRequestOnCompletion(AsyncContext asyncContext, ServletRequest request) {
+        synchronized (containerRequest(request)) {
+            if (request.getAttribute(ASYNC_ATTRIBUTE) != null) {
+                return;
+            }
+            request.setAttribute(ASYNC_ATTRIBUTE, Boolean.TRUE);
+        }
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                endRequest(request);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                event.getAsyncContext().addListener(this);
+            }
+        });
     }
 
+    /**
+     * Request scoped objects are destroyed when their request ends, so there is nothing left to destroy with the
+     * scope.
+     */
     @Override
     public void destroy() {
-        perRequestScope.values().forEach(scope -> scope.destroy());
+    }
+
+    /**
+     * The request scoped objects of a request, kept in a request attribute so every dispatch of the request shares
+     * them, and captured by the tasks that run within the scope of the request. The {@link SingletonScope} is only
+     * created with the first request scoped object.
+     */
+    private static final class RequestInstances {
+        private volatile SingletonScope scope;
+
+        private boolean ended;
+
+        private synchronized SingletonScope scope() {
+            if (ended) {
+                throw new IllegalStateException("The request has already ended, request scoped objects can't be created");
+            }
+            if (scope == null) {
+                scope = new SingletonScope();
+            }
+            return scope;
+        }
+
+        /**
+         * Marks the request as ended, so no more request scoped objects are created for it.
+         *
+         * @return the scope to destroy, or null if no request scoped object was created
+         */
+        private synchronized SingletonScope end() {
+            ended = true;
+            final SingletonScope endedScope = scope;
+            scope = null;
+            return endedScope;
+        }
     }
 }
@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.web;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+/**
+ * An {@link AsyncContext} that runs the tasks given to {@link #start(Runnable)} within the {@link RequestScope} of its
+ * request.
+ *
+ * @author Camilo Gonzalez
+ */
+final class RequestScopeAsyncContext implements AsyncContext {
+
+    private final AsyncContext asyncContext;
+
+    private final RequestScope requestScope;
+
+    private final ServletRequest scopedRequest;
+
+    RequestScopeAsyncContext(AsyncContext asyncContext, RequestScope requestScope, ServletRequest scopedRequest) {
+        this.asyncContext = asyncContext;
+        this.requestScope = requestScope;
+        this.scopedRequest = scopedRequest;
+    }
+
+    @Override
+    public void start(Runnable run) {
+        asyncContext.start(requestScope.inRequest(scopedRequest, run));
+    }
+
+    @Override
+    public ServletRequest getRequest() {
+        return asyncContext.getRequest();
+    }
+
+    @Override
+    public ServletResponse getResponse() {
+        return asyncContext.getResponse();
+    }
+
+    @Override
+    public boolean hasOriginalRequestAndResponse() {
+        return asyncContext.hasOriginalRequestAndResponse();
+    }
+
+    @Override
+    public void dispatch() {
+        asyncContext.dispatch();
+    }
+
+    @Override
+    public void dispatch(String path) {
+        asyncContext.dispatch(path);
+    }
+
+    @Override
+    public void dispatch(ServletContext context, String path) {
+        asyncContext.dispatch(context, path);
+    }
+
+    @Override
+    public void complete() {
+        asyncContext.complete();
+    }
+
+    @Override
+    public void addListener(AsyncListener listener) {
+        asyncContext.addListener(listener);
+    }
+
+    @Override
+    public void addListener(AsyncListener listener, ServletRequest servletRequest, ServletResponse servletResponse) {
+        asyncContext.addListener(listener, servletRequest, servletResponse);
+    }
+
+    @Override
+    public <T extends AsyncListener> T createListener(Class<T> clazz) throws ServletException {
+        return asyncContext.createListener(clazz);
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        asyncContext.setTimeout(timeout);
+    }
+
+    @Override
+    public long getTimeout() {
+        return asyncContext.getTimeout();
+    }
+
+}
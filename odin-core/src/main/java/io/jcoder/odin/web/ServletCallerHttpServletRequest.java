@@ -15,6 +15,9 @@
  */
 package io.jcoder.odin.web;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
@@ -27,10 +30,17 @@ public class ServletCallerHttpServletRequest extends HttpServletRequestWrapper {
     private final String servletPath;
     private final String pathInfo;
 
+    private final RequestScope requestScope;
+
     public ServletCallerHttpServletRequest(HttpServletRequest request, String servletPath, String pathInfo) {
+        this(request, servletPath, pathInfo, null);
+    }
+
+    ServletCallerHttpServletRequest(HttpServletRequest request, String servletPath, String pathInfo, RequestScope requestScope) {
         super(request);
         this.servletPath = servletPath;
         this.pathInfo = pathInfo;
+        this.requestScope = requestScope;
     }
 
     @Override
@@ -48,4 +58,34 @@ public class ServletCallerHttpServletRequest extends HttpServletRequestWrapper {
         return pathInfo;
     }
 
+    @Override
+    public AsyncContext startAsync() {
+        return endScopeOnCompletion(super.startAsync());
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        return endScopeOnCompletion(super.startAsync(servletRequest, servletResponse));
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        return requestScoped(super.getAsyncContext());
+    }
+
+    /**
+     * Keeps the request scope of this request until asynchronous processing completes. The completion listener is added
+     * right away, since another thread can complete or dispatch the request as soon as it's started.
+     */
+    private AsyncContext endScopeOnCompletion(AsyncContext asyncContext) {
+        if (requestScope != null) {
+            requestScope.endRequestOnCompletion(asyncContext, this);
+        }
+        return requestScoped(asyncContext);
+    }
+
+    private AsyncContext requestScoped(AsyncContext asyncContext) {
+        return requestScope == null ? asyncContext : new RequestScopeAsyncContext(asyncContext, requestScope, this);
+    }
+
 }
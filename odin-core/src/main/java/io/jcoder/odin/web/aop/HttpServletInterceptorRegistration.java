@@ -15,8 +15,12 @@
  */
 package io.jcoder.odin.web.aop;
 
+import java.util.List;
+
 import io.jcoder.odin.InjectionContext;
 import io.jcoder.odin.reference.InjectableReference;
+import io.jcoder.odin.registration.InjectionRegistration;
+import io.jcoder.odin.scope.SingletonScope;
 
 /**
  *
@@ -36,10 +40,40 @@ public class HttpServletInterceptorRegistration<T extends HttpServletInterceptor
         this.interceptor = interceptor;
     }
 
+    /**
+     * Provides the path this interceptor applies to, without the trailing <code>*</code> of prefix based paths.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isPrefixBased() {
+        return prefixBased;
+    }
+
     public T interceptor(InjectionContext context) {
         return interceptor.get(context);
     }
 
+    /**
+     * Indicates if the interceptor always resolves to the same singleton instance in the given context, so it can be
+     * retrieved once and reused for every request.
+     */
+    public boolean isSingleton(InjectionContext context) {
+        if (interceptor.isLazy()) {
+            return false;
+        }
+        final List<InjectionRegistration<T>> registrations;
+        try {
+            registrations = interceptor.getRegistrations(context);
+        } catch (IllegalArgumentException ex) {
+            // ambiguous references are reported when the interceptor is retrieved
+            return false;
+        }
+        return registrations.size() == 1 && registrations.get(0) != null
+                && SingletonScope.class.equals(registrations.get(0).getScopeType());
+    }
+
     public boolean matches(String requestPath) {
         if (prefixBased) {
             return requestPath.startsWith(path);
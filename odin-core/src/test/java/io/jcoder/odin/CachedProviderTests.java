@@ -0,0 +1,97 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.ReferenceBuilder.paramOfType;
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Provider;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class CachedProviderTests {
+
+    private static final AtomicInteger createdAs = new AtomicInteger();
+
+    public static class A {
+        public A() {
+            createdAs.incrementAndGet();
+        }
+    }
+
+    public static class B {
+        private final Provider<A> providerOfA;
+
+        public B(Provider<A> providerOfA) {
+            this.providerOfA = providerOfA;
+        }
+    }
+
+    @Test
+    public void providersAreSharedPerRegistration() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(A.class));
+        context.register(type(B.class).withConstructor(paramOfType(A.class).asProvider()));
+        context.initialize();
+
+        final B b1 = context.get(B.class);
+        final B b2 = context.get(B.class);
+        assertFalse(b1 == b2, "B is unscoped - each get must create a new instance");
+        assertTrue(b1.providerOfA == b2.providerOfA, "Every injection must share the provider of the registration of A");
+        assertTrue(b1.providerOfA.get() == context.get(A.class), "The provider must return the singleton instance of A");
+        assertTrue(b1.providerOfA.get() == b2.providerOfA.get(), "The provider must always return the same singleton");
+    }
+
+    @Test
+    public void unscopedProvidersCreateNewInstances() throws Exception {
+        createdAs.set(0);
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(type(A.class));
+        context.register(singleton(B.class).withConstructor(paramOfType(A.class).asProvider()));
+        context.initialize();
+
+        final Provider<A> providerOfA = context.get(B.class).providerOfA;
+        assertFalse(providerOfA.get() == providerOfA.get(), "A is unscoped - each get must create a new instance");
+        assertEquals(2, createdAs.get(), "Only the instances requested through the provider must have been created");
+    }
+
+    @Test
+    public void providersAreBoundToTheirContext() throws Exception {
+        final InjectionContext context1 = new DefaultInjectionContext();
+        context1.register(singleton(A.class));
+        context1.register(singleton(B.class).withConstructor(paramOfType(A.class).asProvider()));
+        context1.initialize();
+
+        final InjectionContext context2 = new DefaultInjectionContext();
+        context2.register(singleton(A.class));
+        context2.register(singleton(B.class).withConstructor(paramOfType(A.class).asProvider()));
+        context2.initialize();
+
+        assertTrue(context1.get(B.class).providerOfA.get() == context1.get(A.class), "Context 1 must provide its own instance of A");
+        assertTrue(context2.get(B.class).providerOfA.get() == context2.get(A.class), "Context 2 must provide its own instance of A");
+    }
+
+}
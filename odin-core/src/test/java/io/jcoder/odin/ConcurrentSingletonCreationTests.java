@@ -0,0 +1,148 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class ConcurrentSingletonCreationTests {
+
+    private static final int THREADS = 8;
+
+    public static class Slow {
+        static final AtomicInteger constructed = new AtomicInteger();
+
+        static final AtomicInteger postConstructed = new AtomicInteger();
+
+        public Slow() throws InterruptedException {
+            constructed.incrementAndGet();
+            Thread.sleep(50);
+        }
+
+        public void init() {
+            postConstructed.incrementAndGet();
+        }
+    }
+
+    public static class C {
+        private D d;
+
+        public C() throws InterruptedException {
+            Thread.sleep(50);
+        }
+
+        public void setD(D d) {
+            this.d = d;
+        }
+    }
+
+    public static class D {
+        private C c;
+
+        public D() throws InterruptedException {
+            Thread.sleep(50);
+        }
+
+        public void setC(C c) {
+            this.c = c;
+        }
+    }
+
+    @Test
+    public void singletonIsCreatedOnce() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.initialize();
+        // registered after the initialization so the singleton is created on first access
+        context.register(singleton(Slow.class).withPostConstructor(Slow::init));
+
+        final List<Slow> instances = getConcurrently(context, Slow.class);
+
+        for (Slow instance : instances) {
+            assertTrue(instance == instances.get(0), "All threads must get the same instance");
+        }
+        assertEquals(1, Slow.constructed.get(), "The singleton must be constructed only once");
+        assertEquals(1, Slow.postConstructed.get(), "The post construct method must be invoked only once");
+    }
+
+    @Test
+    public void crossThreadSetterCycle() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.initialize();
+        context.register(singleton(C.class).withSetter(C::setD, D.class));
+        context.register(singleton(D.class).withSetter(D::setC, C.class));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final Future<C> c = executor.submit(() -> {
+                start.await();
+                return context.get(C.class);
+            });
+            final Future<D> d = executor.submit(() -> {
+                start.await();
+                return context.get(D.class);
+            });
+            start.countDown();
+
+            assertTrue(c.get(10, TimeUnit.SECONDS) == context.get(C.class), "C is a singleton - only one instance must have been created");
+            assertTrue(d.get(10, TimeUnit.SECONDS) == context.get(D.class), "D is a singleton - only one instance must have been created");
+            assertTrue(context.get(C.class).d == context.get(D.class), "D must be injected in C");
+            assertTrue(context.get(D.class).c == context.get(C.class), "C must be injected in D");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> List<T> getConcurrently(InjectionContext context, Class<T> type) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return context.get(type);
+                }));
+            }
+            start.countDown();
+
+            final List<T> instances = new ArrayList<>();
+            for (Future<T> future : futures) {
+                instances.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return instances;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.graph.DependencyGraph;
+import io.jcoder.odin.graph.DependencyGraph.Cycle;
+import io.jcoder.odin.graph.DependencyProvider;
+import io.jcoder.odin.registration.InjectionRegistration;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class CycleDetectionTests {
+
+    private static final int NODES = 20000;
+
+    @Test
+    public void everyCycleGroupIsReported() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        final List<InjectionRegistration<?>> registrations = register(context, 6);
+
+        // 0 -> 1 -> 2 -> 0 and 3 -> 4 -> 3, both reachable from 5
+        final int[] dependencies = { 1, 2, 0, 4, 3, 0 };
+        final DependencyProvider provider = (ctx, reg) -> {
+            final int idx = registrations.indexOf(reg);
+            if (idx == 5) {
+                return Arrays.asList(registrations.get(0), registrations.get(3));
+            }
+            return Collections.singletonList(registrations.get(dependencies[idx]));
+        };
+
+        final List<Cycle> cycles = new DependencyGraph(context, provider).getCycles();
+
+        assertEquals(2, cycles.size(), "Two independent cycles must be reported");
+        for (Cycle cycle : cycles) {
+            final List<InjectionRegistration<?>> path = cycle.getInjectionRegistrations();
+            assertTrue(path.get(0).equals(path.get(path.size() - 1)), "The first and last element of a cycle must be the same");
+            assertTrue(path.size() == 4 || path.size() == 3, "Unexpected cycle: " + cycle);
+        }
+    }
+
+    @Test
+    public void deepGraph() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        final List<InjectionRegistration<?>> registrations = register(context, NODES);
+
+        // a long chain that ends in a node depending on itself
+        final DependencyProvider provider = (ctx, reg) -> {
+            final int idx = Integer.parseInt(reg.getName().substring("node".length()));
+            return Collections.singletonList(registrations.get(Math.min(idx + 1, NODES - 1)));
+        };
+
+        final List<Cycle> cycles = new DependencyGraph(context, provider).getCycles();
+
+        assertEquals(1, cycles.size(), "Only the last node is part of a cycle");
+        assertEquals(2, cycles.get(0).getInjectionRegistrations().size(), "The last node depends on itself");
+    }
+
+    private static List<InjectionRegistration<?>> register(InjectionContext context, int count) {
+        for (int i = 0; i < count; i++) {
+            context.register(new InjectionRegistration<>(String.format("node%05d", i), null, "value" + i, null, null, null));
+        }
+        return context.getRegistrations();
+    }
+
+}
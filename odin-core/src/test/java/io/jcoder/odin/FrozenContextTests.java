@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.scope.SingletonScope;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class FrozenContextTests {
+
+    public interface Base {
+    }
+
+    public static class A implements Base {
+    }
+
+    public static class B implements Base {
+        private final A a;
+
+        public B(final A a) {
+            this.a = a;
+        }
+    }
+
+    @Test
+    public void frozenLookups() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(A.class));
+        context.register(type(B.class));
+
+        context.initialize();
+        context.freeze();
+
+        assertTrue(context.frozen(), "The context must be frozen");
+
+        final B b = context.get(B.class);
+        assertNotNull(b, "Instance 'b' must not be null");
+        assertTrue(b.a == context.get(A.class), "A is a singleton - only one instance must have been created");
+        assertEquals(2, context.getMulti(Base.class).size(), "Both A and B implement Base");
+        assertEquals(3, context.getRegistrations().size(), "A, B and the InjectionContext itself must be registered");
+    }
+
+    @Test
+    public void frozenContextRejectsChanges() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(A.class));
+
+        context.initialize();
+        context.freeze();
+
+        assertThrows(IllegalStateException.class, () -> context.register(type(B.class)),
+                "A frozen context must not accept new registrations");
+        assertThrows(IllegalStateException.class, () -> context.registerScope(new SingletonScope()),
+                "A frozen context must not accept new scopes");
+    }
+
+    @Test
+    public void freezeRequiresInitialization() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(A.class));
+
+        assertThrows(IllegalStateException.class, () -> context.freeze(),
+                "A context must be initialized before being frozen");
+    }
+
+}
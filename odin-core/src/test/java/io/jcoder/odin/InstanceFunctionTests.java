@@ -0,0 +1,107 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.builder.ReferenceBuilder;
+import io.jcoder.odin.function.InstanceFunction;
+import io.jcoder.odin.reference.InjectableReference;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class InstanceFunctionTests {
+
+    public static class A {
+        private B b;
+    }
+
+    public static class B {
+        private final A a;
+
+        private boolean initialized;
+
+        public B(A a) {
+            this.a = a;
+        }
+    }
+
+    /**
+     * Creates A instances the way generated code would do it: a single function constructs the object and then injects
+     * and initializes it.
+     */
+    public static class AInstanceFunction implements InstanceFunction<A> {
+
+        private final InjectableReference<B> referenceToB = ReferenceBuilder.ofType(B.class).build();
+
+        @Override
+        public A newObject(InjectionContext context) {
+            return new A();
+        }
+
+        @Override
+        public void initialize(InjectionContext context, A instance) {
+            instance.b = referenceToB.get(context);
+            instance.b.initialized = true;
+        }
+
+        @Override
+        public List<InjectableReference<?>> dependencies() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<InjectableReference<?>> initializationDependencies() {
+            return Arrays.asList(referenceToB);
+        }
+    }
+
+    @Test
+    public void instanceFunctionResolvesCycles() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(A.class).withInstanceFunction(new AInstanceFunction()));
+        context.register(singleton(B.class).withConstructor(A.class));
+        context.initialize();
+
+        final A a = context.get(A.class);
+        final B b = context.get(B.class);
+
+        assertTrue(a.b == b, "A must be initialized with the B singleton");
+        assertTrue(b.a == a, "B must be constructed with the A instance published before its initialization");
+        assertTrue(b.initialized, "The initialization of A must have been executed");
+        assertEquals(1, context.getRegistrations().stream().filter(r -> r.getRegisteredClass() == A.class).findFirst().get()
+                .dependencies().size(), "The initialization dependencies must be part of the dependencies of the registration");
+    }
+
+    @Test
+    public void instanceFunctionCantBeCombinedWithSetters() throws Exception {
+        assertThrows(IllegalStateException.class,
+                () -> singleton(A.class).withInstanceFunction(new AInstanceFunction()).withPostConstructor(a -> {
+                }).build(), "An InstanceFunction already runs the post construction");
+    }
+
+}
@@ -0,0 +1,269 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.WebTestFixtures.request;
+import static io.jcoder.odin.WebTestFixtures.response;
+import static io.jcoder.odin.builder.ReferenceBuilder.ofType;
+import static io.jcoder.odin.builder.RegistrationBuilder.object;
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.WebTestFixtures.TestWebServlet;
+import io.jcoder.odin.reference.InjectableReference;
+import io.jcoder.odin.registration.InjectionRegistration;
+import io.jcoder.odin.web.aop.HttpServletInterceptor;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class InterceptorChainTests {
+
+    public static class Recorder {
+        private final List<String> calls = new ArrayList<>();
+
+        private final List<Object> interceptors = new ArrayList<>();
+    }
+
+    public abstract static class RecordingInterceptor implements HttpServletInterceptor {
+        private final Recorder recorder;
+
+        public RecordingInterceptor(Recorder recorder) {
+            this.recorder = recorder;
+        }
+
+        @Override
+        public boolean before(HttpServletRequest request, HttpServletResponse response) {
+            recorder.calls.add(getClass().getSimpleName());
+            recorder.interceptors.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean onSuccess(HttpServletRequest request, HttpServletResponse response) {
+            return true;
+        }
+
+        @Override
+        public boolean onError(HttpServletRequest request, HttpServletResponse response, Exception ex) {
+            return true;
+        }
+    }
+
+    public static class Everything extends RecordingInterceptor {
+        public Everything(Recorder recorder) {
+            super(recorder);
+        }
+    }
+
+    public static class Api extends RecordingInterceptor {
+        public Api(Recorder recorder) {
+            super(recorder);
+        }
+    }
+
+    public static class ApiUsers extends RecordingInterceptor {
+        public ApiUsers(Recorder recorder) {
+            super(recorder);
+        }
+    }
+
+    public static class PerRequest extends RecordingInterceptor {
+        public PerRequest(Recorder recorder) {
+            super(recorder);
+        }
+    }
+
+    public static class Late extends RecordingInterceptor {
+        public Late(Recorder recorder) {
+            super(recorder);
+        }
+    }
+
+    public static class NoOpServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void service(HttpServletRequest req, HttpServletResponse resp) {
+        }
+    }
+
+    /**
+     * A reference that counts how many times the interceptor is retrieved from the context.
+     */
+    private static class CountingReference<T> implements InjectableReference<T> {
+        private final InjectableReference<T> delegate;
+
+        private int gets;
+
+        CountingReference(InjectableReference<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public List<InjectionRegistration<T>> getRegistrations(InjectionContext context) {
+            return delegate.getRegistrations(context);
+        }
+
+        @Override
+        public Class<?> getInjectableType() {
+            return delegate.getInjectableType();
+        }
+
+        @Override
+        public T get(InjectionContext context) {
+            gets++;
+            return delegate.get(context);
+        }
+
+        @Override
+        public boolean isNullable() {
+            return delegate.isNullable();
+        }
+    }
+
+    private static class ChainTestServlet extends TestWebServlet {
+        private static final long serialVersionUID = 1L;
+
+        private final Recorder recorder = new Recorder();
+
+        private final CountingReference<Api> apiReference = new CountingReference<>(ofType(Api.class).build());
+
+        private final CountingReference<PerRequest> perRequestReference = new CountingReference<>(
+                ofType(PerRequest.class).build());
+
+        @Override
+        protected void register(InjectionContext context) throws NoSuchMethodException {
+            context.register(object(recorder));
+            context.register(singleton(Everything.class));
+            context.register(singleton(Api.class));
+            context.register(singleton(ApiUsers.class));
+            context.register(type(PerRequest.class));
+            context.register(singleton(Late.class));
+            context.register(singleton(NoOpServlet.class));
+        }
+
+        @Override
+        protected void registerServlets(InjectionContext context) throws ServletException {
+            registerServlet("/*", NoOpServlet.class);
+            registerInterceptor("*", Everything.class);
+            registerInterceptor("/api*", apiReference);
+            registerInterceptor("/api/users", ApiUsers.class);
+            registerInterceptor("/api/orders*", perRequestReference);
+        }
+
+        void registerLateInterceptor(String path) throws ServletException {
+            registerInterceptor(path, Late.class);
+        }
+
+        List<String> call(String path) throws Exception {
+            recorder.calls.clear();
+            recorder.interceptors.clear();
+            service(request(path), response());
+            return new ArrayList<>(recorder.calls);
+        }
+    }
+
+    @Test
+    public void chainsFollowTheInterceptorPaths() throws Exception {
+        final ChainTestServlet servlet = new ChainTestServlet();
+        servlet.init(null);
+
+        assertEquals(Arrays.asList("Everything"), servlet.call("/index.html"), "Unexpected chain for /index.html");
+        assertEquals(Arrays.asList("Everything", "Api"), servlet.call("/api"), "Unexpected chain for /api");
+        assertEquals(Arrays.asList("Everything", "Api"), servlet.call("/apidocs"),
+                "Prefix interceptors must match raw prefixes of the path");
+        assertEquals(Arrays.asList("Everything", "Api", "ApiUsers"), servlet.call("/api/users"),
+                "Unexpected chain for /api/users");
+        assertEquals(Arrays.asList("Everything", "Api"), servlet.call("/api/users/1"),
+                "Exact interceptors must only match their own path");
+        assertEquals(Arrays.asList("Everything", "Api"), servlet.call("/api/use"), "Unexpected chain for /api/use");
+        assertEquals(Arrays.asList("Everything", "Api", "PerRequest"), servlet.call("/api/orders/42"),
+                "Unexpected chain for /api/orders/42");
+    }
+
+    @Test
+    public void singletonInterceptorsAreResolvedOnce() throws Exception {
+        final ChainTestServlet servlet = new ChainTestServlet();
+        servlet.init(null);
+
+        for (int i = 0; i < 5; i++) {
+            servlet.call("/api/items/" + i);
+            servlet.call("/api/items/" + i);
+        }
+
+        assertEquals(1, servlet.apiReference.gets, "Singleton interceptors must only be retrieved when the chain is compiled");
+    }
+
+    @Test
+    public void otherInterceptorsAreResolvedOnEveryRequest() throws Exception {
+        final ChainTestServlet servlet = new ChainTestServlet();
+        servlet.init(null);
+
+        servlet.call("/api/orders/1");
+        final Object first = servlet.recorder.interceptors.get(2);
+        servlet.call("/api/orders/1");
+        final Object second = servlet.recorder.interceptors.get(2);
+
+        assertEquals(2, servlet.perRequestReference.gets, "Unscoped interceptors must be retrieved for every request");
+        assertNotSame(first, second, "Every request must get its own unscoped interceptor");
+    }
+
+    @Test
+    public void registeringAnInterceptorReplacesTheCompiledChains() throws Exception {
+        final ChainTestServlet servlet = new ChainTestServlet();
+        servlet.init(null);
+
+        assertEquals(Arrays.asList("Everything", "Api"), servlet.call("/api/items"), "Unexpected chain before registering");
+
+        servlet.registerLateInterceptor("/api/items*");
+
+        assertEquals(Arrays.asList("Everything", "Api", "Late"), servlet.call("/api/items"),
+                "New interceptors must apply to paths whose chain was already compiled");
+        assertEquals(Arrays.asList("Everything", "Api", "Late"), servlet.call("/api/items/2"),
+                "New interceptors must apply to new paths");
+    }
+
+    @Test
+    public void chainsDontDependOnHowManyPathsAreRequested() throws Exception {
+        final ChainTestServlet servlet = new ChainTestServlet();
+        servlet.init(null);
+
+        for (int i = 0; i < 3000; i++) {
+            assertEquals(Arrays.asList("Everything", "Api"), servlet.call("/api/items/" + i),
+                    "Unexpected chain for request " + i);
+        }
+        assertEquals(Arrays.asList("Everything", "Api", "ApiUsers"), servlet.call("/api/users"),
+                "Chains must stay correct after many distinct paths");
+        // one chain shared by every /api/items/ path and another one for /api/users
+        assertEquals(2, servlet.apiReference.gets, "Chains must be shared by every path that reaches the same prefix");
+    }
+
+}
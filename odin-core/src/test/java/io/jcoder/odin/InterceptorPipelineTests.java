@@ -0,0 +1,165 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.web.InterceptableServletCaller;
+import io.jcoder.odin.web.aop.HttpServletInterceptor;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class InterceptorPipelineTests {
+
+    private final List<String> calls = new ArrayList<>();
+
+    private class RecordingInterceptor implements HttpServletInterceptor {
+        private final String name;
+
+        private boolean proceedBefore = true;
+
+        private boolean proceedOnSuccess = true;
+
+        private boolean propagateErrors = true;
+
+        private RuntimeException onSuccessFailure;
+
+        RecordingInterceptor(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean before(HttpServletRequest request, HttpServletResponse response) {
+            calls.add(name + ".before");
+            return proceedBefore;
+        }
+
+        @Override
+        public boolean onSuccess(HttpServletRequest request, HttpServletResponse response) {
+            calls.add(name + ".onSuccess");
+            if (onSuccessFailure != null) {
+                throw onSuccessFailure;
+            }
+            return proceedOnSuccess;
+        }
+
+        @Override
+        public boolean onError(HttpServletRequest request, HttpServletResponse response, Exception ex) {
+            calls.add(name + ".onError(" + ex.getMessage() + ")");
+            return propagateErrors;
+        }
+    }
+
+    private InterceptableServletCaller servlet() {
+        return new InterceptableServletCaller((req, resp) -> calls.add("servlet"));
+    }
+
+    private InterceptableServletCaller failingServlet(IOException failure) {
+        return new InterceptableServletCaller((req, resp) -> {
+            calls.add("servlet");
+            throw failure;
+        });
+    }
+
+    @Test
+    public void interceptorsAreNestedAroundTheServlet() throws Exception {
+        final RecordingInterceptor a = new RecordingInterceptor("a");
+        final RecordingInterceptor b = new RecordingInterceptor("b");
+
+        servlet().callServlet(new HttpServletInterceptor[] { a, b }, null, null);
+
+        assertEquals(Arrays.asList("a.before", "b.before", "servlet", "b.onSuccess", "a.onSuccess"), calls,
+                "Interceptors must be entered in order and completed in reverse order");
+    }
+
+    @Test
+    public void falseBeforeStopsTheChain() throws Exception {
+        final RecordingInterceptor a = new RecordingInterceptor("a");
+        final RecordingInterceptor b = new RecordingInterceptor("b");
+        b.proceedBefore = false;
+
+        servlet().callServlet(new HttpServletInterceptor[] { a, b, new RecordingInterceptor("c") }, null, null);
+
+        assertEquals(Arrays.asList("a.before", "b.before"), calls,
+                "Nothing must be invoked after a before method returns false");
+    }
+
+    @Test
+    public void falseOnSuccessStopsTheUnwinding() throws Exception {
+        final RecordingInterceptor a = new RecordingInterceptor("a");
+        final RecordingInterceptor b = new RecordingInterceptor("b");
+        b.proceedOnSuccess = false;
+
+        servlet().callServlet(new HttpServletInterceptor[] { a, b }, null, null);
+
+        assertEquals(Arrays.asList("a.before", "b.before", "servlet", "b.onSuccess"), calls,
+                "Enclosing interceptors must not complete after onSuccess returns false");
+    }
+
+    @Test
+    public void servletErrorsArePropagatedThroughOnError() throws Exception {
+        final IOException failure = new IOException("boom");
+        final RecordingInterceptor a = new RecordingInterceptor("a");
+        final RecordingInterceptor b = new RecordingInterceptor("b");
+
+        final IOException thrown = assertThrows(IOException.class,
+                () -> failingServlet(failure).callServlet(new HttpServletInterceptor[] { a, b }, null, null));
+
+        assertSame(failure, thrown, "The servlet exception must be rethrown as is");
+        assertEquals(Arrays.asList("a.before", "b.before", "servlet", "b.onError(boom)", "a.onError(boom)"), calls,
+                "Every entered interceptor must be notified of the error");
+    }
+
+    @Test
+    public void errorsCanBeSuppressedByAnInterceptor() throws Exception {
+        final RecordingInterceptor a = new RecordingInterceptor("a");
+        final RecordingInterceptor b = new RecordingInterceptor("b");
+        b.propagateErrors = false;
+
+        failingServlet(new IOException("boom")).callServlet(new HttpServletInterceptor[] { a, b }, null, null);
+
+        assertEquals(Arrays.asList("a.before", "b.before", "servlet", "b.onError(boom)"), calls,
+                "An interceptor that doesn't propagate an error must stop the unwinding");
+    }
+
+    @Test
+    public void onSuccessErrorsAreHandledByTheSameInterceptor() throws Exception {
+        final RecordingInterceptor a = new RecordingInterceptor("a");
+        final RecordingInterceptor b = new RecordingInterceptor("b");
+        b.onSuccessFailure = new IllegalStateException("late");
+
+        assertThrows(IllegalStateException.class,
+                () -> servlet().callServlet(new HttpServletInterceptor[] { a, b }, null, null));
+
+        assertEquals(Arrays.asList("a.before", "b.before", "servlet", "b.onSuccess", "b.onError(late)", "a.onError(late)"),
+                calls, "An exception from onSuccess must be handled by the same interceptor first");
+    }
+
+}
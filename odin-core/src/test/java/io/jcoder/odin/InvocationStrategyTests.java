@@ -0,0 +1,201 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.ReferenceBuilder.paramOfType;
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.reflection.InvocationStrategy;
+import io.jcoder.odin.reflection.MemberInvoker;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class InvocationStrategyTests {
+
+    public static class A {
+    }
+
+    public static class B {
+        private final A a;
+
+        private final String source;
+
+        private B(final A a) {
+            this(a, "constructor");
+        }
+
+        private B(final A a, final String source) {
+            this.a = a;
+            this.source = source;
+        }
+
+        private static B create(final A a) {
+            return new B(a, "static factory");
+        }
+    }
+
+    public static class BFactory {
+        public B create(final A a) {
+            return new B(a, "factory");
+        }
+    }
+
+    public static class C {
+        private A field;
+
+        private String text;
+
+        private A methodArg;
+
+        private void inject(final A a) {
+            this.methodArg = a;
+        }
+    }
+
+    public static class Calculator {
+        public long add(long value, int increment) {
+            return value + increment;
+        }
+
+        public String describe(Object value) {
+            return value.toString();
+        }
+    }
+
+    public static class Failing {
+        public Failing() {
+            throw new UnsupportedOperationException("Failing on purpose");
+        }
+    }
+
+    @Test
+    public void methodHandleConstruction() throws Exception {
+        assertConstruction(InvocationStrategy.methodHandles());
+    }
+
+    @Test
+    public void reflectiveConstruction() throws Exception {
+        assertConstruction(InvocationStrategy.reflection());
+    }
+
+    @Test
+    public void methodHandleInjection() throws Exception {
+        assertInjection(InvocationStrategy.methodHandles());
+    }
+
+    @Test
+    public void reflectiveInjection() throws Exception {
+        assertInjection(InvocationStrategy.reflection());
+    }
+
+    @Test
+    public void incompatibleFieldValue() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(A.class));
+        context.register(type(C.class).withField("text", paramOfType(A.class)));
+        context.initialize();
+
+        assertThrows(InjectionFunctionException.class, () -> context.get(C.class),
+                "Injecting an A into a String field must fail with an InjectionFunctionException");
+    }
+
+    @Test
+    public void constructorExceptionsAreWrapped() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(type(Failing.class));
+        context.initialize();
+
+        final ObjectCreationException ex = assertThrows(ObjectCreationException.class, () -> context.get(Failing.class),
+                "The exception of the constructor must be reported as an ObjectCreationException");
+        assertTrue(ex.getCause() instanceof InvocationTargetException, "The cause must be an InvocationTargetException");
+        assertTrue(ex.getCause().getCause() instanceof UnsupportedOperationException, "The original exception must be kept");
+    }
+
+    @Test
+    public void methodHandleArgumentErrors() throws Exception {
+        assertArgumentErrors(InvocationStrategy.methodHandles());
+    }
+
+    @Test
+    public void reflectiveArgumentErrors() throws Exception {
+        assertArgumentErrors(InvocationStrategy.reflection());
+    }
+
+    private static void assertArgumentErrors(InvocationStrategy strategy) throws Exception {
+        final MemberInvoker add = strategy.method(Calculator.class.getMethod("add", long.class, int.class));
+        final MemberInvoker describe = strategy.method(Calculator.class.getMethod("describe", Object.class));
+        final Calculator calculator = new Calculator();
+
+        assertEquals(5L, add.invoke(calculator, new Object[] { 2, 3 }), "Arguments must be unboxed and widened like reflection does");
+        assertThrows(IllegalArgumentException.class, () -> add.invoke(calculator, new Object[] { 2L, 3L }),
+                "Arguments that can't be converted must be reported as an IllegalArgumentException");
+        assertThrows(IllegalArgumentException.class, () -> add.invoke(calculator, new Object[] { 2L, null }),
+                "Null primitive arguments must be reported as an IllegalArgumentException");
+        assertThrows(IllegalArgumentException.class, () -> add.invoke(calculator, new Object[] { 2L }),
+                "A wrong number of arguments must be reported as an IllegalArgumentException");
+        assertThrows(IllegalArgumentException.class, () -> add.invoke("not a calculator", new Object[] { 2L, 3 }),
+                "A target of the wrong class must be reported as an IllegalArgumentException");
+        assertThrows(NullPointerException.class, () -> add.invoke(null, new Object[] { 2L, 3 }),
+                "A null target of an instance method must be reported as a NullPointerException");
+
+        final InvocationTargetException ex = assertThrows(InvocationTargetException.class,
+                () -> describe.invoke(calculator, new Object[] { null }),
+                "Exceptions thrown by the member must be wrapped in an InvocationTargetException");
+        assertTrue(ex.getCause() instanceof NullPointerException, "The original exception must be kept");
+    }
+
+    private static void assertInjection(InvocationStrategy strategy) throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(A.class));
+        context.register(type(C.class).withInvocationStrategy(strategy)
+                .withField("field", paramOfType(A.class))
+                .withMethod("inject", paramOfType(A.class)));
+        context.initialize();
+
+        final C c = context.get(C.class);
+        assertTrue(c.field == context.get(A.class), "A must be injected in the private field");
+        assertTrue(c.methodArg == context.get(A.class), "A must be injected through the private method");
+    }
+
+    private static void assertConstruction(InvocationStrategy strategy) throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(A.class));
+        context.register(singleton(BFactory.class));
+        context.register(type(B.class).named("constructor").withInvocationStrategy(strategy).withConstructor(paramOfType(A.class)));
+        context.register(type(B.class).named("static").withInvocationStrategy(strategy)
+                .withStaticFactory(B.class, "create", paramOfType(A.class)));
+        context.register(type(B.class).named("factory").withInvocationStrategy(strategy)
+                .withFactory(paramOfType(BFactory.class), "create", paramOfType(A.class)));
+        context.initialize();
+
+        final A a = context.get(A.class);
+        assertEquals("constructor", context.getNamed(B.class, "constructor").source, "B must be created with its private constructor");
+        assertEquals("static factory", context.getNamed(B.class, "static").source, "B must be created with its static factory");
+        assertEquals("factory", context.getNamed(B.class, "factory").source, "B must be created with BFactory");
+        assertTrue(a == context.getNamed(B.class, "factory").a, "A must be injected in the factory method");
+    }
+
+}
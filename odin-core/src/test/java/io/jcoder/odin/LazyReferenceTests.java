@@ -0,0 +1,161 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.ReferenceBuilder.paramOfType;
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class LazyReferenceTests {
+
+    private static final AtomicInteger createdServices = new AtomicInteger();
+
+    public interface Service {
+        String name();
+    }
+
+    public static class ExpensiveService implements Service {
+        public ExpensiveService() {
+            createdServices.incrementAndGet();
+        }
+
+        @Override
+        public String name() {
+            return "expensive";
+        }
+    }
+
+    public static class Client {
+        private final Service service;
+
+        public Client(final Service service) {
+            this.service = service;
+        }
+    }
+
+    interface PackagePrivateService {
+        String name();
+    }
+
+    public static class PackagePrivateServiceImpl implements PackagePrivateService {
+        @Override
+        public String name() {
+            return "package-private";
+        }
+    }
+
+    public static class PackagePrivateClient {
+        private final PackagePrivateService service;
+
+        public PackagePrivateClient(final PackagePrivateService service) {
+            this.service = service;
+        }
+    }
+
+    public static class CyclicService implements Service {
+        private final Client client;
+
+        public CyclicService(final Client client) {
+            this.client = client;
+        }
+
+        @Override
+        public String name() {
+            return "cyclic";
+        }
+    }
+
+    @Test
+    public void targetIsRetrievedOnFirstInvocation() throws Exception {
+        createdServices.set(0);
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(ExpensiveService.class).lazy());
+        context.register(type(Client.class).withConstructor(paramOfType(Service.class).lazy()));
+        context.initialize();
+
+        final Client client = context.get(Client.class);
+        assertEquals(0, createdServices.get(), "The lazy dependency must not be created when the client is created");
+
+        assertEquals("expensive", client.service.name(), "Invocations must be forwarded to the lazy dependency");
+        assertEquals(1, createdServices.get(), "The lazy dependency must be created on the first invocation");
+
+        client.service.name();
+        assertEquals(1, createdServices.get(), "The lazy dependency must only be retrieved once");
+        assertTrue(client.service.toString().equals(context.get(ExpensiveService.class).toString()),
+                "toString must be forwarded to the lazy dependency");
+    }
+
+    @Test
+    public void proxyIdentityDoesNotRetrieveTarget() throws Exception {
+        createdServices.set(0);
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(ExpensiveService.class).lazy());
+        context.register(type(Client.class).withConstructor(paramOfType(Service.class).lazy()));
+        context.initialize();
+
+        final Client client = context.get(Client.class);
+        assertTrue(client.service.equals(client.service), "A lazy proxy must be equal to itself");
+        assertFalse(client.service.equals(context.get(Client.class).service), "Each injection must get its own proxy");
+        assertEquals(System.identityHashCode(client.service), client.service.hashCode(), "The hash code must be the proxy identity");
+        assertEquals(0, createdServices.get(), "equals and hashCode must not retrieve the lazy dependency");
+    }
+
+    @Test
+    public void packagePrivateInterfacesCanBeLazy() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(PackagePrivateServiceImpl.class));
+        context.register(type(PackagePrivateClient.class).withConstructor(paramOfType(PackagePrivateService.class).lazy()));
+        context.initialize();
+
+        final PackagePrivateClient client = context.get(PackagePrivateClient.class);
+        assertEquals("package-private", client.service.name(), "Invocations must be forwarded to non-public interfaces");
+    }
+
+    @Test
+    public void lazyReferencesBreakConstructionCycles() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(CyclicService.class));
+        context.register(singleton(Client.class).withConstructor(paramOfType(Service.class).lazy()));
+        context.initialize();
+
+        final Client client = context.get(Client.class);
+        assertEquals("cyclic", client.service.name(), "Invocations must be forwarded to the lazy dependency");
+        assertTrue(context.get(CyclicService.class).client == client, "Client is a singleton - only one instance must have been created");
+    }
+
+    @Test
+    public void onlyInterfacesCanBeLazy() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> paramOfType(ExpensiveService.class).lazy().build(),
+                "References to classes can't be lazy");
+        assertThrows(IllegalStateException.class, () -> paramOfType(Service.class).nullable().lazy().build(),
+                "Nullable references can't be lazy");
+        assertThrows(IllegalStateException.class, () -> paramOfType(Service.class).lazy().asProvider(),
+                "Provider references can't be lazy");
+    }
+
+}
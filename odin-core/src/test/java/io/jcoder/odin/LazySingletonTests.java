@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class LazySingletonTests {
+
+    private static final AtomicInteger createdReports = new AtomicInteger();
+
+    public static class Report {
+        public Report() {
+            createdReports.incrementAndGet();
+        }
+    }
+
+    public static class Eager {
+    }
+
+    public static class X {
+        public X(Y y) {
+        }
+    }
+
+    public static class Y {
+        public Y(X x) {
+        }
+    }
+
+    @Test
+    public void lazySingletonIsCreatedOnFirstGet() throws Exception {
+        createdReports.set(0);
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(Report.class).lazy());
+        context.register(singleton(Eager.class));
+        context.initialize();
+
+        assertEquals(0, createdReports.get(), "Lazy singletons must not be created during the initialization");
+
+        final Report report = context.get(Report.class);
+        assertEquals(1, createdReports.get(), "Lazy singletons must be created when first requested");
+        assertTrue(report == context.get(Report.class), "Lazy singletons must still be singletons");
+    }
+
+    @Test
+    public void lazySingletonIsSkippedInParallelInitialization() throws Exception {
+        createdReports.set(0);
+        final InjectionContext context = new DefaultInjectionContext(Executors.newFixedThreadPool(2));
+        context.register(singleton(Report.class).lazy());
+        context.register(singleton(Eager.class));
+        context.initialize();
+
+        assertEquals(0, createdReports.get(), "Lazy singletons must not be created during the parallel initialization");
+    }
+
+    @Test
+    public void lazyCyclesAreDetectedOnInitialization() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(X.class).withConstructor(Y.class).lazy());
+        context.register(singleton(Y.class).withConstructor(X.class).lazy());
+
+        assertThrows(IllegalStateException.class, () -> context.initialize(),
+                "Cycles between lazy singletons must still be detected during the initialization");
+    }
+
+}
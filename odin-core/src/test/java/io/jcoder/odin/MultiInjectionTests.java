@@ -0,0 +1,191 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.ReferenceBuilder.paramOfType;
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class MultiInjectionTests {
+
+    private static final AtomicInteger createdPlugins = new AtomicInteger();
+
+    public interface Plugin {
+    }
+
+    public static class PluginA implements Plugin {
+    }
+
+    public static class PluginB implements Plugin {
+    }
+
+    public static class Host {
+        private final List<Plugin> plugins;
+
+        public Host(List<Plugin> plugins) {
+            this.plugins = plugins;
+        }
+    }
+
+    public static class StreamHost {
+        private final Stream<Plugin> plugins;
+
+        public StreamHost(Stream<Plugin> plugins) {
+            this.plugins = plugins;
+        }
+    }
+
+    public static class IterableHost {
+        private final Iterable<Plugin> plugins;
+
+        public IterableHost(Iterable<Plugin> plugins) {
+            this.plugins = plugins;
+        }
+    }
+
+    public static class CountedPlugin implements Plugin {
+        public CountedPlugin() {
+            createdPlugins.incrementAndGet();
+        }
+    }
+
+    public static class ArrayHost {
+        private final Plugin[] plugins;
+
+        public ArrayHost(Plugin[] plugins) {
+            this.plugins = plugins;
+        }
+    }
+
+    @Test
+    public void singletonContributorsAreShared() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(PluginA.class));
+        context.register(singleton(PluginB.class));
+        context.register(type(Host.class).withConstructor(paramOfType(List.class).multi().ofGenericType(Plugin.class)));
+        context.initialize();
+
+        final Host host1 = context.get(Host.class);
+        final Host host2 = context.get(Host.class);
+        assertEquals(2, host1.plugins.size(), "Both plugins must be injected");
+        assertTrue(host1.plugins == host2.plugins, "The list of singleton plugins must be shared by every injection");
+        assertThrows(UnsupportedOperationException.class, () -> host1.plugins.clear(), "A shared list must not be modifiable");
+    }
+
+    @Test
+    public void unscopedContributorsAreNotShared() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(PluginA.class));
+        context.register(type(PluginB.class));
+        context.register(type(Host.class).withConstructor(paramOfType(List.class).multi().ofGenericType(Plugin.class)));
+        context.initialize();
+
+        final Host host1 = context.get(Host.class);
+        final Host host2 = context.get(Host.class);
+        assertEquals(2, host1.plugins.size(), "Both plugins must be injected");
+        assertFalse(host1.plugins == host2.plugins, "Each injection must get its own list when a plugin is unscoped");
+        assertTrue(host1.plugins.get(0) == host2.plugins.get(0), "PluginA is a singleton - only one instance must have been created");
+        assertFalse(host1.plugins.get(1) == host2.plugins.get(1), "PluginB is unscoped - each injection must create a new instance");
+        assertThrows(UnsupportedOperationException.class, () -> host1.plugins.clear(),
+                "Lists must not be modifiable whatever the scope of their plugins");
+    }
+
+    @Test
+    public void arraysAreCopiedForEachInjection() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(PluginA.class));
+        context.register(singleton(PluginB.class));
+        context.register(type(ArrayHost.class).withConstructor(paramOfType(Plugin[].class).multi()));
+        context.initialize();
+
+        final ArrayHost host1 = context.get(ArrayHost.class);
+        final ArrayHost host2 = context.get(ArrayHost.class);
+        assertEquals(2, host1.plugins.length, "Both plugins must be injected");
+        assertFalse(host1.plugins == host2.plugins, "Each injection must get its own array");
+        assertTrue(host1.plugins[0] == host2.plugins[0], "Plugins are singletons - only one instance must have been created");
+    }
+
+    @Test
+    public void contributorsAreResolvedAgainOnRegister() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(PluginA.class));
+        context.register(type(Host.class).withConstructor(paramOfType(List.class).multi().ofGenericType(Plugin.class)));
+        context.initialize();
+
+        assertEquals(1, context.get(Host.class).plugins.size(), "Only PluginA is registered yet");
+
+        context.register(singleton(PluginB.class));
+        assertEquals(2, context.get(Host.class).plugins.size(), "PluginB must be injected after being registered");
+    }
+
+    @Test
+    public void streamsCreateElementsWhenReached() throws Exception {
+        createdPlugins.set(0);
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(type(CountedPlugin.class).named("first"));
+        context.register(type(CountedPlugin.class).named("second"));
+        context.register(type(StreamHost.class).withConstructor(paramOfType(Stream.class).multi().ofGenericType(Plugin.class)));
+        context.initialize();
+
+        final StreamHost host = context.get(StreamHost.class);
+        assertEquals(0, createdPlugins.get(), "Injecting a stream must not create any plugin");
+
+        assertTrue(host.plugins.findFirst().isPresent(), "The stream must contain the registered plugins");
+        assertEquals(1, createdPlugins.get(), "Only the plugins reached by the stream must be created");
+
+        assertEquals(2, context.getMultiStream(Plugin.class).count(), "The context stream must contain both plugins");
+    }
+
+    @Test
+    public void iterablesCreateElementsWhenReached() throws Exception {
+        createdPlugins.set(0);
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(type(CountedPlugin.class).named("first"));
+        context.register(type(CountedPlugin.class).named("second"));
+        context.register(singleton(IterableHost.class).withConstructor(paramOfType(Iterable.class).multi().ofGenericType(Plugin.class)));
+        context.initialize();
+
+        final IterableHost host = context.get(IterableHost.class);
+        assertEquals(0, createdPlugins.get(), "Injecting an iterable must not create any plugin");
+
+        final Iterator<Plugin> iterator = host.plugins.iterator();
+        assertTrue(iterator.hasNext(), "The iterable must contain the registered plugins");
+        iterator.next();
+        assertEquals(1, createdPlugins.get(), "Only the plugins reached by the iterator must be created");
+
+        int count = 0;
+        for (Plugin plugin : host.plugins) {
+            count++;
+        }
+        assertEquals(2, count, "The iterable must be iterable more than once");
+    }
+
+}
@@ -0,0 +1,264 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class OrderedDestructionTests {
+
+    public static class Database {
+    }
+
+    public static class Repository {
+        public Repository(Database database) {
+        }
+    }
+
+    public static class Service {
+        public Service(Repository repository) {
+        }
+    }
+
+    public static class Cache {
+    }
+
+    public static class FirstClient {
+        public FirstClient(Database database) {
+        }
+    }
+
+    public static class SecondClient {
+        public SecondClient(Database database) {
+        }
+    }
+
+    public static class ThirdClient {
+        public ThirdClient(Database database) {
+        }
+    }
+
+    public static class CycleA {
+        public void setB(CycleB b) {
+        }
+    }
+
+    public static class CycleB {
+        public CycleB(Database database) {
+        }
+
+        public void setA(CycleA a) {
+        }
+    }
+
+    public static class CycleConsumer {
+        public CycleConsumer(CycleA a) {
+        }
+    }
+
+    public static class Metrics {
+    }
+
+    @Test
+    public void dependentsAreDestroyedFirst() throws Exception {
+        final List<Class<?>> destroyed = new CopyOnWriteArrayList<>();
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(Service.class).withPreDestroy(service -> destroyed.add(Service.class)));
+        context.register(singleton(Database.class).withPreDestroy(database -> destroyed.add(Database.class)));
+        context.register(singleton(Repository.class).withPreDestroy(repository -> destroyed.add(Repository.class)));
+        context.initialize();
+
+        context.destroy();
+
+        assertEquals(Arrays.asList(Service.class, Repository.class, Database.class), destroyed,
+                "Objects must be destroyed before the objects they depend on");
+    }
+
+    @Test
+    public void independentObjectsAreDestroyedInParallel() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final CountDownLatch bothDestroying = new CountDownLatch(2);
+        final InjectionContext context = new DefaultInjectionContext(executor);
+        context.register(singleton(Cache.class).withPreDestroy(cache -> awaitLatch(bothDestroying)));
+        context.register(singleton(Metrics.class).withPreDestroy(metrics -> awaitLatch(bothDestroying)));
+        context.initialize();
+
+        context.destroy();
+        executor.shutdown();
+
+        assertEquals(0, bothDestroying.getCount(), "Independent objects must be destroyed at the same time");
+    }
+
+    @Test
+    public void slowDestructionsAreAbandonedAfterTheTimeout() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final CountDownLatch neverReleased = new CountDownLatch(1);
+        final List<Class<?>> destroyed = new CopyOnWriteArrayList<>();
+        final InjectionContext context = new DefaultInjectionContext(executor, Duration.ofMillis(100));
+        context.register(singleton(Cache.class).withPreDestroy(cache -> await(neverReleased)));
+        context.register(singleton(Metrics.class).withPreDestroy(metrics -> destroyed.add(Metrics.class)));
+        context.initialize();
+
+        final long start = System.nanoTime();
+        context.destroy();
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        neverReleased.countDown();
+        executor.shutdown();
+
+        assertTrue(elapsedMillis < 2000, "The context must not wait for destructions that exceed the timeout");
+        assertEquals(Arrays.asList(Metrics.class), destroyed, "Other objects must still be destroyed");
+    }
+
+    @Test
+    public void queuedDestructionsDontTimeOutBeforeTheyStart() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final List<Class<?>> destroyed = new CopyOnWriteArrayList<>();
+        final InjectionContext context = new DefaultInjectionContext(executor, Duration.ofMillis(500));
+        context.register(singleton(Database.class).withPreDestroy(database -> destroyed.add(Database.class)));
+        context.register(singleton(FirstClient.class).withPreDestroy(client -> sleepAndAdd(destroyed, FirstClient.class)));
+        context.register(singleton(SecondClient.class).withPreDestroy(client -> sleepAndAdd(destroyed, SecondClient.class)));
+        context.register(singleton(ThirdClient.class).withPreDestroy(client -> sleepAndAdd(destroyed, ThirdClient.class)));
+        context.initialize();
+
+        // the third client waits for a thread until the first two are destroyed, and then has its own timeout
+        context.destroy();
+        executor.shutdown();
+
+        assertEquals(4, destroyed.size(), "Every object must be destroyed");
+        assertEquals(Database.class, destroyed.get(3), "Objects must be destroyed before the objects they depend on");
+    }
+
+    @Test
+    public void destructionsBehindAStuckOneRunInTheCallingThread() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch neverReleased = new CountDownLatch(1);
+        final List<Class<?>> destroyed = new CopyOnWriteArrayList<>();
+        final InjectionContext context = new DefaultInjectionContext(executor, Duration.ofMillis(200));
+        context.register(singleton(Database.class).withPreDestroy(database -> destroyed.add(Database.class)));
+        context.register(singleton(FirstClient.class).withPreDestroy(client -> await(neverReleased)));
+        context.initialize();
+
+        final long start = System.nanoTime();
+        context.destroy();
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        neverReleased.countDown();
+        executor.shutdown();
+
+        assertTrue(elapsedMillis < 2000, "The context must not wait for a thread stuck in a destruction that timed out");
+        assertEquals(Arrays.asList(Database.class), destroyed, "The objects waiting for the stuck thread must still be destroyed");
+    }
+
+    @Test
+    public void timedOutCyclesAreNotDestroyedTwice() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicBoolean first = new AtomicBoolean(true);
+        final List<Class<?>> destroyed = new CopyOnWriteArrayList<>();
+        final InjectionContext context = new DefaultInjectionContext(executor, Duration.ofMillis(100));
+        context.register(singleton(Database.class));
+        context.register(singleton(CycleA.class).withSetter(CycleA::setB, CycleB.class)
+                .withPreDestroy(a -> blockFirstAndAdd(first, release, destroyed, CycleA.class)));
+        context.register(singleton(CycleB.class).withSetter(CycleB::setA, CycleA.class)
+                .withPreDestroy(b -> blockFirstAndAdd(first, release, destroyed, CycleB.class)));
+        context.initialize();
+
+        // the cycle times out in its first member, and the rest of the scope is destroyed while it's stuck
+        context.destroy();
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS), "The stuck destruction must finish");
+
+        assertEquals(2, destroyed.size(), "Every member of the cycle must be destroyed once: " + destroyed);
+        assertEquals(new HashSet<>(Arrays.asList(CycleA.class, CycleB.class)), new HashSet<>(destroyed),
+                "Every member of the cycle must be destroyed once");
+    }
+
+    @Test
+    public void cyclesAreDestroyedBetweenTheirDependentsAndDependencies() throws Exception {
+        final List<Class<?>> destroyed = new CopyOnWriteArrayList<>();
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(CycleConsumer.class).withPreDestroy(consumer -> destroyed.add(CycleConsumer.class)));
+        context.register(singleton(Database.class).withPreDestroy(database -> destroyed.add(Database.class)));
+        context.register(singleton(CycleA.class).withSetter(CycleA::setB, CycleB.class)
+                .withPreDestroy(a -> destroyed.add(CycleA.class)));
+        context.register(singleton(CycleB.class).withSetter(CycleB::setA, CycleA.class)
+                .withPreDestroy(b -> destroyed.add(CycleB.class)));
+        context.initialize();
+
+        context.destroy();
+
+        assertEquals(4, destroyed.size(), "Every object must be destroyed");
+        assertEquals(CycleConsumer.class, destroyed.get(0), "Objects that depend on a cycle must be destroyed before it");
+        assertEquals(new HashSet<>(Arrays.asList(CycleA.class, CycleB.class)), new HashSet<>(destroyed.subList(1, 3)),
+                "The members of a cycle must be destroyed together");
+        assertEquals(Database.class, destroyed.get(3), "Objects a cycle depends on must be destroyed after it");
+    }
+
+    @Test
+    public void timeoutRequiresAnExecutor() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> new DefaultInjectionContext(null, Duration.ofSeconds(1)),
+                "A destroy timeout can't be enforced without an executor");
+    }
+
+    private static void sleepAndAdd(List<Class<?>> destroyed, Class<?> type) {
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        destroyed.add(type);
+    }
+
+    private static void blockFirstAndAdd(AtomicBoolean first, CountDownLatch release, List<Class<?>> destroyed, Class<?> type) {
+        if (first.getAndSet(false)) {
+            await(release);
+        }
+        destroyed.add(type);
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        latch.countDown();
+        await(latch);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
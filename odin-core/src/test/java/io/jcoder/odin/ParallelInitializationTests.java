@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.graph.CompleteDependencyProvider;
+import io.jcoder.odin.graph.DependencyGraph;
+import io.jcoder.odin.registration.InjectionRegistration;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class ParallelInitializationTests {
+
+    /**
+     * Released once the three independent singletons are being initialized at the same time.
+     */
+    private static final CountDownLatch allStarted = new CountDownLatch(3);
+
+    public static abstract class Independent {
+        protected volatile boolean initialized;
+
+        public void init() {
+            allStarted.countDown();
+            try {
+                initialized = allStarted.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static class A extends Independent {
+    }
+
+    public static class B extends Independent {
+    }
+
+    public static class C extends Independent {
+    }
+
+    public static class D {
+        private final boolean dependenciesInitialized;
+
+        public D(A a, B b, C c) {
+            this.dependenciesInitialized = a.initialized && b.initialized && c.initialized;
+        }
+    }
+
+    @Test
+    public void independentSingletonsAreCreatedInParallel() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final InjectionContext context = new DefaultInjectionContext(executor);
+            context.register(singleton(A.class).withPostConstructor(A::init));
+            context.register(singleton(B.class).withPostConstructor(B::init));
+            context.register(singleton(C.class).withPostConstructor(C::init));
+            context.register(singleton(D.class));
+
+            context.initialize();
+
+            assertTrue(context.get(A.class).initialized, "A, B and C must have been initialized at the same time");
+            assertTrue(context.get(D.class).dependenciesInitialized,
+                    "D must be created after its dependencies have been fully initialized");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void dependencyLayers() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(A.class));
+        context.register(singleton(B.class));
+        context.register(singleton(C.class));
+        context.register(singleton(D.class));
+
+        final List<List<InjectionRegistration<?>>> layers = new DependencyGraph(context, new CompleteDependencyProvider()).getLayers();
+
+        assertEquals(2, layers.size(), "A, B and C must be in the first layer and D in the second one");
+        assertEquals(3, layers.get(0).size(), "A, B and C don't have dependencies");
+        assertEquals(D.class, layers.get(1).get(0).getRegisteredClass(), "D depends on A, B and C");
+    }
+
+}
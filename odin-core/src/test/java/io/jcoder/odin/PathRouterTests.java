@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.web.PathRouter;
+import io.jcoder.odin.web.PathRouter.Route;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class PathRouterTests {
+
+    @Test
+    public void longestPrefixAtSegmentBoundary() throws Exception {
+        final Map<String, String> prefixes = new HashMap<>();
+        prefixes.put("/api", "api");
+        prefixes.put("/api/users", "users");
+        prefixes.put("/apidocs", "apidocs");
+        final PathRouter<String> router = PathRouter.compile(prefixes, new HashMap<>());
+
+        assertRoute(router, "/api", "api", 4);
+        assertRoute(router, "/api/orders/1", "api", 4);
+        assertRoute(router, "/api/users", "users", 10);
+        assertRoute(router, "/api/users/1", "users", 10);
+        assertRoute(router, "/apidocs/index", "apidocs", 8);
+        assertNull(router.route("/apix"), "Prefixes must only match complete path segments");
+        assertNull(router.route("/ap"), "Paths shorter than every prefix must not match");
+        assertNull(router.route("/other"), "Unregistered paths must not match");
+    }
+
+    @Test
+    public void emptyPrefixMatchesEverything() throws Exception {
+        final Map<String, String> prefixes = new HashMap<>();
+        prefixes.put("", "root");
+        prefixes.put("/static", "static");
+        final Map<String, String> extensions = new HashMap<>();
+        extensions.put(".jsp", "jsp");
+        final PathRouter<String> router = PathRouter.compile(prefixes, extensions);
+
+        assertRoute(router, "/static/app.js", "static", 7);
+        assertRoute(router, "/page.jsp", "root", 0);
+        assertRoute(router, "", "root", 0);
+    }
+
+    @Test
+    public void longestExtensionWhenNoPrefixMatches() throws Exception {
+        final Map<String, String> prefixes = new HashMap<>();
+        prefixes.put("/api", "api");
+        final Map<String, String> extensions = new HashMap<>();
+        extensions.put(".gz", "gz");
+        extensions.put(".tar.gz", "tar");
+        extensions.put(".jsp", "jsp");
+        final PathRouter<String> router = PathRouter.compile(prefixes, extensions);
+
+        assertRoute(router, "/files/archive.tar.gz", "tar", 21);
+        assertRoute(router, "/files/archive.gz", "gz", 17);
+        assertRoute(router, "/index.jsp", "jsp", 10);
+        assertRoute(router, "/api/index.jsp", "api", 4);
+        assertNull(router.route("/index.html"), "Unregistered extensions must not match");
+        assertNull(router.route("gz"), "Paths shorter than the extension must not match");
+    }
+
+    private static void assertRoute(PathRouter<String> router, String path, String expectedValue, int expectedLength) {
+        final Route<String> route = router.route(path);
+        assertEquals(expectedValue, route == null ? null : route.getValue(), "Unexpected mapping for path " + path);
+        assertEquals(expectedLength, route.getMatchedLength(), "Unexpected servlet path length for path " + path);
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.ReferenceBuilder.paramOfType;
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class PriorityOrderTests {
+
+    public interface Step {
+    }
+
+    public static class A implements Step {
+    }
+
+    public static class B implements Step {
+    }
+
+    public static class C implements Step {
+    }
+
+    public static class Pipeline {
+        private final List<Step> steps;
+
+        public Pipeline(List<Step> steps) {
+            this.steps = steps;
+        }
+    }
+
+    @Test
+    public void multiInjectionFollowsPriority() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(A.class));
+        context.register(singleton(B.class).priority(5));
+        context.register(singleton(C.class).priority(10));
+        context.register(type(Pipeline.class).withConstructor(paramOfType(List.class).multi().ofGenericType(Step.class)));
+        context.initialize();
+
+        final List<Step> steps = context.get(Pipeline.class).steps;
+        assertTrue(steps.get(0) instanceof C, "C has the highest priority");
+        assertTrue(steps.get(1) instanceof B, "B has a higher priority than A");
+        assertTrue(steps.get(2) instanceof A, "A has the default priority");
+        assertEquals(steps, context.getMulti(Step.class), "getMulti must follow the same order");
+        assertEquals(steps, context.getMultiStream(Step.class).collect(Collectors.toList()), "getMultiStream must follow the same order");
+    }
+
+    @Test
+    public void samePriorityKeepsRegistryOrder() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(C.class).priority(1));
+        context.register(singleton(B.class).priority(1));
+        context.register(singleton(A.class).priority(1));
+        context.initialize();
+        context.freeze();
+
+        final List<Step> steps = context.getMulti(Step.class);
+        assertTrue(steps.get(0) instanceof A, "Registrations with the same priority must be sorted by class name");
+        assertTrue(steps.get(1) instanceof B, "Registrations with the same priority must be sorted by class name");
+        assertTrue(steps.get(2) instanceof C, "Registrations with the same priority must be sorted by class name");
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.ReferenceBuilder.paramOfType;
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.reference.InjectableReference;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class ReferenceBindingTests {
+
+    public static class A {
+    }
+
+    public static class B {
+        private final A a;
+
+        public B(final A a) {
+            this.a = a;
+        }
+    }
+
+    @Test
+    public void bindingIsInvalidatedOnRegister() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(type(B.class).withConstructor(paramOfType(A.class).nullable()));
+
+        context.initialize();
+
+        assertNull(context.get(B.class).a, "No A is registered yet");
+
+        context.register(singleton(A.class));
+
+        final B b = context.get(B.class);
+        assertNotNull(b.a, "The reference to A must be resolved again after registering A");
+        assertTrue(b.a == context.get(A.class), "A is a singleton - only one instance must have been created");
+    }
+
+    @Test
+    public void sharedReferenceAcrossContexts() throws Exception {
+        final InjectableReference<A> referenceToA = paramOfType(A.class).build();
+
+        final InjectionContext context1 = new DefaultInjectionContext();
+        context1.register(singleton(A.class));
+        context1.register(type(B.class).withConstructor(referenceToA));
+        context1.initialize();
+
+        final InjectionContext context2 = new DefaultInjectionContext();
+        context2.register(singleton(A.class));
+        context2.register(type(B.class).withConstructor(referenceToA));
+        context2.initialize();
+
+        assertTrue(context1.get(B.class).a == context1.get(A.class), "Context 1 must inject its own instance of A");
+        assertTrue(context2.get(B.class).a == context2.get(A.class), "Context 2 must inject its own instance of A");
+    }
+
+}
@@ -0,0 +1,343 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.WebTestFixtures.request;
+import static io.jcoder.odin.WebTestFixtures.response;
+import static io.jcoder.odin.builder.RegistrationBuilder.object;
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequestWrapper;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.WebTestFixtures.AsyncState;
+import io.jcoder.odin.WebTestFixtures.TestWebServlet;
+import io.jcoder.odin.web.RequestScope;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class RequestScopeTests {
+
+    public static class RequestBean {
+    }
+
+    public static class BeanServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+
+        private final InjectionContext context;
+
+        private final List<RequestBean> served = new ArrayList<>();
+
+        public BeanServlet(InjectionContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public void service(HttpServletRequest req, HttpServletResponse resp) {
+            final RequestBean bean = context.get(RequestBean.class);
+            assertSame(bean, context.get(RequestBean.class), "A request must always get the same request scoped object");
+            served.add(bean);
+        }
+    }
+
+    public static class NoBeanServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void service(HttpServletRequest req, HttpServletResponse resp) {
+        }
+    }
+
+    public static class AsyncBeanServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+
+        private final InjectionContext context;
+
+        private RequestBean containerBean;
+
+        private volatile RequestBean workerBean;
+
+        public AsyncBeanServlet(InjectionContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public void service(HttpServletRequest req, HttpServletResponse resp) {
+            containerBean = context.get(RequestBean.class);
+            req.startAsync().start(() -> workerBean = context.get(RequestBean.class));
+        }
+    }
+
+    public static class DispatchingServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+
+        private final InjectionContext context;
+
+        private RequestBean containerBean;
+
+        private volatile RequestBean workerBean;
+
+        private RequestBean dispatchedBean;
+
+        public DispatchingServlet(InjectionContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public void service(HttpServletRequest req, HttpServletResponse resp) {
+            if (req.getAttribute("dispatched") == null) {
+                containerBean = context.get(RequestBean.class);
+                final AsyncContext asyncContext = req.startAsync();
+                asyncContext.start(() -> {
+                    workerBean = context.get(RequestBean.class);
+                    req.setAttribute("dispatched", Boolean.TRUE);
+                    asyncContext.dispatch();
+                });
+            } else {
+                dispatchedBean = context.get(RequestBean.class);
+            }
+        }
+    }
+
+    public static class ContainerAsyncServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+
+        private final InjectionContext context;
+
+        private RequestBean containerBean;
+
+        public ContainerAsyncServlet(InjectionContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public void service(HttpServletRequest req, HttpServletResponse resp) {
+            containerBean = context.get(RequestBean.class);
+            ((ServletRequestWrapper) req).getRequest().startAsync();
+        }
+    }
+
+    public static class LateTaskServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+
+        private final InjectionContext context;
+
+        private Callable<RequestBean> lateTask;
+
+        public LateTaskServlet(InjectionContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public void service(HttpServletRequest req, HttpServletResponse resp) {
+            final RequestScope requestScope = (RequestScope) context.getScope(RequestScope.class);
+            lateTask = requestScope.inCurrentRequest(() -> context.get(RequestBean.class));
+        }
+    }
+
+    private static class ScopeTestServlet extends TestWebServlet {
+        private static final long serialVersionUID = 1L;
+
+        private final BeanServlet beanServlet = new BeanServlet(context);
+
+        private final AsyncBeanServlet asyncBeanServlet = new AsyncBeanServlet(context);
+
+        private final DispatchingServlet dispatchingServlet = new DispatchingServlet(context);
+
+        private final LateTaskServlet lateTaskServlet = new LateTaskServlet(context);
+
+        private final ContainerAsyncServlet containerAsyncServlet = new ContainerAsyncServlet(context);
+
+        private final List<RequestBean> destroyed = new ArrayList<>();
+
+        @Override
+        protected void register(InjectionContext context) throws NoSuchMethodException {
+            context.register(type(RequestBean.class).scopedTo(RequestScope.class).withPreDestroy(destroyed::add));
+            context.register(object(beanServlet));
+            context.register(object(asyncBeanServlet));
+            context.register(object(dispatchingServlet));
+            context.register(object(lateTaskServlet));
+            context.register(object(containerAsyncServlet));
+            context.register(singleton(NoBeanServlet.class));
+        }
+
+        @Override
+        protected void registerServlets(InjectionContext context) throws ServletException {
+            registerServlet("/bean", BeanServlet.class);
+            registerServlet("/plain", NoBeanServlet.class);
+            registerServlet("/async", AsyncBeanServlet.class);
+            registerServlet("/dispatch", DispatchingServlet.class);
+            registerServlet("/late", LateTaskServlet.class);
+            registerServlet("/container-async", ContainerAsyncServlet.class);
+        }
+    }
+
+    private static boolean hasRequestScopeAttributes(Map<String, Object> attributes) {
+        return attributes.keySet().stream().anyMatch(key -> key.startsWith(RequestScope.class.getName()));
+    }
+
+    @Test
+    public void requestObjectsAreDestroyedWhenTheRequestEnds() throws Exception {
+        final ScopeTestServlet servlet = new ScopeTestServlet();
+        servlet.init(null);
+
+        final Map<String, Object> attributes1 = new HashMap<>();
+        final Map<String, Object> attributes2 = new HashMap<>();
+        servlet.service(request("/bean", attributes1), response());
+        servlet.service(request("/bean", attributes2), response());
+
+        final List<RequestBean> served = servlet.beanServlet.served;
+        assertEquals(2, served.size(), "Both requests must have been served");
+        assertNotSame(served.get(0), served.get(1), "Each request must get its own request scoped object");
+        assertEquals(served, servlet.destroyed, "Request scoped objects must be destroyed when their request ends");
+        assertFalse(hasRequestScopeAttributes(attributes1) || hasRequestScopeAttributes(attributes2),
+                "The request scope must be removed from the request");
+        assertNull(servlet.context.getScope(RequestScope.class).getInstance(servlet.context.getRegistration(RequestBean.class)),
+                "There must be no request scoped object outside a request");
+    }
+
+    @Test
+    public void requestsWithoutRequestObjectsDontCreateAScope() throws Exception {
+        final ScopeTestServlet servlet = new ScopeTestServlet();
+        servlet.init(null);
+
+        final Map<String, Object> attributes = new HashMap<String, Object>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Object put(String key, Object value) {
+                assertFalse(key.startsWith(RequestScope.class.getName()), "No request scope must be set in the request");
+                return super.put(key, value);
+            }
+        };
+        servlet.service(request("/plain", attributes), response());
+
+        assertTrue(servlet.destroyed.isEmpty(), "No request scoped object must have been created");
+    }
+
+    @Test
+    public void tasksRunAfterTheRequestEndsCantCreateRequestObjects() throws Exception {
+        final ScopeTestServlet servlet = new ScopeTestServlet();
+        servlet.init(null);
+
+        final Map<String, Object> attributes = new HashMap<>();
+        servlet.service(request("/late", attributes), response());
+
+        assertThrows(IllegalStateException.class, () -> servlet.lateTaskServlet.lateTask.call(),
+                "Tasks run after their request has ended must not create request scoped objects");
+        assertFalse(hasRequestScopeAttributes(attributes), "No request scope must be set in the ended request");
+        assertTrue(servlet.destroyed.isEmpty(), "No request scoped object must have been created");
+    }
+
+    @Test
+    public void asyncRequestObjectsLiveUntilCompletion() throws Exception {
+        final ScopeTestServlet servlet = new ScopeTestServlet();
+        servlet.init(null);
+
+        final Map<String, Object> attributes = new HashMap<>();
+        final AsyncState async = new AsyncState();
+        servlet.service(request("/async", attributes, async), response());
+
+        assertTrue(servlet.destroyed.isEmpty(), "Request scoped objects must not be destroyed while the request is asynchronous");
+        assertEquals(1, async.tasks.size(), "The asynchronous task must have been started");
+
+        final Thread worker = new Thread(async.tasks.get(0));
+        worker.start();
+        worker.join();
+
+        final RequestBean bean = servlet.asyncBeanServlet.containerBean;
+        assertSame(bean, servlet.asyncBeanServlet.workerBean, "Asynchronous tasks must run within the scope of their request");
+        assertTrue(servlet.destroyed.isEmpty(), "Request scoped objects must not be destroyed before completion");
+
+        async.asyncContext.complete();
+
+        assertEquals(Arrays.asList(bean), servlet.destroyed, "Request scoped objects must be destroyed on completion");
+        assertFalse(hasRequestScopeAttributes(attributes), "The request scope must be removed from the request");
+    }
+
+    @Test
+    public void requestsMadeAsyncInTheContainerRequestLiveUntilCompletion() throws Exception {
+        final ScopeTestServlet servlet = new ScopeTestServlet();
+        servlet.init(null);
+
+        final Map<String, Object> attributes = new HashMap<>();
+        final AsyncState async = new AsyncState();
+        servlet.service(request("/container-async", attributes, async), response());
+
+        assertTrue(servlet.destroyed.isEmpty(), "Request scoped objects must not be destroyed while the request is asynchronous");
+
+        async.asyncContext.complete();
+
+        assertEquals(Arrays.asList(servlet.containerAsyncServlet.containerBean), servlet.destroyed,
+                "Request scoped objects must be destroyed on completion");
+        assertFalse(hasRequestScopeAttributes(attributes), "The request scope must be removed from the request");
+    }
+
+    @Test
+    public void asyncRequestObjectsLiveAcrossDispatches() throws Exception {
+        final ScopeTestServlet servlet = new ScopeTestServlet();
+        servlet.init(null);
+
+        final Map<String, Object> attributes = new HashMap<>();
+        final AsyncState async = new AsyncState();
+        // the worker dispatches the request before the container thread leaves the servlet
+        async.runTasksRightAway = true;
+        final HttpServletRequest request = request("/dispatch", attributes, async);
+        servlet.service(request, response());
+
+        assertTrue(async.dispatched, "The worker must have dispatched the request");
+        assertTrue(servlet.destroyed.isEmpty(), "Request scoped objects must not be destroyed before the dispatch");
+
+        servlet.service(request, response());
+
+        final DispatchingServlet dispatchingServlet = servlet.dispatchingServlet;
+        assertSame(dispatchingServlet.containerBean, dispatchingServlet.workerBean,
+                "Asynchronous tasks must run within the scope of their request");
+        assertSame(dispatchingServlet.containerBean, dispatchingServlet.dispatchedBean,
+                "Dispatches must run within the scope of their request");
+
+        // the container completes the request once the dispatch returns
+        async.asyncContext.complete();
+
+        assertEquals(Arrays.asList(dispatchingServlet.containerBean), servlet.destroyed,
+                "Request scoped objects must be destroyed once, on completion");
+        assertFalse(hasRequestScopeAttributes(attributes), "The request scope must be removed from the request");
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class RootInitializationTests {
+
+    private static final AtomicInteger createdUnused = new AtomicInteger();
+
+    public static class Repository {
+    }
+
+    public static class Service {
+        private final Repository repository;
+
+        public Service(Repository repository) {
+            this.repository = repository;
+        }
+    }
+
+    public static class Unused {
+        public Unused() {
+            createdUnused.incrementAndGet();
+        }
+    }
+
+    public static class UnusedHelper {
+    }
+
+    public static class LazyUnused {
+    }
+
+    @Test
+    public void onlyReachableSingletonsAreCreated() throws Exception {
+        createdUnused.set(0);
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(Repository.class));
+        context.register(singleton(Service.class));
+        context.register(singleton(Unused.class));
+        context.register(type(UnusedHelper.class));
+        context.register(singleton(LazyUnused.class).lazy());
+
+        final int pruned = context.initialize(Service.class);
+        assertEquals(1, pruned, "Only Unused is an eager singleton that can't be reached from Service");
+        assertEquals(0, createdUnused.get(), "Unreachable singletons must not be created on initialization");
+        assertNotNull(context.get(Service.class).repository, "Reachable dependencies must be injected");
+
+        assertNotNull(context.get(Unused.class), "Unreachable singletons must still be available on demand");
+        assertEquals(1, createdUnused.get(), "Unreachable singletons must be created when first requested");
+    }
+
+    @Test
+    public void onlyReachableSingletonsAreCreatedInParallel() throws Exception {
+        createdUnused.set(0);
+        final InjectionContext context = new DefaultInjectionContext(Executors.newFixedThreadPool(2));
+        context.register(singleton(Repository.class));
+        context.register(singleton(Service.class));
+        context.register(singleton(Unused.class));
+
+        context.initialize(Service.class);
+        assertEquals(0, createdUnused.get(), "Unreachable singletons must not be created on parallel initialization");
+    }
+
+    @Test
+    public void rootsMustBeRegistered() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+        context.register(singleton(Repository.class));
+
+        assertThrows(IllegalArgumentException.class, () -> context.initialize(Service.class), "Roots must be registered");
+        assertFalse(context.initialized(), "A context must not be initialized when its roots are not registered");
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.registration.InjectionRegistration;
+import io.jcoder.odin.scope.InstanceScope;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class ScopePropagationTests {
+
+    public static class SessionBean {
+    }
+
+    /**
+     * A scope that keeps the instances of the session bound to the current thread.
+     */
+    public static class SessionScope implements InstanceScope {
+        private final ThreadLocal<Map<InjectionRegistration<?>, Object>> session = new ThreadLocal<>();
+
+        void begin() {
+            session.set(new ConcurrentHashMap<>());
+        }
+
+        void end() {
+            session.remove();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> T getInstance(InjectionRegistration<T> registration) {
+            final Map<InjectionRegistration<?>, Object> instances = session.get();
+            return instances == null ? null : (T) instances.get(registration);
+        }
+
+        @Override
+        public <T> boolean setInstance(InjectionRegistration<T> registration, T object) {
+            final Map<InjectionRegistration<?>, Object> instances = session.get();
+            return instances != null && instances.putIfAbsent(registration, object) == null;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public Runnable propagate(Runnable task) {
+            final Map<InjectionRegistration<?>, Object> instances = session.get();
+            return () -> {
+                final Map<InjectionRegistration<?>, Object> previous = session.get();
+                session.set(instances);
+                try {
+                    task.run();
+                } finally {
+                    session.set(previous);
+                }
+            };
+        }
+    }
+
+    private final SessionScope sessionScope = new SessionScope();
+
+    private final InjectionContext context = new DefaultInjectionContext();
+
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        context.registerScope(sessionScope);
+        context.register(type(SessionBean.class).scopedTo(SessionScope.class));
+        context.initialize();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        sessionScope.end();
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void executorServiceTasksSeeTheSubmitterScope() throws Exception {
+        final ExecutorService executor = context.propagatingExecutorService(pool);
+
+        sessionScope.begin();
+        final SessionBean bean = context.get(SessionBean.class);
+
+        assertSame(bean, executor.submit(() -> context.get(SessionBean.class)).get(1, TimeUnit.SECONDS),
+                "Submitted tasks must get the objects of the submitting thread's scope");
+        assertSame(bean, executor.invokeAll(Arrays.asList(() -> context.get(SessionBean.class))).get(0).get(),
+                "Invoked tasks must get the objects of the submitting thread's scope");
+
+        sessionScope.begin();
+        final SessionBean otherBean = context.get(SessionBean.class);
+        assertNotSame(bean, otherBean, "A new session must get a new object");
+        assertSame(otherBean, executor.submit(() -> context.get(SessionBean.class)).get(1, TimeUnit.SECONDS),
+                "The scope must be captured when each task is submitted");
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS), "Shutting down the wrapper must shut down the pool");
+        assertTrue(pool.isShutdown(), "Shutting down the wrapper must shut down the pool");
+    }
+
+    @Test
+    public void shutdownNowReturnsTheSubmittedTasks() throws Exception {
+        final ExecutorService executor = context.propagatingExecutorService(pool);
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        sessionScope.begin();
+        executor.execute(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(running.await(1, TimeUnit.SECONDS), "The first task must be running");
+
+        final Runnable pending = () -> context.get(SessionBean.class);
+        executor.execute(pending);
+
+        assertEquals(Collections.singletonList(pending), executor.shutdownNow(),
+                "The tasks that never ran must be returned as they were submitted");
+        release.countDown();
+    }
+
+    @Test
+    public void executorTasksSeeTheSubmitterScope() throws Exception {
+        final Executor executor = context.propagatingExecutor(pool);
+
+        sessionScope.begin();
+        final SessionBean bean = context.get(SessionBean.class);
+
+        assertSame(bean, CompletableFuture.supplyAsync(() -> context.get(SessionBean.class), executor).get(1, TimeUnit.SECONDS),
+                "Executed tasks must get the objects of the submitting thread's scope");
+        assertNull(CompletableFuture.supplyAsync(() -> sessionScope.getInstance(context.getRegistration(SessionBean.class)), pool)
+                .get(1, TimeUnit.SECONDS), "The scope must be restored after the task runs");
+    }
+
+}
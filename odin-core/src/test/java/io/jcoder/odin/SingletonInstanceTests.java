@@ -0,0 +1,58 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.jcoder.odin.registration.InjectionRegistration;
+import io.jcoder.odin.scope.SingletonScope;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class SingletonInstanceTests {
+
+    public static class A {
+    }
+
+    @Test
+    public void singletonPerContext() throws Exception {
+        final InjectionRegistration<A> registration = singleton(A.class).build();
+
+        final InjectionContext context1 = new DefaultInjectionContext();
+        context1.register(registration);
+        context1.initialize();
+
+        final InjectionContext context2 = new DefaultInjectionContext();
+        context2.register(registration);
+        context2.initialize();
+
+        final A a1 = context1.get(A.class);
+        final A a2 = context2.get(A.class);
+
+        assertTrue(a1 == context1.get(A.class), "Context 1 must always return the same instance");
+        assertTrue(a2 == context2.get(A.class), "Context 2 must always return the same instance");
+        assertFalse(a1 == a2, "Each context must have its own singleton instance");
+        assertTrue(a1 == context1.getScope(SingletonScope.class).getInstance(registration),
+                "The singleton instance must be kept in the singleton scope of its context");
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import static io.jcoder.odin.builder.RegistrationBuilder.object;
+import static io.jcoder.odin.builder.RegistrationBuilder.singleton;
+import static io.jcoder.odin.builder.RegistrationBuilder.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Camilo Gonzalez
+ */
+public class TypeIndexedLookupTests {
+
+    public interface Base {
+    }
+
+    public interface Extended extends Base {
+    }
+
+    public static abstract class AbstractA implements Extended {
+    }
+
+    public static class A extends AbstractA {
+    }
+
+    public interface Marker {
+    }
+
+    public static class B implements Base, Marker {
+    }
+
+    @Test
+    public void lookupBySupertypes() throws Exception {
+        final InjectionContext context = new DefaultInjectionContext();
+
+        context.register(singleton(A.class));
+        context.register(type(B.class));
+        context.register(object(new String[] { "a", "b" }));
+
+        context.initialize();
+
+        final A a = context.get(A.class);
+        assertNotNull(a, "Instance 'a' must not be null");
+        assertTrue(a == context.get(AbstractA.class), "A must be found by its superclass");
+        assertTrue(a == context.get(Extended.class), "A must be found by its interface");
+        assertNotNull(context.get(Marker.class), "B must be found by its interface");
+
+        assertEquals(2, context.getMulti(Base.class).size(), "Both A and B implement Base");
+        assertTrue(context.exists(Object.class), "Every registration is assignable to Object");
+        assertFalse(context.exists(Runnable.class), "No registration implements Runnable");
+
+        assertTrue(context.exists(Object[].class), "String[] is assignable to Object[]");
+        assertTrue(context.exists(CharSequence[].class), "String[] is assignable to CharSequence[]");
+        assertFalse(context.exists(Integer[].class), "String[] is not assignable to Integer[]");
+        assertEquals(2, context.get(CharSequence[].class).length, "The registered array must be found by a supertype array");
+    }
+
+}
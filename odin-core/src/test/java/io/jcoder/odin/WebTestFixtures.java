@@ -0,0 +1,154 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import io.jcoder.odin.web.InjectionContextWebServlet;
+
+/**
+ * Fixtures for the tests that handle requests through an {@link InjectionContextWebServlet}: proxies for the requests
+ * and responses provided by the container, and a base for the servlets under test.
+ *
+ * @author Camilo Gonzalez
+ */
+final class WebTestFixtures {
+
+    private WebTestFixtures() {
+    }
+
+    /**
+     * An {@link InjectionContextWebServlet} that builds its context with the registrations of the test.
+     */
+    abstract static class TestWebServlet extends InjectionContextWebServlet {
+        private static final long serialVersionUID = 1L;
+
+        final InjectionContext context = new DefaultInjectionContext();
+
+        @Override
+        protected InjectionContext buildContext() {
+            try {
+                register(context);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException(ex);
+            }
+            context.initialize();
+            return context;
+        }
+
+        protected abstract void register(InjectionContext context) throws NoSuchMethodException;
+    }
+
+    /**
+     * The asynchronous state of a request, which collects the started tasks instead of running them unless they have to
+     * be run right away in another thread.
+     */
+    static class AsyncState {
+        boolean started;
+
+        boolean runTasksRightAway;
+
+        boolean dispatched;
+
+        final List<Runnable> tasks = new ArrayList<>();
+
+        private final List<AsyncListener> listeners = new ArrayList<>();
+
+        final AsyncContext asyncContext = (AsyncContext) Proxy.newProxyInstance(WebTestFixtures.class.getClassLoader(),
+                new Class<?>[] { AsyncContext.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "start":
+                        tasks.add((Runnable) args[0]);
+                        if (runTasksRightAway) {
+                            final Thread worker = new Thread((Runnable) args[0]);
+                            worker.start();
+                            worker.join();
+                        }
+                        return null;
+                    case "dispatch":
+                        started = false;
+                        dispatched = true;
+                        return null;
+                    case "addListener":
+                        listeners.add((AsyncListener) args[0]);
+                        return null;
+                    case "complete":
+                        started = false;
+                        for (final AsyncListener listener : listeners) {
+                            listener.onComplete(new AsyncEvent((AsyncContext) proxy, null, null));
+                        }
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    static HttpServletRequest request(String servletPath) {
+        return request(servletPath, new HashMap<>());
+    }
+
+    static HttpServletRequest request(String servletPath, Map<String, Object> attributes) {
+        return request(servletPath, attributes, new AsyncState());
+    }
+
+    static HttpServletRequest request(String servletPath, Map<String, Object> attributes, AsyncState async) {
+        return (HttpServletRequest) Proxy.newProxyInstance(WebTestFixtures.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getServletPath":
+                        return servletPath;
+                    case "getPathInfo":
+                        return null;
+                    case "getAttribute":
+                        return attributes.get(args[0]);
+                    case "setAttribute":
+                        attributes.put((String) args[0], args[1]);
+                        return null;
+                    case "removeAttribute":
+                        attributes.remove(args[0]);
+                        return null;
+                    case "isAsyncStarted":
+                        return async.started;
+                    case "startAsync":
+                        async.started = true;
+                        return async.asyncContext;
+                    case "getAsyncContext":
+                        return async.asyncContext;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    static HttpServletResponse response() {
+        return (HttpServletResponse) Proxy.newProxyInstance(WebTestFixtures.class.getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
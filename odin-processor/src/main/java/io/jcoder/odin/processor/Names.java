@@ -0,0 +1,93 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.processor;
+
+/**
+ * The names of the types referenced by the generated code. They are referenced by name so the processor doesn't depend
+ * on the Odin modules.
+ *
+ * @author Camilo Gonzalez
+ */
+final class Names {
+
+    static final String INJECT = "javax.inject.Inject";
+
+    static final String NAMED = "javax.inject.Named";
+
+    static final String SINGLETON = "javax.inject.Singleton";
+
+    static final String QUALIFIER = "javax.inject.Qualifier";
+
+    static final String PROVIDER = "javax.inject.Provider";
+
+    static final String POST_CONSTRUCT = "io.jcoder.odin.annotation.PostConstruct";
+
+    static final String PRE_DESTROY = "io.jcoder.odin.annotation.PreDestroy";
+
+    static final String LAZY = "io.jcoder.odin.annotation.Lazy";
+
+    static final String PRIORITY = "io.jcoder.odin.annotation.Priority";
+
+    static final String REQUEST_SCOPED = "io.jcoder.odin.annotation.RequestScoped";
+
+    static final String SCOPED_TO = "io.jcoder.odin.annotation.ScopedTo";
+
+    static final String COMPONENT = "io.jcoder.odin.annotation.component.Component";
+
+    static final String REGISTRATION = "io.jcoder.odin.annotation.component.Registration";
+
+    static final String REQUEST_SCOPE = "io.jcoder.odin.web.RequestScope";
+
+    static final String GENERATED_REGISTRATION = "io.jcoder.odin.annotation.generated.GeneratedRegistration";
+
+    static final String GENERATED_COMPONENT_REGISTRATION = "io.jcoder.odin.annotation.generated.GeneratedComponentRegistration";
+
+    static final String ANNOTATED = "io.jcoder.odin.annotation.builder.AnnotationAwareRegistrationBuilder.annotated";
+
+    static final String ANNOTATION_UTILS = "io.jcoder.odin.annotation.reflection.AnnotationUtils";
+
+    static final String REGISTRATION_BUILDER = "io.jcoder.odin.builder.RegistrationBuilder";
+
+    static final String REFERENCE_BUILDER = "io.jcoder.odin.builder.ReferenceBuilder";
+
+    static final String INJECTABLE_REFERENCE = "io.jcoder.odin.reference.InjectableReference";
+
+    static final String INJECTION_CONTEXT = "io.jcoder.odin.InjectionContext";
+
+    static final String CONSTRUCTION_FUNCTION = "io.jcoder.odin.function.ConstructionFunction";
+
+    static final String INJECTION_FUNCTION = "io.jcoder.odin.function.InjectionFunction";
+
+    static final String INSTANCE_FUNCTION = "io.jcoder.odin.function.InstanceFunction";
+
+    static final String POST_CONSTRUCTION_FUNCTION = "io.jcoder.odin.function.PostConstructionFunction";
+
+    static final String FIELD_INJECTION_FUNCTION = "io.jcoder.odin.function.FieldInjectionFunction";
+
+    static final String METHOD_INJECTION_FUNCTION = "io.jcoder.odin.function.MethodInjectionFunction";
+
+    static final String CONSTRUCTION_FUNCTION_EXCEPTION = "io.jcoder.odin.ConstructionFunctionException";
+
+    static final String INJECTION_FUNCTION_EXCEPTION = "io.jcoder.odin.InjectionFunctionException";
+
+    static final String INITIALIZATION_EXCEPTION = "io.jcoder.odin.InitializationException";
+
+    static final String DESTRUCTION_EXCEPTION = "io.jcoder.odin.DestructionException";
+
+    private Names() {
+    }
+
+}
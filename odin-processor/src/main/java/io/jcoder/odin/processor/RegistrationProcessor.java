@@ -0,0 +1,247 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that generates, for every class using the annotations supported by the Odin annotations module,
+ * a registration that creates the same {@code RegistrationBuilder} that {@code AnnotationAwareRegistrationBuilder}
+ * creates at runtime, but without reflection whenever the annotated members are accessible from the package of the
+ * class.
+ *
+ * <p>
+ * The names of the classes with a generated registration are written to the {@value #INDEX_RESOURCE} resource, which
+ * is used at runtime to find them. Classes that can't be handled by the generated code are left out, and are still
+ * registered by processing their annotations at runtime. Incremental compilations only process some of the classes, so
+ * the entries of the existing index for classes that weren't processed, and still exist, are kept.
+ *
+ * <p>
+ * The processor only refers to the annotations by name, so it has no dependencies other than the JDK. Setting the
+ * {@value #VERBOSE_OPTION} option to {@code true} reports the classes that were left out and why.
+ *
+ * <p>
+ * Setting the {@value #FUSED_OPTION} option to {@code true} generates, for each class with an accessible constructor,
+ * a single {@code InstanceFunction} that constructs the instances, injects their members and runs their PostConstruct
+ * method, instead of separate construction, injection and post construction functions. As a single function takes care
+ * of the whole initialization, the generated builders can't be given additional injection or post construction
+ * functions.
+ *
+ * @author Camilo Gonzalez
+ */
+public class RegistrationProcessor extends AbstractProcessor {
+
+    /**
+     * The resource listing the binary names of the classes with a generated registration.
+     */
+    static final String INDEX_RESOURCE = "META-INF/odin/registrations";
+
+    static final String VERBOSE_OPTION = "odin.verbose";
+
+    static final String FUSED_OPTION = "odin.fused";
+
+    private static final Set<String> SUPPORTED_ANNOTATIONS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            Names.INJECT,
+            Names.NAMED,
+            Names.SINGLETON,
+            Names.POST_CONSTRUCT,
+            Names.PRE_DESTROY,
+            Names.LAZY,
+            Names.PRIORITY,
+            Names.REQUEST_SCOPED,
+            Names.SCOPED_TO,
+            Names.COMPONENT,
+            Names.REGISTRATION)));
+
+    private final Set<String> processedTypes = new HashSet<>();
+
+    private final Set<String> generatedTypes = new TreeSet<>();
+
+    private final Set<Element> originatingElements = new LinkedHashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return SUPPORTED_ANNOTATIONS;
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return new HashSet<>(Arrays.asList(VERBOSE_OPTION, FUSED_OPTION));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+
+        final Set<TypeElement> typesToProcess = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                final TypeElement type = enclosingType(element);
+                if (type != null) {
+                    typesToProcess.add(type);
+                }
+            }
+        }
+
+        for (TypeElement type : typesToProcess) {
+            process(type);
+        }
+
+        // the annotations are not claimed, so other processors can handle them as well
+        return false;
+    }
+
+    private void process(TypeElement type) {
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        if (!processedTypes.add(binaryName)) {
+            return;
+        }
+
+        if (type.getKind() != ElementKind.CLASS) {
+            return;
+        }
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL
+                && !(type.getNestingKind() == NestingKind.MEMBER && type.getModifiers().contains(Modifier.STATIC))) {
+            note(type, "only top level and static nested classes are supported");
+            return;
+        }
+
+        final RegistrationWriter writer = new RegistrationWriter(processingEnv, type,
+                Boolean.parseBoolean(processingEnv.getOptions().get(FUSED_OPTION)));
+        final String source = writer.write();
+        for (String reason : writer.unsupportedReasons()) {
+            note(type, reason);
+        }
+        if (source == null) {
+            return;
+        }
+
+        try {
+            final JavaFileObject file = processingEnv.getFiler().createSourceFile(writer.generatedClassName(), type);
+            try (Writer out = file.openWriter()) {
+                out.write(source);
+            }
+            generatedTypes.add(binaryName);
+            originatingElements.add(type);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR,
+                    "Couldn't write the generated registration " + writer.generatedClassName() + ": " + e.getMessage(), type);
+        }
+    }
+
+    private void writeIndex() {
+        final Set<String> indexedTypes = new TreeSet<>(generatedTypes);
+        for (String indexedType : readExistingIndex()) {
+            if (!processedTypes.contains(indexedType) && exists(indexedType)) {
+                indexedTypes.add(indexedType);
+            }
+        }
+        if (indexedTypes.isEmpty()) {
+            return;
+        }
+
+        try {
+            final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE,
+                    originatingElements.toArray(new Element[0]));
+            try (Writer out = file.openWriter()) {
+                for (String indexedType : indexedTypes) {
+                    out.write(indexedType);
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR,
+                    "Couldn't write the generated registrations index " + INDEX_RESOURCE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the index written by a previous compilation to the same output, if any.
+     */
+    private List<String> readExistingIndex() {
+        final List<String> indexedTypes = new ArrayList<>();
+        try {
+            final FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (BufferedReader reader = new BufferedReader(file.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        indexedTypes.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // there is no previous index, or the build tool doesn't allow reading it
+        }
+        return indexedTypes;
+    }
+
+    /**
+     * Indicates if the class with the given binary name can still be found, so the entries of deleted classes are
+     * dropped from the index.
+     */
+    private boolean exists(String binaryName) {
+        return processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.')) != null;
+    }
+
+    private void note(TypeElement type, String reason) {
+        if (Boolean.parseBoolean(processingEnv.getOptions().get(VERBOSE_OPTION))) {
+            processingEnv.getMessager().printMessage(Kind.NOTE,
+                    "No registration generated for " + type.getQualifiedName() + ": " + reason, type);
+        }
+    }
+
+    private static TypeElement enclosingType(Element element) {
+        Element current = element;
+        while (current != null && !(current instanceof TypeElement)) {
+            current = current.getEnclosingElement();
+        }
+        return (TypeElement) current;
+    }
+
+}
@@ -0,0 +1,1055 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.processor;
+
+import static io.jcoder.odin.processor.Names.ANNOTATED;
+import static io.jcoder.odin.processor.Names.ANNOTATION_UTILS;
+import static io.jcoder.odin.processor.Names.COMPONENT;
+import static io.jcoder.odin.processor.Names.CONSTRUCTION_FUNCTION;
+import static io.jcoder.odin.processor.Names.CONSTRUCTION_FUNCTION_EXCEPTION;
+import static io.jcoder.odin.processor.Names.DESTRUCTION_EXCEPTION;
+import static io.jcoder.odin.processor.Names.FIELD_INJECTION_FUNCTION;
+import static io.jcoder.odin.processor.Names.GENERATED_COMPONENT_REGISTRATION;
+import static io.jcoder.odin.processor.Names.GENERATED_REGISTRATION;
+import static io.jcoder.odin.processor.Names.INITIALIZATION_EXCEPTION;
+import static io.jcoder.odin.processor.Names.INJECT;
+import static io.jcoder.odin.processor.Names.INJECTABLE_REFERENCE;
+import static io.jcoder.odin.processor.Names.INJECTION_CONTEXT;
+import static io.jcoder.odin.processor.Names.INJECTION_FUNCTION;
+import static io.jcoder.odin.processor.Names.INJECTION_FUNCTION_EXCEPTION;
+import static io.jcoder.odin.processor.Names.INSTANCE_FUNCTION;
+import static io.jcoder.odin.processor.Names.LAZY;
+import static io.jcoder.odin.processor.Names.METHOD_INJECTION_FUNCTION;
+import static io.jcoder.odin.processor.Names.NAMED;
+import static io.jcoder.odin.processor.Names.POST_CONSTRUCT;
+import static io.jcoder.odin.processor.Names.POST_CONSTRUCTION_FUNCTION;
+import static io.jcoder.odin.processor.Names.PRE_DESTROY;
+import static io.jcoder.odin.processor.Names.PRIORITY;
+import static io.jcoder.odin.processor.Names.PROVIDER;
+import static io.jcoder.odin.processor.Names.QUALIFIER;
+import static io.jcoder.odin.processor.Names.REFERENCE_BUILDER;
+import static io.jcoder.odin.processor.Names.REGISTRATION;
+import static io.jcoder.odin.processor.Names.REGISTRATION_BUILDER;
+import static io.jcoder.odin.processor.Names.REQUEST_SCOPE;
+import static io.jcoder.odin.processor.Names.REQUEST_SCOPED;
+import static io.jcoder.odin.processor.Names.SCOPED_TO;
+import static io.jcoder.odin.processor.Names.SINGLETON;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Writes the source of the generated registration of a class.
+ *
+ * <p>
+ * The generated code mirrors what {@code AnnotationAwareRegistrationBuilder} and {@code DefaultComponentRegistrar} do at
+ * runtime: the constructor, the injected fields and methods, and the PostConstruct and PreDestroy methods are selected
+ * with the same rules and the {@code InjectableReference} objects are built in the same way. The members accessible
+ * from the package of the class are invoked directly, while the rest (e.g. private members) are still handled through
+ * reflection by the generated code.
+ *
+ * @author Camilo Gonzalez
+ */
+final class RegistrationWriter {
+
+    private static final String INDENT = "    ";
+
+    private static final String REFERENCE_ARRAY = INJECTABLE_REFERENCE + "<?>[]";
+
+    private static final String REFERENCE_LIST = "java.util.List<" + INJECTABLE_REFERENCE + "<?>>";
+
+    private final Elements elements;
+
+    private final Types types;
+
+    private final TypeElement type;
+
+    private final String packageName;
+
+    private final String typeName;
+
+    private final String binaryName;
+
+    private final String generatedSimpleName;
+
+    private final boolean fused;
+
+    private final List<String> unsupportedReasons = new ArrayList<>();
+
+    /**
+     * @param fused
+     *            true to construct, inject and initialize the instances in a single {@code InstanceFunction} when
+     *            the constructor is accessible
+     */
+    RegistrationWriter(ProcessingEnvironment processingEnv, TypeElement type, boolean fused) {
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.type = type;
+        this.fused = fused;
+        this.packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        this.typeName = type.getQualifiedName().toString();
+        this.binaryName = elements.getBinaryName(type).toString();
+
+        final String simpleBinaryName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        // must match GeneratedRegistrations.generatedClassName
+        this.generatedSimpleName = simpleBinaryName.replace("_", "__").replace("$", "_N") + "_OdinRegistration";
+    }
+
+    String generatedClassName() {
+        return packageName.isEmpty() ? generatedSimpleName : packageName + "." + generatedSimpleName;
+    }
+
+    /**
+     * Provides the reasons why parts of the registration couldn't be generated, after calling {@link #write()}.
+     */
+    List<String> unsupportedReasons() {
+        return unsupportedReasons;
+    }
+
+    /**
+     * Writes the source of the generated registration.
+     *
+     * @return the source, or null if nothing could be generated for the class.
+     */
+    String write() {
+        if (!isAccessible(type)) {
+            unsupportedReasons.add("the class is not accessible from its package");
+            return null;
+        }
+
+        Code builder = null;
+        try {
+            builder = builderMethod();
+        } catch (UnsupportedElementException e) {
+            unsupportedReasons.add(e.getMessage());
+        }
+
+        Code componentRegistrations = null;
+        if (hasTypeAnnotation(COMPONENT)) {
+            try {
+                componentRegistrations = componentRegistrationsMethod();
+            } catch (UnsupportedElementException e) {
+                unsupportedReasons.add(e.getMessage());
+            }
+        }
+
+        if (builder == null && componentRegistrations == null) {
+            return null;
+        }
+
+        final StringBuilder source = new StringBuilder();
+        line(source, 0, "// Generated by the Odin annotation processor. Do not edit.");
+        if (!packageName.isEmpty()) {
+            line(source, 0, "package " + packageName + ";");
+        }
+        line(source, 0, "");
+        line(source, 0, "@SuppressWarnings({ \"rawtypes\", \"unchecked\" })");
+        line(source, 0, "public final class " + generatedSimpleName + " implements " + GENERATED_REGISTRATION + "<" + typeName + "> {");
+        line(source, 0, "");
+        line(source, 1, "@Override");
+        line(source, 1, "public java.lang.Class<" + typeName + "> registeredType() {");
+        line(source, 2, "return " + typeName + ".class;");
+        line(source, 1, "}");
+        line(source, 0, "");
+        if (builder != null) {
+            source.append(builder.method);
+        } else {
+            line(source, 1, "@Override");
+            line(source, 1, "public " + REGISTRATION_BUILDER + "<" + typeName + "> builder() {");
+            line(source, 2, "return null;");
+            line(source, 1, "}");
+        }
+        if (componentRegistrations != null) {
+            line(source, 0, "");
+            source.append(componentRegistrations.method);
+        }
+        if (builder != null) {
+            source.append(builder.nestedClasses);
+        }
+        if (componentRegistrations != null) {
+            source.append(componentRegistrations.nestedClasses);
+        }
+        line(source, 0, "");
+        line(source, 0, "}");
+        return source.toString();
+    }
+
+    private Code builderMethod() throws UnsupportedElementException {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new UnsupportedElementException("abstract classes can't be instantiated");
+        }
+
+        final Code code = new Code();
+        final StringBuilder method = code.method;
+        line(method, 1, "@Override");
+        line(method, 1, "public " + REGISTRATION_BUILDER + "<" + typeName + "> builder() throws java.lang.ReflectiveOperationException {");
+        line(method, 2, "final " + REGISTRATION_BUILDER + "<" + typeName + "> builder = " + REGISTRATION_BUILDER + ".type(" + typeName
+                + ".class);");
+
+        if (hasTypeAnnotation(SINGLETON) || hasTypeAnnotation(COMPONENT)) {
+            line(method, 2, "builder.asSingleton();");
+        } else if (hasTypeAnnotation(REQUEST_SCOPED)) {
+            line(method, 2, "builder.scopedTo(" + REQUEST_SCOPE + ".class);");
+        } else if (hasTypeAnnotation(SCOPED_TO)) {
+            final TypeMirror scopeType = (TypeMirror) annotationValue(typeAnnotation(SCOPED_TO), "value");
+            line(method, 2, "builder.scopedTo(" + classLiteral(scopeType, type) + ");");
+        }
+        if (hasTypeAnnotation(LAZY)) {
+            line(method, 2, "builder.lazy();");
+        }
+        if (hasTypeAnnotation(PRIORITY)) {
+            line(method, 2, "builder.priority(" + annotationValue(typeAnnotation(PRIORITY), "value") + ");");
+        }
+
+        final AnnotationMirror named = annotation(type, NAMED);
+        if (named != null) {
+            line(method, 2, "builder.named(" + literal((String) annotationValue(named, "value")) + ");");
+        }
+
+        final ExecutableElement constructor = selectConstructor();
+        final List<String> constructorReferences = references(constructor);
+        final boolean directConstruction = isDirectlyAccessible(constructor, type, false);
+        final ExecutableElement postConstruct = lifecycleMethod(POST_CONSTRUCT, "PostConstruct");
+        final ExecutableElement preDestroy = lifecycleMethod(PRE_DESTROY, "PreDestroy");
+
+        if (fused && directConstruction) {
+            final InjectedMembers injectedMembers = injectedMembers(constructorReferences.size(), "");
+            line(method, 2, "builder.withInstanceFunction(new Instance());");
+            writeInstanceFunction(code.nestedClasses, constructor, constructorReferences, injectedMembers, postConstruct);
+        } else {
+            writeConstruction(code, constructor, constructorReferences, directConstruction);
+            writeInjection(code, injectedMembers(0, "this, "));
+            writeLifecycleMethod(code, postConstruct, "PostConstruct", "withPostConstructor", "postConstructFunction",
+                    INITIALIZATION_EXCEPTION);
+        }
+        writeLifecycleMethod(code, preDestroy, "PreDestroy", "withPreDestroy", "preDestroyFunction", DESTRUCTION_EXCEPTION);
+
+        line(method, 2, "return builder;");
+        line(method, 1, "}");
+        return code;
+    }
+
+    private void writeConstruction(Code code, ExecutableElement constructor, List<String> references, boolean directConstruction) {
+        if (!directConstruction) {
+            line(code.method, 2, "builder.withConstructor(" + referenceArray(references) + ");");
+            return;
+        }
+
+        line(code.method, 2, "builder.withConstruction(new Construction());");
+
+        final StringBuilder nested = code.nestedClasses;
+        line(nested, 0, "");
+        line(nested, 1, "private static final class Construction implements " + CONSTRUCTION_FUNCTION + "<" + typeName + "> {");
+        writeReferenceFields(nested, references);
+        writeDependenciesField(nested, "dependencies", "references");
+        writeNewObjectMethod(nested, constructor, references.size());
+        writeDependenciesMethod(nested, REFERENCE_LIST, "dependencies");
+        line(nested, 1, "}");
+    }
+
+    private void writeInjection(Code code, InjectedMembers injectedMembers) {
+        if (injectedMembers.statements.length() == 0) {
+            return;
+        }
+
+        line(code.method, 2, "builder.withInjection(new Injection());");
+
+        final StringBuilder nested = code.nestedClasses;
+        line(nested, 0, "");
+        line(nested, 1, "private static final class Injection implements " + INJECTION_FUNCTION + "<" + typeName + "> {");
+        writeReferenceFields(nested, injectedMembers.references);
+        writeDependenciesField(nested, "dependencies", "references");
+        writeDelegates(nested, "Injection", injectedMembers.delegateFields, injectedMembers.delegateInitializers);
+        line(nested, 0, "");
+        line(nested, 2, "@Override");
+        line(nested, 2, "public void apply(" + INJECTION_CONTEXT + " context, " + typeName + " instance) {");
+        nested.append(injectedMembers.statements);
+        line(nested, 2, "}");
+        line(nested, 0, "");
+        line(nested, 2, "@Override");
+        line(nested, 2, "public java.util.Optional<java.lang.reflect.Member> member() {");
+        line(nested, 3, "return java.util.Optional.empty();");
+        line(nested, 2, "}");
+        writeDependenciesMethod(nested, "java.util.Collection<? extends " + INJECTABLE_REFERENCE + "<?>>", "dependencies");
+        line(nested, 1, "}");
+    }
+
+    /**
+     * Writes a single function that constructs the instances, injects their members and runs their PostConstruct
+     * method.
+     */
+    private void writeInstanceFunction(StringBuilder nested, ExecutableElement constructor, List<String> constructorReferences,
+            InjectedMembers injectedMembers, ExecutableElement postConstruct) {
+
+        final List<String> references = new ArrayList<>(constructorReferences);
+        references.addAll(injectedMembers.references);
+        final String constructorReferencesCount = String.valueOf(constructorReferences.size());
+
+        final StringBuilder delegateFields = new StringBuilder(injectedMembers.delegateFields);
+        final StringBuilder delegateInitializers = new StringBuilder(injectedMembers.delegateInitializers);
+        final boolean directPostConstruct = postConstruct != null && isDirectlyAccessible(postConstruct, type, false);
+        if (postConstruct != null && !directPostConstruct) {
+            line(delegateFields, 2, "private final " + POST_CONSTRUCTION_FUNCTION + "<" + typeName + "> postConstructor;");
+            line(delegateInitializers, 3, "postConstructor = " + reflectiveLifecycleFunction(postConstruct, "postConstructFunction") + ";");
+        }
+
+        line(nested, 0, "");
+        line(nested, 1, "private static final class Instance implements " + INSTANCE_FUNCTION + "<" + typeName + "> {");
+        writeReferenceFields(nested, references);
+        writeDependenciesField(nested, "dependencies", "references).subList(0, " + constructorReferencesCount);
+        writeDependenciesField(nested, "initializationDependencies",
+                "references).subList(" + constructorReferencesCount + ", " + references.size());
+        writeDelegates(nested, "Instance", delegateFields, delegateInitializers);
+        writeNewObjectMethod(nested, constructor, constructorReferences.size());
+        line(nested, 0, "");
+        line(nested, 2, "@Override");
+        line(nested, 2, "public void initialize(" + INJECTION_CONTEXT + " context, " + typeName + " instance) {");
+        nested.append(injectedMembers.statements);
+        if (directPostConstruct) {
+            writeDirectLifecycleCall(nested, 3, postConstruct, "PostConstruct", INITIALIZATION_EXCEPTION);
+        } else if (postConstruct != null) {
+            line(nested, 3, "postConstructor.postConstruct(instance);");
+        }
+        line(nested, 2, "}");
+        writeDependenciesMethod(nested, REFERENCE_LIST, "dependencies");
+        writeDependenciesMethod(nested, REFERENCE_LIST, "initializationDependencies");
+        line(nested, 1, "}");
+    }
+
+    private void writeNewObjectMethod(StringBuilder nested, ExecutableElement constructor, int parameterCount) {
+        line(nested, 0, "");
+        line(nested, 2, "@Override");
+        line(nested, 2, "public " + typeName + " newObject(" + INJECTION_CONTEXT + " context) throws java.lang.reflect.InvocationTargetException {");
+        writeArguments(nested, 0, parameterCount);
+        line(nested, 3, "try {");
+        line(nested, 4, "return new " + typeName + "(" + castArguments(constructor, 0) + ");");
+        line(nested, 3, "} catch (java.lang.Exception e) {");
+        line(nested, 4, "throw new java.lang.reflect.InvocationTargetException(e);");
+        line(nested, 3, "}");
+        line(nested, 2, "}");
+    }
+
+    private void writeDelegates(StringBuilder nested, String className, StringBuilder delegateFields, StringBuilder delegateInitializers) {
+        if (delegateFields.length() == 0) {
+            return;
+        }
+
+        line(nested, 0, "");
+        nested.append(delegateFields);
+        line(nested, 0, "");
+        line(nested, 2, className + "() throws java.lang.ReflectiveOperationException {");
+        nested.append(delegateInitializers);
+        line(nested, 2, "}");
+    }
+
+    private ExecutableElement selectConstructor() throws UnsupportedElementException {
+        final List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        if (constructors.size() == 1) {
+            return constructors.get(0);
+        }
+
+        ExecutableElement constructorToUse = null;
+        for (ExecutableElement constructor : constructors) {
+            if (hasAnnotation(constructor, INJECT)) {
+                if (constructorToUse != null) {
+                    throw new UnsupportedElementException("more than one constructor is annotated with @Inject");
+                }
+                constructorToUse = constructor;
+            }
+        }
+        if (constructorToUse == null) {
+            throw new UnsupportedElementException("there is more than one constructor and none are annotated with @Inject");
+        }
+        return constructorToUse;
+    }
+
+    /**
+     * Collects the injected fields and methods of the registered type and its superclasses, and writes the statements
+     * injecting them.
+     *
+     * @param firstIndex
+     *            the index of the first reference of the members in the references array of the generated class
+     * @param failedFunction
+     *            the arguments that identify the failed function in the InjectionFunctionException constructor
+     */
+    private InjectedMembers injectedMembers(int firstIndex, String failedFunction) throws UnsupportedElementException {
+        final List<TypeElement> hierarchy = classHierarchy();
+
+        // methods are selected from the subclasses up, so only the most specific declaration of a method is considered
+        final Map<TypeElement, List<ExecutableElement>> injectedMethods = new LinkedHashMap<>();
+        final Set<String> seenMethods = new HashSet<>();
+        for (TypeElement classToProcess : hierarchy) {
+            final List<ExecutableElement> classInjectedMethods = new ArrayList<>();
+            for (ExecutableElement method : ElementFilter.methodsIn(classToProcess.getEnclosedElements())) {
+                if (seenMethods.add(methodKey(classToProcess, method)) && hasAnnotation(method, INJECT)) {
+                    classInjectedMethods.add(method);
+                }
+            }
+            injectedMethods.put(classToProcess, classInjectedMethods);
+        }
+
+        final InjectedMembers members = new InjectedMembers();
+        final StringBuilder statements = members.statements;
+        int delegates = 0;
+
+        // superclasses are injected first, and the fields of each class before its methods
+        for (int i = hierarchy.size() - 1; i >= 0; i--) {
+            final TypeElement classToProcess = hierarchy.get(i);
+            final String declaringClass = classToProcess.getQualifiedName().toString();
+            final String declaringBinaryName = elements.getBinaryName(classToProcess).toString();
+            final String target = classToProcess.equals(type) ? "instance" : "((" + declaringClass + ") instance)";
+
+            for (VariableElement field : ElementFilter.fieldsIn(classToProcess.getEnclosedElements())) {
+                if (!hasAnnotation(field, INJECT)) {
+                    continue;
+                }
+
+                final int index = firstIndex + members.references.size();
+                members.references.add(reference(field));
+
+                if (isDirectlyAccessible(field, classToProcess, false)) {
+                    line(statements, 3, "final java.lang.Object value" + index + " = references[" + index + "].get(context);");
+                    line(statements, 3, "try {");
+                    line(statements, 4, target + "." + field.getSimpleName() + " = (" + castName(field.asType()) + ") value" + index + ";");
+                    line(statements, 3, "} catch (java.lang.Exception e) {");
+                    line(statements, 4, "throw new " + INJECTION_FUNCTION_EXCEPTION + "(" + failedFunction
+                            + literal("Field " + field.getSimpleName() + " of class " + declaringBinaryName) + ", e);");
+                    line(statements, 3, "}");
+                } else {
+                    final String delegate = "member" + delegates++;
+                    line(members.delegateFields, 2, "private final " + INJECTION_FUNCTION + "<" + typeName + "> " + delegate + ";");
+                    line(members.delegateInitializers, 3, delegate + " = new " + FIELD_INJECTION_FUNCTION + "<" + typeName + ">("
+                            + classExpression(hierarchy, i) + ", " + literal(field.getSimpleName().toString()) + ", references[" + index
+                            + "]);");
+                    line(statements, 3, delegate + ".apply(context, instance);");
+                }
+            }
+
+            for (ExecutableElement method : injectedMethods.get(classToProcess)) {
+                final int methodFirstIndex = firstIndex + members.references.size();
+                final List<String> methodReferences = references(method);
+                members.references.addAll(methodReferences);
+
+                if (isDirectlyAccessible(method, classToProcess, false)) {
+                    writeArguments(statements, methodFirstIndex, methodReferences.size());
+                    line(statements, 3, "try {");
+                    line(statements, 4, target + "." + method.getSimpleName() + "(" + castArguments(method, methodFirstIndex) + ");");
+                    line(statements, 3, "} catch (java.lang.Exception e) {");
+                    line(statements, 4, "throw new " + INJECTION_FUNCTION_EXCEPTION + "(" + failedFunction
+                            + literal("Method " + method.getSimpleName() + " of class " + declaringBinaryName)
+                            + ", new java.lang.reflect.InvocationTargetException(e));");
+                    line(statements, 3, "}");
+                } else {
+                    final List<String> arguments = new ArrayList<>();
+                    for (int index = methodFirstIndex; index < methodFirstIndex + methodReferences.size(); index++) {
+                        arguments.add("references[" + index + "]");
+                    }
+                    final String delegate = "member" + delegates++;
+                    line(members.delegateFields, 2, "private final " + INJECTION_FUNCTION + "<" + typeName + "> " + delegate + ";");
+                    line(members.delegateInitializers, 3, delegate + " = new " + METHOD_INJECTION_FUNCTION + "<" + typeName + ">("
+                            + classExpression(hierarchy, i) + ", " + literal(method.getSimpleName().toString()) + ", java.util.Arrays.<"
+                            + INJECTABLE_REFERENCE + "<?>> asList(" + String.join(", ", arguments) + "));");
+                    line(statements, 3, delegate + ".apply(context, instance);");
+                }
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Finds the PostConstruct or PreDestroy method of the registered type, validated as
+     * {@code AnnotationAwareRegistrationBuilder} does.
+     */
+    private ExecutableElement lifecycleMethod(String annotationName, String description) throws UnsupportedElementException {
+        ExecutableElement lifecycleMethod = null;
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (hasAnnotation(method, annotationName)) {
+                if (lifecycleMethod != null) {
+                    throw new UnsupportedElementException("more than one method is annotated with " + description);
+                }
+                lifecycleMethod = method;
+            }
+        }
+        if (lifecycleMethod != null
+                && (!lifecycleMethod.getParameters().isEmpty() || lifecycleMethod.getReturnType().getKind() != TypeKind.VOID)) {
+            throw new UnsupportedElementException("the " + description + " method must have no parameters and a void return type");
+        }
+        return lifecycleMethod;
+    }
+
+    private void writeLifecycleMethod(Code code, ExecutableElement lifecycleMethod, String description, String builderMethod,
+            String reflectiveFunction, String exceptionType) {
+
+        if (lifecycleMethod == null) {
+            return;
+        }
+
+        final StringBuilder method = code.method;
+        if (!isDirectlyAccessible(lifecycleMethod, type, false)) {
+            line(method, 2, "builder." + builderMethod + "(" + reflectiveLifecycleFunction(lifecycleMethod, reflectiveFunction) + ");");
+            return;
+        }
+
+        line(method, 2, "builder." + builderMethod + "(instance -> {");
+        writeDirectLifecycleCall(method, 3, lifecycleMethod, description, exceptionType);
+        line(method, 2, "});");
+    }
+
+    private void writeDirectLifecycleCall(StringBuilder out, int indentation, ExecutableElement lifecycleMethod, String description,
+            String exceptionType) {
+
+        final String methodName = lifecycleMethod.getSimpleName().toString();
+        line(out, indentation, "try {");
+        line(out, indentation + 1, "instance." + methodName + "();");
+        line(out, indentation, "} catch (java.lang.Exception e) {");
+        line(out, indentation + 1, "throw new " + exceptionType + "("
+                + literal("Exception executing " + description + " method '" + methodName + "' of class 'class " + binaryName + "'")
+                + ", e);");
+        line(out, indentation, "}");
+    }
+
+    private String reflectiveLifecycleFunction(ExecutableElement lifecycleMethod, String reflectiveFunction) {
+        return ANNOTATION_UTILS + "." + reflectiveFunction + "(" + typeName + ".class, " + typeName + ".class.getDeclaredMethod("
+                + literal(lifecycleMethod.getSimpleName().toString()) + "))";
+    }
+
+    private Code componentRegistrationsMethod() throws UnsupportedElementException {
+        final Code code = new Code();
+        final StringBuilder method = code.method;
+        final String registrationList = "java.util.List<" + GENERATED_COMPONENT_REGISTRATION + ">";
+        line(method, 1, "@Override");
+        line(method, 1, "public " + registrationList + " componentRegistrations() throws java.lang.ReflectiveOperationException {");
+        line(method, 2, "final " + registrationList + " registrations = new java.util.ArrayList<>();");
+
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (hasAnnotation(field, REGISTRATION)) {
+                line(method, 2, "registrations.add(new " + GENERATED_COMPONENT_REGISTRATION + "(" + ANNOTATED + "("
+                        + classLiteral(field.asType(), field) + ")" + (hasAnnotation(field, LAZY) ? ".lazy()" : "") + priorityCall(field) + ", "
+                        + registrationDetails(field) + "));");
+            }
+        }
+
+        int factories = 0;
+        for (ExecutableElement factoryMethod : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (!hasAnnotation(factoryMethod, REGISTRATION)) {
+                continue;
+            }
+
+            final TypeMirror returnType = factoryMethod.getReturnType();
+            if (returnType.getKind().isPrimitive() || returnType.getKind() == TypeKind.VOID) {
+                throw new UnsupportedElementException("the registration method " + factoryMethod + " must return an object");
+            }
+
+            final String registeredType = typeName(returnType);
+            final String factoryBuilder = "builder" + factories;
+            final boolean isStatic = factoryMethod.getModifiers().contains(Modifier.STATIC);
+            final List<String> references = references(factoryMethod);
+
+            line(method, 2, "final " + REGISTRATION_BUILDER + "<" + registeredType + "> " + factoryBuilder + " = " + REGISTRATION_BUILDER
+                    + ".type(" + classLiteral(returnType, factoryMethod) + ");");
+            if (!isDirectlyAccessible(factoryMethod, type, true)) {
+                if (isStatic) {
+                    line(method, 2, factoryBuilder + ".withStaticFactory(" + typeName + ".class, " + literal(factoryMethod.getSimpleName().toString())
+                            + ", " + referenceArray(references) + ");");
+                } else {
+                    line(method, 2, factoryBuilder + ".withFactory(" + REFERENCE_BUILDER + ".ofType(" + typeName + ".class).build(), "
+                            + literal(factoryMethod.getSimpleName().toString()) + ", " + referenceArray(references) + ");");
+                }
+            } else {
+                line(method, 2, factoryBuilder + ".withConstruction(new Factory" + factories + "());");
+                writeFactory(code.nestedClasses, factories, factoryMethod, registeredType, references, isStatic);
+            }
+            if (hasAnnotation(factoryMethod, LAZY)) {
+                line(method, 2, factoryBuilder + ".lazy();");
+            }
+            if (hasAnnotation(factoryMethod, PRIORITY)) {
+                line(method, 2, factoryBuilder + priorityCall(factoryMethod) + ";");
+            }
+            line(method, 2, "registrations.add(new " + GENERATED_COMPONENT_REGISTRATION + "(" + factoryBuilder + ", "
+                    + registrationDetails(factoryMethod) + "));");
+            factories++;
+        }
+
+        line(method, 2, "return registrations;");
+        line(method, 1, "}");
+        return code;
+    }
+
+    private void writeFactory(StringBuilder nested, int factoryIndex, ExecutableElement factoryMethod, String registeredType,
+            List<String> parameterReferences, boolean isStatic) {
+
+        final List<String> references = new ArrayList<>(parameterReferences);
+        if (!isStatic) {
+            references.add(REFERENCE_BUILDER + ".ofType(" + typeName + ".class).build()");
+        }
+
+        line(nested, 0, "");
+        line(nested, 1, "private static final class Factory" + factoryIndex + " implements " + CONSTRUCTION_FUNCTION + "<" + registeredType
+                + "> {");
+        writeReferenceFields(nested, references);
+        writeDependenciesField(nested, "dependencies", "references");
+        line(nested, 0, "");
+        line(nested, 2, "@Override");
+        line(nested, 2, "public " + registeredType + " newObject(" + INJECTION_CONTEXT + " context) {");
+        if (!isStatic) {
+            line(nested, 3, "final java.lang.Object factory = references[" + parameterReferences.size() + "].get(context);");
+        }
+        writeArguments(nested, 0, parameterReferences.size());
+        final String target = isStatic ? typeName : "((" + typeName + ") factory)";
+        line(nested, 3, "try {");
+        line(nested, 4, "return " + target + "." + factoryMethod.getSimpleName() + "(" + castArguments(factoryMethod, 0) + ");");
+        line(nested, 3, "} catch (java.lang.Exception e) {");
+        line(nested, 4, "throw new " + CONSTRUCTION_FUNCTION_EXCEPTION + "(this, "
+                + literal("Method " + factoryMethod.getSimpleName() + " of class " + binaryName)
+                + ", new java.lang.reflect.InvocationTargetException(e));");
+        line(nested, 3, "}");
+        line(nested, 2, "}");
+        writeDependenciesMethod(nested, REFERENCE_LIST, "dependencies");
+        line(nested, 1, "}");
+    }
+
+    /**
+     * Provides the singleton flag, the name and the qualifier arguments of a {@code GeneratedComponentRegistration}.
+     */
+    private String registrationDetails(Element element) throws UnsupportedElementException {
+        final boolean isSingleton = hasAnnotation(element, SINGLETON);
+        final AnnotationMirror named = annotation(element, NAMED);
+        final TypeElement qualifier = qualifier(element);
+        return isSingleton + ", " + (named == null ? "null" : literal((String) annotationValue(named, "value"))) + ", "
+                + (qualifier == null ? "null" : classLiteral(qualifier.asType(), element));
+    }
+
+    private List<String> references(ExecutableElement executable) throws UnsupportedElementException {
+        final List<String> references = new ArrayList<>();
+        for (VariableElement parameter : executable.getParameters()) {
+            references.add(reference(parameter));
+        }
+        return references;
+    }
+
+    /**
+     * Builds the expression creating the {@code InjectableReference} of an injected field or parameter, following the
+     * same rules as {@code AnnotationUtils.buildInjectableReference}.
+     */
+    private String reference(VariableElement variable) throws UnsupportedElementException {
+        TypeMirror referenceType = variable.asType();
+        final boolean isProvider = isDeclaredAs(referenceType, PROVIDER);
+        if (isProvider) {
+            final List<? extends TypeMirror> typeArguments = ((DeclaredType) referenceType).getTypeArguments();
+            if (typeArguments.size() != 1 || !isClass(typeArguments.get(0))) {
+                throw new UnsupportedElementException("the Provider type argument of " + variable + " must be a class");
+            }
+            referenceType = typeArguments.get(0);
+        }
+
+        final StringBuilder reference = new StringBuilder(REFERENCE_BUILDER + ".ofType(" + classLiteral(referenceType, variable) + ")");
+        final TypeElement qualifier = qualifier(variable);
+        final AnnotationMirror named = annotation(variable, NAMED);
+        if (qualifier != null && !qualifier.getQualifiedName().contentEquals(NAMED)) {
+            reference.append(".qualifiedBy(").append(literal(elements.getBinaryName(qualifier).toString())).append(")");
+        } else if (named != null) {
+            reference.append(".named(").append(literal((String) annotationValue(named, "value"))).append(")");
+        }
+
+        if (supportsMulti(types.erasure(referenceType))) {
+            reference.append(".multi()");
+        }
+
+        if (hasAnnotation(variable, LAZY)) {
+            reference.append(".lazy()");
+        }
+
+        return reference.append(isProvider ? ".asProvider()" : ".build()").toString();
+    }
+
+    private boolean supportsMulti(TypeMirror referenceType) {
+        return referenceType.getKind() == TypeKind.ARRAY || isDeclaredAs(referenceType, "java.util.List")
+                || isDeclaredAs(referenceType, "java.util.Set") || isDeclaredAs(referenceType, "java.util.SortedSet");
+    }
+
+    /**
+     * Indicates if the type is a class that reflection reports as a {@link Class} when used as a type argument.
+     */
+    private boolean isClass(TypeMirror typeMirror) {
+        if (typeMirror.getKind().isPrimitive()) {
+            return true;
+        }
+        if (typeMirror.getKind() == TypeKind.ARRAY) {
+            return isClass(((ArrayType) typeMirror).getComponentType());
+        }
+        return typeMirror.getKind() == TypeKind.DECLARED && ((DeclaredType) typeMirror).getTypeArguments().isEmpty();
+    }
+
+    /**
+     * Provides the qualifier annotation of an element, considering only the annotations retained at runtime.
+     */
+    private TypeElement qualifier(Element element) throws UnsupportedElementException {
+        TypeElement qualifier = null;
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotation(annotationType, QUALIFIER) != null && isRetainedAtRuntime(annotationType)) {
+                if (qualifier != null) {
+                    throw new UnsupportedElementException("there is more than one qualifier defined in " + element);
+                }
+                qualifier = annotationType;
+            }
+        }
+        return qualifier;
+    }
+
+    private boolean isRetainedAtRuntime(TypeElement annotationType) {
+        final AnnotationMirror retention = annotation(annotationType, "java.lang.annotation.Retention");
+        return retention != null && annotationValue(retention, "value").toString().equals("RUNTIME");
+    }
+
+    private void writeReferenceFields(StringBuilder nested, List<String> references) {
+        line(nested, 0, "");
+        if (references.isEmpty()) {
+            line(nested, 2, "private final " + REFERENCE_ARRAY + " references = {};");
+        } else {
+            line(nested, 2, "private final " + REFERENCE_ARRAY + " references = {");
+            for (String reference : references) {
+                line(nested, 4, reference + ",");
+            }
+            line(nested, 2, "};");
+        }
+    }
+
+    /**
+     * Writes an unmodifiable list field with (part of) the references array, given as the arguments of
+     * {@code Arrays.asList} followed by an optional {@code subList} call.
+     */
+    private void writeDependenciesField(StringBuilder nested, String fieldName, String references) {
+        line(nested, 0, "");
+        line(nested, 2, "private final " + REFERENCE_LIST + " " + fieldName + " = java.util.Collections.unmodifiableList(java.util.Arrays.asList("
+                + references + "));");
+    }
+
+    private void writeDependenciesMethod(StringBuilder nested, String returnType, String fieldName) {
+        line(nested, 0, "");
+        line(nested, 2, "@Override");
+        line(nested, 2, "public " + returnType + " " + fieldName + "() {");
+        line(nested, 3, "return " + fieldName + ";");
+        line(nested, 2, "}");
+    }
+
+    private void writeArguments(StringBuilder out, int firstIndex, int count) {
+        for (int index = firstIndex; index < firstIndex + count; index++) {
+            line(out, 3, "final java.lang.Object value" + index + " = references[" + index + "].get(context);");
+        }
+    }
+
+    private String castArguments(ExecutableElement executable, int firstIndex) {
+        final List<String> arguments = new ArrayList<>();
+        int index = firstIndex;
+        for (VariableElement parameter : executable.getParameters()) {
+            arguments.add("(" + castName(parameter.asType()) + ") value" + index++);
+        }
+        return String.join(", ", arguments);
+    }
+
+    private static String referenceArray(List<String> references) {
+        if (references.isEmpty()) {
+            return "new " + INJECTABLE_REFERENCE + "<?>[0]";
+        }
+        return "new " + REFERENCE_ARRAY + " { " + String.join(", ", references) + " }";
+    }
+
+    /**
+     * Provides the expression for the class at the given position of the hierarchy, which is navigated from the
+     * registered type when the class can't be referenced from the generated code.
+     */
+    private String classExpression(List<TypeElement> hierarchy, int position) {
+        final TypeElement classToReference = hierarchy.get(position);
+        if (isAccessible(classToReference)) {
+            return classToReference.getQualifiedName() + ".class";
+        }
+
+        final StringBuilder expression = new StringBuilder("(java.lang.Class) " + typeName + ".class");
+        for (int i = 0; i < position; i++) {
+            expression.append(".getSuperclass()");
+        }
+        return expression.toString();
+    }
+
+    /**
+     * Provides the registered type and its superclasses, starting from the registered type.
+     */
+    private List<TypeElement> classHierarchy() {
+        final List<TypeElement> hierarchy = new ArrayList<>();
+        TypeElement current = type;
+        while (current != null) {
+            hierarchy.add(current);
+            final TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Identifies a method the same way {@code AnnotationAwareRegistrationBuilder} does: package private methods in
+     * different packages and private methods don't override each other.
+     */
+    private String methodKey(TypeElement declaringClass, ExecutableElement method) {
+        final StringBuilder key = new StringBuilder(method.getSimpleName()).append('(');
+        for (VariableElement parameter : method.getParameters()) {
+            key.append(types.erasure(parameter.asType())).append(',');
+        }
+        key.append(')');
+
+        final Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            key.append(elements.getBinaryName(declaringClass));
+        } else if (!modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.PROTECTED)) {
+            key.append(elements.getPackageOf(declaringClass).getQualifiedName()).append('.');
+        }
+        return key.toString();
+    }
+
+    /**
+     * Indicates if the generated code can use the given member without reflection: it must be accessible from the
+     * package of the registered type, be assignable (for fields) and have accessible parameter types to cast the
+     * injected values to. Static members are only invoked directly when explicitly allowed.
+     */
+    private boolean isDirectlyAccessible(Element member, TypeElement declaringClass, boolean allowStatic) {
+        final Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || !allowStatic && modifiers.contains(Modifier.STATIC)) {
+            return false;
+        }
+        if (!modifiers.contains(Modifier.PUBLIC) && !isInPackage(declaringClass) || !isAccessible(declaringClass)) {
+            return false;
+        }
+
+        if (member instanceof VariableElement) {
+            return !modifiers.contains(Modifier.FINAL) && isAccessible(member.asType());
+        }
+        for (VariableElement parameter : ((ExecutableElement) member).getParameters()) {
+            if (!isAccessible(parameter.asType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessible(TypeMirror typeMirror) {
+        final TypeMirror erasure = types.erasure(typeMirror);
+        switch (erasure.getKind()) {
+        case ARRAY:
+            return isAccessible(((ArrayType) erasure).getComponentType());
+        case DECLARED:
+            return isAccessible((TypeElement) types.asElement(erasure));
+        default:
+            return erasure.getKind().isPrimitive();
+        }
+    }
+
+    private boolean isAccessible(TypeElement typeElement) {
+        Element current = typeElement;
+        while (current instanceof TypeElement) {
+            final TypeElement currentType = (TypeElement) current;
+            if (currentType.getNestingKind() == NestingKind.LOCAL || currentType.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+
+            final Set<Modifier> modifiers = currentType.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || !modifiers.contains(Modifier.PUBLIC) && !isInPackage(currentType)) {
+                return false;
+            }
+            current = current.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private boolean isInPackage(TypeElement typeElement) {
+        return elements.getPackageOf(typeElement).getQualifiedName().contentEquals(packageName);
+    }
+
+    private String classLiteral(TypeMirror typeMirror, Element usedBy) throws UnsupportedElementException {
+        if (!isAccessible(typeMirror)) {
+            throw new UnsupportedElementException("the type " + typeMirror + " used by " + usedBy + " is not accessible");
+        }
+        return typeName(typeMirror) + ".class";
+    }
+
+    private String typeName(TypeMirror typeMirror) throws UnsupportedElementException {
+        final TypeMirror erasure = types.erasure(typeMirror);
+        switch (erasure.getKind()) {
+        case ARRAY:
+            return typeName(((ArrayType) erasure).getComponentType()) + "[]";
+        case DECLARED:
+            return ((TypeElement) types.asElement(erasure)).getQualifiedName().toString();
+        default:
+            if (erasure.getKind().isPrimitive()) {
+                return erasure.toString();
+            }
+            throw new UnsupportedElementException("the type " + typeMirror + " can't be resolved");
+        }
+    }
+
+    private String castName(TypeMirror typeMirror) {
+        final TypeMirror erasure = types.erasure(typeMirror);
+        if (erasure.getKind().isPrimitive()) {
+            return types.boxedClass((PrimitiveType) erasure).getQualifiedName().toString();
+        }
+        try {
+            return typeName(erasure);
+        } catch (UnsupportedElementException e) {
+            return "java.lang.Object";
+        }
+    }
+
+    private boolean isDeclaredAs(TypeMirror typeMirror, String qualifiedName) {
+        return typeMirror.getKind() == TypeKind.DECLARED
+                && ((TypeElement) types.asElement(typeMirror)).getQualifiedName().contentEquals(qualifiedName);
+    }
+
+    private boolean hasTypeAnnotation(String annotationName) {
+        return typeAnnotation(annotationName) != null;
+    }
+
+    /**
+     * Provides an annotation of the registered type, including the inherited ones.
+     */
+    private AnnotationMirror typeAnnotation(String annotationName) {
+        for (AnnotationMirror annotation : elements.getAllAnnotationMirrors(type)) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Provides the call setting the priority of the registration made by an element, or an empty string if the element
+     * doesn't define one.
+     */
+    private String priorityCall(Element element) {
+        final AnnotationMirror priority = annotation(element, PRIORITY);
+        return priority == null ? "" : ".priority(" + annotationValue(priority, "value") + ")";
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        return annotation(element, annotationName) != null;
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private Object annotationValue(AnnotationMirror annotation, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(annotation)
+                .entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String literal(String value) {
+        final StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+            case '"':
+                literal.append("\\\"");
+                break;
+            case '\\':
+                literal.append("\\\\");
+                break;
+            case '\n':
+                literal.append("\\n");
+                break;
+            case '\r':
+                literal.append("\\r");
+                break;
+            case '\t':
+                literal.append("\\t");
+                break;
+            default:
+                if (c < 0x20 || c > 0x7e) {
+                    literal.append(String.format("\\u%04x", (int) c));
+                } else {
+                    literal.append(c);
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private static void line(StringBuilder out, int indentation, String text) {
+        if (!text.isEmpty()) {
+            out.append(String.join("", Collections.nCopies(indentation, INDENT))).append(text);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * The references and statements injecting the fields and methods of the registered type. Members that can't be
+     * injected directly are delegated to reflective injection functions, created in the constructor of the generated
+     * class.
+     */
+    private static final class InjectedMembers {
+
+        private final List<String> references = new ArrayList<>();
+
+        private final StringBuilder statements = new StringBuilder();
+
+        private final StringBuilder delegateFields = new StringBuilder();
+
+        private final StringBuilder delegateInitializers = new StringBuilder();
+
+    }
+
+    /**
+     * The code of a method of the generated class, and of the nested classes it uses.
+     */
+    private static final class Code {
+
+        private final StringBuilder method = new StringBuilder();
+
+        private final StringBuilder nestedClasses = new StringBuilder();
+
+    }
+
+}
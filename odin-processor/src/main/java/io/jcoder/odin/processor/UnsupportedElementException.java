@@ -0,0 +1,32 @@
+/*
+ *  Copyright 2019 JCoder Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.jcoder.odin.processor;
+
+/**
+ * Thrown when a registration can't be generated for a class, which is then registered by processing its annotations at
+ * runtime as usual.
+ *
+ * @author Camilo Gonzalez
+ */
+class UnsupportedElementException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    UnsupportedElementException(String message) {
+        super(message);
+    }
+
+}